@@ -0,0 +1,207 @@
+package com.assignments.rbac.cache;
+
+import com.assignments.rbac.dto.events.CacheInvalidationEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans local cache invalidations out to the other nodes and applies theirs here.
+ *
+ * Invalidations are not sent one by one: they are collected per cache and flushed every
+ * {@code flushIntervalMs}, so a burst of evictions for the same keys becomes one message per
+ * cache. A batch that grows past {@code maxKeysPerMessage} keys and tags is sent as a clear
+ * instead. Tags are sent as tags, since only the receiving node knows which of its keys carry them.
+ * Every node receives its own messages too and ignores them by origin node id. Without a
+ * sender (single-node deployments) invalidations stay local.
+ *
+ * A batch that cannot be sent is merged back into the pending batches and retried on the next
+ * flush, so an invalidation is never dropped while the broker is down; the remaining batches of
+ * that flush wait with it. Messages published by other nodes while this node's listener was
+ * disconnected are gone with its queue, so {@link #clearLocalCaches} empties every near cache
+ * when the listener reconnects.
+ */
+@Slf4j
+public class CacheInvalidationBroadcaster implements Closeable {
+
+    @FunctionalInterface
+    public interface Sender {
+        void send(CacheInvalidationEvent event) throws Exception;
+    }
+
+    private static final class Batch {
+        private boolean clear;
+        private final Set<String> keys = new LinkedHashSet<>();
+        private final Set<String> tags = new LinkedHashSet<>();
+
+        private void markCleared() {
+            clear = true;
+            keys.clear();
+            tags.clear();
+        }
+    }
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Sender sender;
+    private final int maxKeysPerMessage;
+    private final Map<String, InvalidatingCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Batch> pending = new LinkedHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private volatile boolean failing;
+
+    public CacheInvalidationBroadcaster(Sender sender, long flushIntervalMs, int maxKeysPerMessage) {
+        this.sender = sender;
+        this.maxKeysPerMessage = Math.max(1, maxKeysPerMessage);
+        if (sender != null) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cache-invalidation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void register(InvalidatingCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    public void keyInvalidated(String cacheName, String key) {
+        if (sender == null) {
+            return;
+        }
+        synchronized (pending) {
+            Batch batch = pending.computeIfAbsent(cacheName, name -> new Batch());
+            if (!batch.clear) {
+                batch.keys.add(key);
+                if (batch.keys.size() + batch.tags.size() > maxKeysPerMessage) {
+                    batch.markCleared();
+                }
+            }
+        }
+    }
+
+    public void tagInvalidated(String cacheName, String tag) {
+        if (sender == null) {
+            return;
+        }
+        synchronized (pending) {
+            Batch batch = pending.computeIfAbsent(cacheName, name -> new Batch());
+            if (!batch.clear) {
+                batch.tags.add(tag);
+                if (batch.keys.size() + batch.tags.size() > maxKeysPerMessage) {
+                    batch.markCleared();
+                }
+            }
+        }
+    }
+
+    public void cacheCleared(String cacheName) {
+        if (sender == null) {
+            return;
+        }
+        synchronized (pending) {
+            pending.computeIfAbsent(cacheName, name -> new Batch()).markCleared();
+        }
+    }
+
+    /** Empties every registered cache on this node only, for when remote invalidations may have been missed. */
+    public void clearLocalCaches() {
+        caches.values().forEach(cache -> cache.invalidateRemote(true, List.of()));
+        if (!caches.isEmpty()) {
+            log.info("Cleared {} near caches; invalidations from other nodes may have been missed", caches.size());
+        }
+    }
+
+    /** Applies an invalidation published by any node; the node's own messages are skipped. */
+    public void apply(CacheInvalidationEvent event) {
+        if (nodeId.equals(event.getOriginNodeId())) {
+            return;
+        }
+        InvalidatingCache cache = caches.get(event.getCacheName());
+        if (cache == null) {
+            log.debug("Ignoring invalidation for unknown cache '{}'", event.getCacheName());
+            return;
+        }
+        cache.invalidateRemote(event.isClear(), event.getKeys() != null ? event.getKeys() : List.of(),
+                event.getTags() != null ? event.getTags() : List.of());
+    }
+
+    public void flush() {
+        List<CacheInvalidationEvent> events = new ArrayList<>();
+        synchronized (pending) {
+            pending.forEach((cacheName, batch) -> events.add(new CacheInvalidationEvent(nodeId, cacheName,
+                    batch.clear, List.copyOf(batch.keys), List.copyOf(batch.tags))));
+            pending.clear();
+        }
+        for (int i = 0; i < events.size(); i++) {
+            CacheInvalidationEvent event = events.get(i);
+            try {
+                sender.send(event);
+            } catch (Exception e) {
+                requeue(events.subList(i, events.size()));
+                if (!failing) {
+                    failing = true;
+                    log.warn("Failed to broadcast invalidation of cache '{}', retrying with the next flush - Error: {}",
+                            event.getCacheName(), e.getMessage());
+                }
+                return;
+            }
+        }
+        if (failing && !events.isEmpty()) {
+            failing = false;
+            log.info("Broadcasting cache invalidations again");
+        }
+    }
+
+    private void requeue(List<CacheInvalidationEvent> events) {
+        synchronized (pending) {
+            for (CacheInvalidationEvent event : events) {
+                Batch batch = pending.computeIfAbsent(event.getCacheName(), name -> new Batch());
+                if (batch.clear) {
+                    continue;
+                }
+                if (event.isClear()) {
+                    batch.markCleared();
+                    continue;
+                }
+                batch.keys.addAll(event.getKeys());
+                batch.tags.addAll(event.getTags());
+                if (batch.keys.size() + batch.tags.size() > maxKeysPerMessage) {
+                    batch.markCleared();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            flush();
+            synchronized (pending) {
+                if (!pending.isEmpty()) {
+                    log.error("Shutting down with invalidations of {} caches not broadcast: {}", pending.size(),
+                            pending.keySet());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.assignments.rbac.cache;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/cachestats}: hit ratio, load time, evictions by cause, the hottest keys and
+ * the age distribution of the entries of every Caffeine cache, for sizing TTLs and maximum sizes.
+ * Ages are computed from a sample of at most {@link #AGE_SAMPLE} entries per cache.
+ */
+@Component
+@Endpoint(id = "cachestats")
+@RequiredArgsConstructor
+public class CacheStatsEndpoint {
+
+    static final int TOP_KEYS = 20;
+    static final int AGE_SAMPLE = 10_000;
+
+    public record KeyStats(String key, Long ageSeconds) {
+    }
+
+    public record AgeStats(int sampled, long p50Seconds, long p90Seconds, long maxSeconds) {
+    }
+
+    public record CacheReport(String name, long size, long hits, long misses, double hitRatio,
+                              long loads, double averageLoadMillis, Map<String, Long> evictions,
+                              List<KeyStats> topKeys, AgeStats entryAges) {
+    }
+
+    private final CacheManager cacheManager;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @ReadOperation
+    public Map<String, CacheReport> caches() {
+        Map<String, CacheReport> reports = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            CacheReport report = report(cacheManager.getCache(name));
+            if (report != null) {
+                reports.put(name, report);
+            }
+        }
+        return reports;
+    }
+
+    @ReadOperation
+    @Nullable
+    public CacheReport cache(@Selector String name) {
+        Cache cache = cacheManager.getCacheNames().contains(name) ? cacheManager.getCache(name) : null;
+        return cache != null ? report(cache) : null;
+    }
+
+    private CacheReport report(Cache cache) {
+        if (!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache;
+        CacheStats stats = caffeine.stats();
+        Optional<Policy.FixedExpiration<Object, Object>> expiration = caffeine.policy().expireAfterWrite()
+                .or(() -> caffeine.policy().expireAfterAccess());
+
+        List<KeyStats> topKeys = new ArrayList<>();
+        caffeine.policy().eviction().ifPresent(eviction -> eviction.hottest(TOP_KEYS).keySet().forEach(key ->
+                topKeys.add(new KeyStats(String.valueOf(key), ageSeconds(expiration, key)))));
+
+        return new CacheReport(cache.getName(), caffeine.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), loadCount(cache.getName(), stats), averageLoadMillis(cache.getName(), stats),
+                evictions(cache.getName(), stats), topKeys, entryAges(caffeine, expiration));
+    }
+
+    private long loadCount(String name, CacheStats stats) {
+        Timer loads = loadTimer(name);
+        return loads != null ? loads.count() : stats.loadCount();
+    }
+
+    private double averageLoadMillis(String name, CacheStats stats) {
+        Timer loads = loadTimer(name);
+        return loads != null ? loads.mean(TimeUnit.MILLISECONDS) : stats.averageLoadPenalty() / 1_000_000.0;
+    }
+
+    @Nullable
+    private Timer loadTimer(String name) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        return registry != null
+                ? registry.find("cache.loads").tag("cache", name).tag("result", "success").timer()
+                : null;
+    }
+
+    private Map<String, Long> evictions(String name, CacheStats stats) {
+        Map<String, Long> evictions = new LinkedHashMap<>();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            for (DistributionSummary summary : registry.find("cache.evictions").tag("cache", name).summaries()) {
+                evictions.put(summary.getId().getTag("cause"), summary.count());
+            }
+        }
+        if (evictions.isEmpty() && stats.evictionCount() > 0) {
+            evictions.put("TOTAL", stats.evictionCount());
+        }
+        return evictions;
+    }
+
+    @Nullable
+    private static AgeStats entryAges(com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine,
+                                      Optional<Policy.FixedExpiration<Object, Object>> expiration) {
+        if (expiration.isEmpty()) {
+            return null;
+        }
+        long[] ages = new long[(int) Math.min(AGE_SAMPLE, Math.max(0, caffeine.estimatedSize()))];
+        int sampled = 0;
+        Iterator<Object> keys = caffeine.asMap().keySet().iterator();
+        while (sampled < ages.length && keys.hasNext()) {
+            Long age = ageSeconds(expiration, keys.next());
+            if (age != null) {
+                ages[sampled++] = age;
+            }
+        }
+        if (sampled == 0) {
+            return new AgeStats(0, 0, 0, 0);
+        }
+        Arrays.sort(ages, 0, sampled);
+        return new AgeStats(sampled, ages[(sampled - 1) / 2], ages[(int) ((sampled - 1) * 0.9)], ages[sampled - 1]);
+    }
+
+    @Nullable
+    private static Long ageSeconds(Optional<Policy.FixedExpiration<Object, Object>> expiration, Object key) {
+        return expiration.flatMap(policy -> policy.ageOf(key)).map(Duration::toSeconds).orElse(null);
+    }
+}
@@ -0,0 +1,78 @@
+package com.assignments.rbac.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Which keys of one cache carry which tags, on this node.
+ *
+ * Tags are computed from the value when it is stored and dropped when the entry is evicted,
+ * expires or is replaced. The index can briefly name a key that is no longer cached (an entry
+ * evicted while it was being tagged); evicting such a key is a no-op and the stale reference
+ * goes away the next time the key is stored or removed. Writes are far rarer than reads of the
+ * cache, so one lock guards the whole index.
+ */
+class CacheTagIndex {
+
+    private final Function<Object, Collection<String>> tagger;
+    private final Map<String, Set<Object>> keysByTag = new HashMap<>();
+    private final Map<Object, Collection<String>> tagsByKey = new HashMap<>();
+
+    CacheTagIndex(Function<Object, Collection<String>> tagger) {
+        this.tagger = tagger;
+    }
+
+    synchronized void tag(Object key, Object value) {
+        Collection<String> tags = value != null ? tagger.apply(value) : List.of();
+        removeKey(key);
+        if (tags.isEmpty()) {
+            return;
+        }
+        tagsByKey.put(key, List.copyOf(tags));
+        for (String tag : tags) {
+            keysByTag.computeIfAbsent(tag, t -> new HashSet<>()).add(key);
+        }
+    }
+
+    synchronized void untag(Object key) {
+        removeKey(key);
+    }
+
+    /** Removes and returns the keys carrying {@code tag}. */
+    synchronized List<Object> removeTag(String tag) {
+        Set<Object> keys = keysByTag.get(tag);
+        if (keys == null) {
+            return List.of();
+        }
+        List<Object> removed = List.copyOf(keys);
+        removed.forEach(this::removeKey);
+        return removed;
+    }
+
+    synchronized void clear() {
+        keysByTag.clear();
+        tagsByKey.clear();
+    }
+
+    synchronized int size() {
+        return tagsByKey.size();
+    }
+
+    private void removeKey(Object key) {
+        Collection<String> tags = tagsByKey.remove(key);
+        if (tags == null) {
+            return;
+        }
+        for (String tag : tags) {
+            Set<Object> keys = keysByTag.get(tag);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByTag.remove(tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.assignments.rbac.cache;
+
+/**
+ * Tag names shared by the code that tags cache entries and the code that evicts them.
+ */
+public final class CacheTags {
+
+    private CacheTags() {
+    }
+
+    public static String user(Long userId) {
+        return "user:" + userId;
+    }
+
+    public static String role(Long roleId) {
+        return "role:" + roleId;
+    }
+}
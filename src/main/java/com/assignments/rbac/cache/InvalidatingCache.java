@@ -0,0 +1,264 @@
+package com.assignments.rbac.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Near-cache decorator that keeps a node's local cache coherent with the rest of the cluster.
+ *
+ * Local evictions and clears are handed to the {@link CacheInvalidationBroadcaster}, which fans
+ * them out to the other nodes; invalidations received from other nodes are applied through
+ * {@link #invalidateRemote}. Every invalidation bumps a version stamp for the key's stripe (or
+ * a cache-wide epoch for clears). A value loaded after a miss is only stored if the stamp is
+ * unchanged since that miss, so a load that read the database before a concurrent update
+ * committed can never put the stale value back after the invalidation arrived. Misses are
+ * remembered per thread, so a caller may look up several keys and then put them all after
+ * one batched load.
+ *
+ * Caches created with a tagger index their keys by the tags of the stored values (see
+ * {@link CacheTagIndex}); {@link #evictTag} evicts every entry carrying a tag and broadcasts the
+ * tag, which each node resolves against its own index. A tag eviction also bumps the epoch,
+ * because a load already running for an affected key is not in the index yet.
+ */
+@Slf4j
+public class InvalidatingCache implements TaggedCache {
+
+    private static final int STRIPES = 1024;
+    private static final int MAX_PENDING_MISSES = 1024;
+
+    private final Cache delegate;
+    private final CacheInvalidationBroadcaster broadcaster;
+    private final Function<String, Object> keyDecoder;
+    private final AtomicLongArray stripeVersions = new AtomicLongArray(STRIPES);
+    private final AtomicLong epoch = new AtomicLong();
+    private final ThreadLocal<Map<Object, Long>> pendingMisses = ThreadLocal.withInitial(HashMap::new);
+    private final CacheTagIndex tags;
+
+    public InvalidatingCache(Cache delegate, CacheInvalidationBroadcaster broadcaster,
+                             Function<String, Object> keyDecoder) {
+        this(delegate, broadcaster, keyDecoder, null);
+    }
+
+    /** {@code tagger} names the tags of a stored value; {@code null} leaves the cache untagged. */
+    public InvalidatingCache(Cache delegate, CacheInvalidationBroadcaster broadcaster,
+                             Function<String, Object> keyDecoder, Function<Object, Collection<String>> tagger) {
+        this.delegate = delegate;
+        this.broadcaster = broadcaster;
+        this.keyDecoder = keyDecoder;
+        this.tags = tagger != null ? new CacheTagIndex(tagger) : null;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        long stamp = stamp(key);
+        ValueWrapper value = delegate.get(key);
+        if (value == null) {
+            Map<Object, Long> misses = pendingMisses.get();
+            if (misses.size() >= MAX_PENDING_MISSES) {
+                // Lookups whose put never came (the method threw, or its result was not cacheable).
+                misses.clear();
+            }
+            misses.put(key, stamp);
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long stamp = stamp(key);
+        Callable<T> loader = tags == null ? valueLoader : () -> {
+            T loaded = valueLoader.call();
+            tags.tag(key, loaded);
+            return loaded;
+        };
+        T value = delegate.get(key, loader);
+        if (stamp(key) != stamp) {
+            // Invalidated while loading; the caller still gets its value but it is not kept.
+            delegate.evict(key);
+            untag(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Long missStamp = pendingMisses.get().remove(key);
+        if (missStamp == null) {
+            delegate.put(key, value);
+            tag(key, value);
+        } else if (!putIfUnchanged(key, value, missStamp)) {
+            log.debug("Skipping put of key {} into cache '{}': invalidated since the miss", key, getName());
+        }
+    }
+
+    /** The key's current version stamp, to be passed to {@link #putIfUnchanged} after loading it. */
+    public long version(Object key) {
+        return stamp(key);
+    }
+
+    /** Stores a value loaded at {@code version} unless the key has been invalidated since. */
+    public boolean putIfUnchanged(Object key, Object value, long version) {
+        if (stamp(key) != version) {
+            return false;
+        }
+        delegate.put(key, value);
+        tag(key, value);
+        if (stamp(key) != version) {
+            // An invalidation raced with the put and may have evicted before it landed.
+            delegate.evict(key);
+            untag(key);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            tag(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        invalidateLocal(key);
+        broadcaster.keyInvalidated(getName(), String.valueOf(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        stripeVersions.incrementAndGet(stripe(key));
+        boolean present = delegate.evictIfPresent(key);
+        untag(key);
+        broadcaster.keyInvalidated(getName(), String.valueOf(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        clearLocal();
+        broadcaster.cacheCleared(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        epoch.incrementAndGet();
+        boolean hadEntries = delegate.invalidate();
+        if (tags != null) {
+            tags.clear();
+        }
+        broadcaster.cacheCleared(getName());
+        return hadEntries;
+    }
+
+    /** Evicts the entries tagged {@code tag}; an untagged cache is cleared instead. */
+    @Override
+    public void evictTag(String tag) {
+        if (tags == null) {
+            clear();
+            return;
+        }
+        int evicted = invalidateTagLocal(tag);
+        broadcaster.tagInvalidated(getName(), tag);
+        log.debug("Evicted {} entries tagged '{}' from cache '{}'", evicted, tag, getName());
+    }
+
+    /** Forgets the tags of an entry the underlying cache evicted or expired on its own. */
+    public void entryEvicted(Object key) {
+        untag(key);
+    }
+
+    int taggedEntries() {
+        return tags != null ? tags.size() : 0;
+    }
+
+    /** Applies an invalidation received from another node without broadcasting it again. */
+    public void invalidateRemote(boolean clear, Collection<String> keys) {
+        invalidateRemote(clear, keys, List.of());
+    }
+
+    /** Applies an invalidation received from another node without broadcasting it again. */
+    public void invalidateRemote(boolean clear, Collection<String> keys, Collection<String> remoteTags) {
+        if (clear || (!remoteTags.isEmpty() && tags == null)) {
+            clearLocal();
+            return;
+        }
+        for (String key : keys) {
+            invalidateLocal(keyDecoder.apply(key));
+        }
+        for (String tag : remoteTags) {
+            invalidateTagLocal(tag);
+        }
+    }
+
+    private int invalidateTagLocal(String tag) {
+        epoch.incrementAndGet();
+        List<Object> keys = tags.removeTag(tag);
+        for (Object key : keys) {
+            stripeVersions.incrementAndGet(stripe(key));
+            delegate.evict(key);
+        }
+        return keys.size();
+    }
+
+    private void invalidateLocal(Object key) {
+        stripeVersions.incrementAndGet(stripe(key));
+        delegate.evict(key);
+        untag(key);
+    }
+
+    private void clearLocal() {
+        epoch.incrementAndGet();
+        delegate.clear();
+        if (tags != null) {
+            tags.clear();
+        }
+    }
+
+    private void tag(Object key, Object value) {
+        if (tags != null) {
+            tags.tag(key, value);
+        }
+    }
+
+    private void untag(Object key) {
+        if (tags != null) {
+            tags.untag(key);
+        }
+    }
+
+    private long stamp(Object key) {
+        return epoch.get() + stripeVersions.get(stripe(key));
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,193 @@
+package com.assignments.rbac.cache;
+
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Caffeine cache manager whose caches are wrapped in an {@link InvalidatingCache}, registered
+ * with the broadcaster so invalidations from other nodes reach them, a {@link SingleFlightCache}
+ * and - when a meter registry is available - a {@link MeteredCache}. Caches enabled for
+ * refresh-ahead that expire after write are additionally wrapped in a {@link RefreshAheadCache}.
+ * Caches enabled for the off-heap tier keep their Caffeine cache as a small heap tier in front of
+ * an {@link OffHeapCache} with the same write TTL (see {@link TieredCache}).
+ * Native caches for names created on demand come from {@code nativeCacheFactory}, which is handed
+ * the listener that keeps tag indexes in step with size and expiry evictions. Caches keyed by
+ * something other than a string declare how to turn a broadcast key back into a cache key.
+ */
+@Slf4j
+public class InvalidatingCaffeineCacheManager extends CaffeineCacheManager {
+
+    private final CacheInvalidationBroadcaster broadcaster;
+    private final MeterRegistry meterRegistry;
+    private final BiFunction<String, RemovalListener<Object, Object>,
+            com.github.benmanes.caffeine.cache.Cache<Object, Object>> nativeCacheFactory;
+    private final Map<String, Function<String, Object>> keyDecoders = new ConcurrentHashMap<>();
+    private final Map<String, Function<Object, Collection<String>>> taggers = new ConcurrentHashMap<>();
+    private final Map<String, InvalidatingCache> invalidatingCaches = new ConcurrentHashMap<>();
+    private final Map<String, OffHeapCache> offHeapTiers = new ConcurrentHashMap<>();
+    private final Map<String, Function<Object, ?>> reloaders = new ConcurrentHashMap<>();
+    private final Map<String, RefreshAheadCache> refreshAheadCachesByName = new ConcurrentHashMap<>();
+    private long singleFlightTimeoutMs = 2000;
+    private Set<String> refreshAheadCaches = Set.of();
+    private double refreshFraction;
+    private Executor refreshExecutor;
+    private Set<String> offHeapCaches = Set.of();
+    private long offHeapMaxBytes;
+    private int offHeapChunkSize;
+
+    public InvalidatingCaffeineCacheManager(CacheInvalidationBroadcaster broadcaster, MeterRegistry meterRegistry,
+                                            BiFunction<String, RemovalListener<Object, Object>,
+                                                    com.github.benmanes.caffeine.cache.Cache<Object, Object>> nativeCacheFactory) {
+        this.broadcaster = broadcaster;
+        this.meterRegistry = meterRegistry;
+        this.nativeCacheFactory = nativeCacheFactory;
+    }
+
+    /** Must be called before the cache is first created. */
+    public void setKeyDecoder(String cacheName, Function<String, Object> keyDecoder) {
+        keyDecoders.put(cacheName, keyDecoder);
+    }
+
+    /** Entries of the named cache are tagged with {@code tagger(value)}; must be called before the cache is created. */
+    public void setTagger(String cacheName, Function<Object, Collection<String>> tagger) {
+        taggers.put(cacheName, tagger);
+    }
+
+    /** How long a caller waits for another caller's load of the same key before loading it itself. */
+    public void setSingleFlightTimeoutMs(long singleFlightTimeoutMs) {
+        this.singleFlightTimeoutMs = singleFlightTimeoutMs;
+    }
+
+    /** Entries of the named caches read after {@code fraction} of their TTL are reloaded on {@code executor}. */
+    public void setRefreshAhead(Set<String> cacheNames, double fraction, Executor executor) {
+        this.refreshAheadCaches = Set.copyOf(cacheNames);
+        this.refreshFraction = fraction;
+        this.refreshExecutor = executor;
+    }
+
+    /**
+     * How a refresh-ahead cache reloads a key in the background. May be called after the cache
+     * was created, typically by the component that owns the data once it is itself constructed.
+     */
+    public void setReloader(String cacheName, Function<Object, ?> reloader) {
+        reloaders.put(cacheName, reloader);
+        RefreshAheadCache cache = refreshAheadCachesByName.get(cacheName);
+        if (cache != null) {
+            cache.setReloader(reloader);
+        }
+    }
+
+    /** The named caches get an off-heap tier of {@code maxBytes} each, allocated in chunks of {@code chunkSize}. */
+    public void setOffHeap(Set<String> cacheNames, long maxBytes, int chunkSize) {
+        this.offHeapCaches = Set.copyOf(cacheNames);
+        this.offHeapMaxBytes = maxBytes;
+        this.offHeapChunkSize = chunkSize;
+    }
+
+    /** Creates the named cache from the factory and registers it up front. */
+    public void registerCustomCache(String name) {
+        registerCustomCache(name, nativeCacheFactory.apply(name, evictionListener(name)));
+    }
+
+    @Override
+    protected com.github.benmanes.caffeine.cache.Cache<Object, Object> createNativeCaffeineCache(String name) {
+        return nativeCacheFactory.apply(name, evictionListener(name));
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        Cache store = super.adaptCaffeineCache(name, cache);
+        if (offHeapCaches.contains(name)) {
+            OffHeapCache offHeap = offHeapCache(name, cache);
+            offHeap.setEvictionListener(key -> {
+                if (!cache.asMap().containsKey(key)) {
+                    entryEvicted(name, key);
+                }
+            });
+            offHeapTiers.put(name, offHeap);
+            store = new TieredCache(store, offHeap);
+        }
+        Cache adapted = new SingleFlightCache(store, singleFlightTimeoutMs, meterRegistry);
+        if (meterRegistry != null) {
+            adapted = new MeteredCache(adapted, meterRegistry);
+        }
+        InvalidatingCache invalidating = new InvalidatingCache(adapted, broadcaster,
+                keyDecoders.getOrDefault(name, key -> key), taggers.get(name));
+        broadcaster.register(invalidating);
+        invalidatingCaches.put(name, invalidating);
+
+        if (!refreshAheadCaches.contains(name)) {
+            return invalidating;
+        }
+        return cache.policy().expireAfterWrite()
+                .<Cache>map(expiration -> {
+                    RefreshAheadCache refreshAhead = new RefreshAheadCache(invalidating, expiration, refreshFraction,
+                            refreshExecutor, meterRegistry);
+                    refreshAhead.setReloader(reloaders.get(name));
+                    refreshAheadCachesByName.put(name, refreshAhead);
+                    return refreshAhead;
+                })
+                .orElseGet(() -> {
+                    log.warn("Cache '{}' has no expireAfterWrite; refresh-ahead disabled for it", name);
+                    return invalidating;
+                });
+    }
+
+    /** With an off-heap tier, an entry is only gone once neither tier holds it. */
+    private RemovalListener<Object, Object> evictionListener(String name) {
+        return (key, value, cause) -> {
+            OffHeapCache offHeap = offHeapTiers.get(name);
+            if (offHeap == null || !offHeap.containsKey(key)) {
+                entryEvicted(name, key);
+            }
+        };
+    }
+
+    private void entryEvicted(String name, Object key) {
+        InvalidatingCache cache = invalidatingCaches.get(name);
+        if (cache != null && key != null) {
+            cache.entryEvicted(key);
+        }
+    }
+
+    private OffHeapCache offHeapCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> heapTier) {
+        Duration ttl = heapTier.policy().expireAfterWrite()
+                .map(expiration -> Duration.ofNanos(expiration.getExpiresAfter(TimeUnit.NANOSECONDS)))
+                .orElse(Duration.ZERO);
+        OffHeapCache offHeap = new OffHeapCache(name, offHeapMaxBytes, offHeapChunkSize, ttl);
+        if (meterRegistry != null) {
+            Gauge.builder("cache.offheap.size", offHeap, OffHeapCache::size)
+                    .description("Entries in the off-heap tier").tag("cache", name).register(meterRegistry);
+            Gauge.builder("cache.offheap.memory", offHeap, OffHeapCache::allocatedBytes).baseUnit("bytes")
+                    .description("Direct memory allocated by the off-heap tier").tag("cache", name).register(meterRegistry);
+            FunctionCounter.builder("cache.offheap.gets", offHeap, OffHeapCache::hitCount)
+                    .tag("cache", name).tag("result", "hit").register(meterRegistry);
+            FunctionCounter.builder("cache.offheap.gets", offHeap, OffHeapCache::missCount)
+                    .tag("cache", name).tag("result", "miss").register(meterRegistry);
+            FunctionCounter.builder("cache.offheap.evictions", offHeap, OffHeapCache::evictionCount)
+                    .tag("cache", name).tag("cause", "size").register(meterRegistry);
+            FunctionCounter.builder("cache.offheap.evictions", offHeap, OffHeapCache::expiredCount)
+                    .tag("cache", name).tag("cause", "expired").register(meterRegistry);
+            FunctionCounter.builder("cache.offheap.evictions", offHeap, OffHeapCache::rejectedCount)
+                    .tag("cache", name).tag("cause", "too_large").register(meterRegistry);
+        }
+        log.info("Cache '{}' has an off-heap tier of {} MB (chunk size {} bytes, ttl {})", name,
+                offHeapMaxBytes >> 20, offHeapChunkSize, ttl.isZero() ? "none" : ttl);
+        return offHeap;
+    }
+}
@@ -0,0 +1,98 @@
+package com.assignments.rbac.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the load time of {@code @Cacheable} misses into the cache's {@code cache.loads} timer.
+ *
+ * Caffeine times loads it runs itself ({@code get(key, loader)}), but a plain {@code @Cacheable}
+ * looks the key up, invokes the method and puts the result as three separate calls. This
+ * decorator notes when a lookup misses on the current thread and records the time until that
+ * thread puts the same key. Hits, misses, evictions and size come from Caffeine's own stats.
+ */
+public class MeteredCache implements Cache {
+
+    private record Miss(Object key, long startNanos) {
+    }
+
+    private final Cache delegate;
+    private final Timer loads;
+    private final ThreadLocal<Miss> lastMiss = new ThreadLocal<>();
+
+    public MeteredCache(Cache delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.loads = Timer.builder("cache.loads")
+                .tag("cache", delegate.getName())
+                .tag("result", "success")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = delegate.get(key);
+        if (value == null) {
+            lastMiss.set(new Miss(key, System.nanoTime()));
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Miss miss = lastMiss.get();
+        if (miss != null && miss.key().equals(key)) {
+            lastMiss.remove();
+            loads.record(System.nanoTime() - miss.startNanos(), TimeUnit.NANOSECONDS);
+        }
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
@@ -0,0 +1,686 @@
+package com.assignments.rbac.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.core.serializer.support.SerializationDelegate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache whose entries live serialized outside the Java heap, so millions of them add nothing
+ * for the garbage collector to trace.
+ *
+ * Memory is split into {@value #SEGMENTS} segments, each with its own lock, LRU list and hash
+ * index. A segment allocates direct {@link ByteBuffer} pages of {@value #PAGE_SIZE} bytes on
+ * demand, up to its share of {@code maxBytes}, and cuts them into fixed-size chunks. An entry
+ * takes a chain of chunks: the first holds a header (hash, LRU links, expiry, lengths) followed
+ * by the key and value bytes, which continue into as many further chunks as needed. Fixed-size
+ * chunks mean freed space can always be reused, whatever the size of the next entry. The index
+ * is an open-addressing table of head chunks in two {@code int[]} arrays, which the collector
+ * does not have to scan either. When a segment is full, entries are evicted from the tail of
+ * its LRU list; entries past their TTL are dropped when read.
+ *
+ * String and Long keys are encoded directly, other keys and all values with Java serialization.
+ * {@code get(key, loader)} does not lock the key while loading; callers rely on the
+ * {@link SingleFlightCache} in front of it to coalesce concurrent misses.
+ */
+public class OffHeapCache extends AbstractValueAdaptingCache {
+
+    static final int SEGMENTS = 16;
+    static final int PAGE_SIZE = 1 << 20;
+    static final int MIN_CHUNK_SIZE = 64;
+
+    private static final int NIL = -1;
+    private static final int INITIAL_SLOTS = 1024;
+
+    // Head chunk layout; continuation chunks only carry NEXT_CHUNK before their payload.
+    private static final int NEXT_CHUNK = 0;
+    private static final int HASH = 4;
+    private static final int LRU_PREV = 8;
+    private static final int LRU_NEXT = 12;
+    private static final int EXPIRES_AT = 16;
+    private static final int KEY_LENGTH = 24;
+    private static final int VALUE_LENGTH = 28;
+    private static final int HEAD_PAYLOAD = 32;
+    private static final int CONTINUATION_PAYLOAD = 4;
+
+    private static final byte STRING_KEY = 'S';
+    private static final byte LONG_KEY = 'L';
+    private static final byte SERIALIZED_KEY = 'O';
+
+    private final String name;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final SerializationDelegate serialization = new SerializationDelegate(OffHeapCache.class.getClassLoader());
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private volatile Consumer<Object> evictionListener = key -> { };
+
+    public OffHeapCache(String name, long maxBytes, int chunkSize, Duration ttl) {
+        this(name, maxBytes, chunkSize, ttl, System::nanoTime);
+    }
+
+    OffHeapCache(String name, long maxBytes, int chunkSize, Duration ttl, LongSupplier ticker) {
+        super(true);
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize > PAGE_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be between " + MIN_CHUNK_SIZE + " and " + PAGE_SIZE
+                    + " bytes: " + chunkSize);
+        }
+        long segmentBytes = maxBytes / SEGMENTS;
+        if (segmentBytes < chunkSize) {
+            throw new IllegalArgumentException("Off-heap cache '" + name + "' needs at least " + (long) chunkSize * SEGMENTS
+                    + " bytes: " + maxBytes);
+        }
+        this.name = name;
+        this.ttlNanos = ttl == null || ttl.isZero() ? 0 : ttl.toNanos();
+        this.ticker = ticker;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(chunkSize, segmentBytes);
+        }
+    }
+
+    /** Called with the key of every entry evicted for space or dropped on expiry, under the segment lock. */
+    public void setEvictionListener(Consumer<Object> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        byte[] keyBytes = encodeKey(key);
+        int hash = hash(keyBytes);
+        byte[] valueBytes = segmentFor(hash).get(keyBytes, hash, ticker.getAsLong());
+        if (valueBytes == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return deserialize(valueBytes);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        byte[] keyBytes = encodeKey(key);
+        byte[] valueBytes = serialize(toStoreValue(value));
+        int hash = hash(keyBytes);
+        long expiresAt = ttlNanos > 0 ? ticker.getAsLong() + ttlNanos : 0;
+        if (!segmentFor(hash).put(keyBytes, valueBytes, hash, expiresAt)) {
+            rejections.increment();
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        byte[] keyBytes = encodeKey(key);
+        int hash = hash(keyBytes);
+        Segment segment = segmentFor(hash);
+        segment.lock.lock();
+        try {
+            ValueWrapper existing = get(key);
+            if (existing == null) {
+                put(key, value);
+            }
+            return existing;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /** Whether an unexpired entry exists, without counting a hit or miss or touching the LRU order. */
+    public boolean containsKey(Object key) {
+        byte[] keyBytes = encodeKey(key);
+        int hash = hash(keyBytes);
+        return segmentFor(hash).contains(keyBytes, hash, ticker.getAsLong());
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        byte[] keyBytes = encodeKey(key);
+        int hash = hash(keyBytes);
+        return segmentFor(hash).remove(keyBytes, hash);
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean hadEntries = size() > 0;
+        clear();
+        return hadEntries;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /** Direct memory allocated so far; pages are kept once allocated. */
+    public long allocatedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += (long) segment.allocatedPages * segment.pageSize;
+        }
+        return bytes;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /** Entries evicted to make room for new ones. */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public long expiredCount() {
+        return expirations.sum();
+    }
+
+    /** Puts dropped because the entry is larger than a segment. */
+    public long rejectedCount() {
+        return rejections.sum();
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[hash >>> 28];
+    }
+
+    private byte[] serialize(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try {
+            serialization.serialize(value, out);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to serialize cache value '" + value
+                    + "'. Does it implement Serializable?", e);
+        }
+        return out.toByteArray();
+    }
+
+    private Object deserialize(byte[] bytes) {
+        try {
+            return serialization.deserialize(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to deserialize cache value of cache '" + name + "'", e);
+        }
+    }
+
+    private byte[] encodeKey(Object key) {
+        if (key instanceof String string) {
+            byte[] chars = string.getBytes(StandardCharsets.UTF_8);
+            byte[] bytes = new byte[chars.length + 1];
+            bytes[0] = STRING_KEY;
+            System.arraycopy(chars, 0, bytes, 1, chars.length);
+            return bytes;
+        }
+        if (key instanceof Long number) {
+            return ByteBuffer.allocate(9).put(LONG_KEY).putLong(number).array();
+        }
+        byte[] serialized = serialize(key);
+        byte[] bytes = new byte[serialized.length + 1];
+        bytes[0] = SERIALIZED_KEY;
+        System.arraycopy(serialized, 0, bytes, 1, serialized.length);
+        return bytes;
+    }
+
+    private Object decodeKey(byte[] bytes) {
+        return switch (bytes[0]) {
+            case STRING_KEY -> new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+            case LONG_KEY -> ByteBuffer.wrap(bytes, 1, 8).getLong();
+            default -> {
+                byte[] serialized = new byte[bytes.length - 1];
+                System.arraycopy(bytes, 1, serialized, 0, serialized.length);
+                yield deserialize(serialized);
+            }
+        };
+    }
+
+    private static int hash(byte[] keyBytes) {
+        int hash = 1;
+        for (byte b : keyBytes) {
+            hash = 31 * hash + b;
+        }
+        // Spread the bits: the top four pick the segment, the low ones the index slot.
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Segment {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final int chunkSize;
+        final int chunksPerPage;
+        final int pageSize;
+        final ByteBuffer[] pages;
+
+        // Guarded by lock.
+        int allocatedPages;
+        int nextUnused;
+        int freeHead = NIL;
+        int freeChunks;
+        int lruHead = NIL;
+        int lruTail = NIL;
+        int[] slots = new int[INITIAL_SLOTS];
+        int[] slotHashes = new int[INITIAL_SLOTS];
+        volatile int size;
+
+        Segment(int chunkSize, long segmentBytes) {
+            this.chunkSize = chunkSize;
+            this.pageSize = (int) Math.min(PAGE_SIZE, segmentBytes) / chunkSize * chunkSize;
+            this.chunksPerPage = pageSize / chunkSize;
+            this.pages = new ByteBuffer[(int) Math.max(1, segmentBytes / pageSize)];
+        }
+
+        byte[] get(byte[] keyBytes, int hash, long now) {
+            lock.lock();
+            try {
+                int slot = find(keyBytes, hash);
+                if (slot < 0) {
+                    return null;
+                }
+                int head = slots[slot] - 1;
+                if (ttlNanos > 0 && getLong(head, EXPIRES_AT) - now <= 0) {
+                    evictionListener.accept(decodeKey(keyBytes));
+                    removeEntry(slot, head);
+                    expirations.increment();
+                    return null;
+                }
+                unlinkLru(head);
+                linkLruFront(head);
+                byte[] value = new byte[getInt(head, VALUE_LENGTH)];
+                readPayload(head, getInt(head, KEY_LENGTH), value);
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean put(byte[] keyBytes, byte[] valueBytes, int hash, long expiresAt) {
+            lock.lock();
+            try {
+                int slot = find(keyBytes, hash);
+                if (slot >= 0) {
+                    removeEntry(slot, slots[slot] - 1);
+                }
+                int chunks = chunksFor(keyBytes.length + valueBytes.length);
+                if (chunks > (long) pages.length * chunksPerPage) {
+                    return false;
+                }
+                while (availableChunks() < chunks) {
+                    evictLru();
+                }
+                int head = writeEntry(keyBytes, valueBytes, chunks, hash, expiresAt);
+                linkLruFront(head);
+                insertSlot(head, hash);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean contains(byte[] keyBytes, int hash, long now) {
+            lock.lock();
+            try {
+                int slot = find(keyBytes, hash);
+                return slot >= 0 && (ttlNanos == 0 || getLong(slots[slot] - 1, EXPIRES_AT) - now > 0);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean remove(byte[] keyBytes, int hash) {
+            lock.lock();
+            try {
+                int slot = find(keyBytes, hash);
+                if (slot < 0) {
+                    return false;
+                }
+                removeEntry(slot, slots[slot] - 1);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                nextUnused = 0;
+                freeHead = NIL;
+                freeChunks = 0;
+                lruHead = NIL;
+                lruTail = NIL;
+                slots = new int[INITIAL_SLOTS];
+                slotHashes = new int[INITIAL_SLOTS];
+                size = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // --- chunk allocation ---
+
+        private int chunksFor(int payload) {
+            int first = chunkSize - HEAD_PAYLOAD;
+            if (payload <= first) {
+                return 1;
+            }
+            int perContinuation = chunkSize - CONTINUATION_PAYLOAD;
+            return 1 + (payload - first + perContinuation - 1) / perContinuation;
+        }
+
+        private long availableChunks() {
+            return freeChunks + ((long) pages.length * chunksPerPage - nextUnused);
+        }
+
+        private int allocateChunk() {
+            if (freeHead != NIL) {
+                int chunk = freeHead;
+                freeHead = getInt(chunk, NEXT_CHUNK);
+                freeChunks--;
+                return chunk;
+            }
+            int chunk = nextUnused++;
+            int page = chunk / chunksPerPage;
+            if (page == allocatedPages) {
+                pages[page] = ByteBuffer.allocateDirect(pageSize);
+                allocatedPages++;
+            }
+            return chunk;
+        }
+
+        private void freeChain(int head) {
+            int chunk = head;
+            int count = 1;
+            int next;
+            while ((next = getInt(chunk, NEXT_CHUNK)) != NIL) {
+                chunk = next;
+                count++;
+            }
+            putInt(chunk, NEXT_CHUNK, freeHead);
+            freeHead = head;
+            freeChunks += count;
+        }
+
+        private int writeEntry(byte[] keyBytes, byte[] valueBytes, int chunks, int hash, long expiresAt) {
+            int head = allocateChunk();
+            putInt(head, HASH, hash);
+            putLong(head, EXPIRES_AT, expiresAt);
+            putInt(head, KEY_LENGTH, keyBytes.length);
+            putInt(head, VALUE_LENGTH, valueBytes.length);
+
+            int chunk = head;
+            int offset = HEAD_PAYLOAD;
+            int keyWritten = 0;
+            int valueWritten = 0;
+            for (int i = 0; i < chunks; i++) {
+                if (i > 0) {
+                    int next = allocateChunk();
+                    putInt(chunk, NEXT_CHUNK, next);
+                    chunk = next;
+                    offset = CONTINUATION_PAYLOAD;
+                }
+                int room = chunkSize - offset;
+                int keyPart = Math.min(room, keyBytes.length - keyWritten);
+                write(chunk, offset, keyBytes, keyWritten, keyPart);
+                keyWritten += keyPart;
+                int valuePart = Math.min(room - keyPart, valueBytes.length - valueWritten);
+                write(chunk, offset + keyPart, valueBytes, valueWritten, valuePart);
+                valueWritten += valuePart;
+            }
+            putInt(chunk, NEXT_CHUNK, NIL);
+            return head;
+        }
+
+        /** Copies {@code target.length} payload bytes starting at {@code from} out of the entry. */
+        private void readPayload(int head, int from, byte[] target) {
+            int chunk = head;
+            int offset = HEAD_PAYLOAD;
+            int skip = from;
+            int copied = 0;
+            while (copied < target.length) {
+                int room = chunkSize - offset;
+                if (skip >= room) {
+                    skip -= room;
+                } else {
+                    int part = Math.min(room - skip, target.length - copied);
+                    page(chunk).get(position(chunk) + offset + skip, target, copied, part);
+                    copied += part;
+                    skip = 0;
+                }
+                if (copied < target.length) {
+                    chunk = getInt(chunk, NEXT_CHUNK);
+                    offset = CONTINUATION_PAYLOAD;
+                }
+            }
+        }
+
+        private boolean keyEquals(int head, byte[] keyBytes) {
+            if (getInt(head, KEY_LENGTH) != keyBytes.length) {
+                return false;
+            }
+            int chunk = head;
+            int offset = HEAD_PAYLOAD;
+            int compared = 0;
+            while (true) {
+                ByteBuffer page = page(chunk);
+                int base = position(chunk);
+                int end = Math.min(chunkSize, offset + keyBytes.length - compared);
+                for (int i = offset; i < end; i++) {
+                    if (page.get(base + i) != keyBytes[compared++]) {
+                        return false;
+                    }
+                }
+                if (compared == keyBytes.length) {
+                    return true;
+                }
+                chunk = getInt(chunk, NEXT_CHUNK);
+                offset = CONTINUATION_PAYLOAD;
+            }
+        }
+
+        // --- LRU ---
+
+        private void linkLruFront(int head) {
+            putInt(head, LRU_PREV, NIL);
+            putInt(head, LRU_NEXT, lruHead);
+            if (lruHead != NIL) {
+                putInt(lruHead, LRU_PREV, head);
+            } else {
+                lruTail = head;
+            }
+            lruHead = head;
+        }
+
+        private void unlinkLru(int head) {
+            int prev = getInt(head, LRU_PREV);
+            int next = getInt(head, LRU_NEXT);
+            if (prev != NIL) {
+                putInt(prev, LRU_NEXT, next);
+            } else {
+                lruHead = next;
+            }
+            if (next != NIL) {
+                putInt(next, LRU_PREV, prev);
+            } else {
+                lruTail = prev;
+            }
+        }
+
+        private void evictLru() {
+            int victim = lruTail;
+            byte[] keyBytes = new byte[getInt(victim, KEY_LENGTH)];
+            readPayload(victim, 0, keyBytes);
+            evictionListener.accept(decodeKey(keyBytes));
+            removeEntry(slotOf(victim), victim);
+            evictions.increment();
+        }
+
+        private void removeEntry(int slot, int head) {
+            unlinkLru(head);
+            removeSlot(slot);
+            freeChain(head);
+        }
+
+        // --- index: linear probing over head chunk + 1 (0 = empty) ---
+
+        private int find(byte[] keyBytes, int hash) {
+            int mask = slots.length - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                int entry = slots[i];
+                if (entry == 0) {
+                    return NIL;
+                }
+                if (slotHashes[i] == hash && keyEquals(entry - 1, keyBytes)) {
+                    return i;
+                }
+            }
+        }
+
+        private int slotOf(int head) {
+            int mask = slots.length - 1;
+            for (int i = getInt(head, HASH) & mask; ; i = (i + 1) & mask) {
+                if (slots[i] == head + 1) {
+                    return i;
+                }
+            }
+        }
+
+        private void insertSlot(int head, int hash) {
+            if ((size + 1) * 4L > slots.length * 3L) {
+                resize();
+            }
+            int mask = slots.length - 1;
+            int i = hash & mask;
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = head + 1;
+            slotHashes[i] = hash;
+            size++;
+        }
+
+        /** Backward-shift deletion, so lookups never need tombstones. */
+        private void removeSlot(int slot) {
+            int mask = slots.length - 1;
+            int hole = slot;
+            for (int i = (hole + 1) & mask; slots[i] != 0; i = (i + 1) & mask) {
+                int home = slotHashes[i] & mask;
+                boolean movable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+                if (movable) {
+                    slots[hole] = slots[i];
+                    slotHashes[hole] = slotHashes[i];
+                    hole = i;
+                }
+            }
+            slots[hole] = 0;
+            slotHashes[hole] = 0;
+            size--;
+        }
+
+        private void resize() {
+            int[] oldSlots = slots;
+            int[] oldHashes = slotHashes;
+            slots = new int[oldSlots.length * 2];
+            slotHashes = new int[oldSlots.length * 2];
+            int mask = slots.length - 1;
+            for (int j = 0; j < oldSlots.length; j++) {
+                if (oldSlots[j] != 0) {
+                    int i = oldHashes[j] & mask;
+                    while (slots[i] != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    slots[i] = oldSlots[j];
+                    slotHashes[i] = oldHashes[j];
+                }
+            }
+        }
+
+        // --- raw access ---
+
+        private ByteBuffer page(int chunk) {
+            return pages[chunk / chunksPerPage];
+        }
+
+        private int position(int chunk) {
+            return (chunk % chunksPerPage) * chunkSize;
+        }
+
+        private int getInt(int chunk, int field) {
+            return page(chunk).getInt(position(chunk) + field);
+        }
+
+        private void putInt(int chunk, int field, int value) {
+            page(chunk).putInt(position(chunk) + field, value);
+        }
+
+        private long getLong(int chunk, int field) {
+            return page(chunk).getLong(position(chunk) + field);
+        }
+
+        private void putLong(int chunk, int field, long value) {
+            page(chunk).putLong(position(chunk) + field, value);
+        }
+
+        private void write(int chunk, int offset, byte[] source, int from, int length) {
+            if (length > 0) {
+                page(chunk).put(position(chunk) + offset, source, from, length);
+            }
+        }
+    }
+}
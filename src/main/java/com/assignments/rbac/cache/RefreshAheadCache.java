@@ -0,0 +1,167 @@
+package com.assignments.rbac.cache;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Reloads hot entries in the background before they expire.
+ *
+ * When a {@code get(key, loader)} hit finds an entry older than {@code refreshFraction} of the
+ * cache's write TTL, the cached value is returned as usual and the cache's reloader is handed
+ * the key on the bounded refresh executor. The reloaded value replaces the entry (restarting its
+ * TTL) unless the key was invalidated while it loaded. The caller's loader is never reused: with
+ * {@code @Cacheable} it wraps a method invocation that has already completed, and replaying it on
+ * another thread would skip the interceptors behind the cache advice, such as transactions. The
+ * reloader is registered separately (see {@link InvalidatingCaffeineCacheManager#setReloader});
+ * until it is, entries are not refreshed. Entries nobody reads past the threshold are never
+ * refreshed and simply expire. When the executor is saturated the refresh is skipped and the
+ * entry takes the normal miss path once it expires.
+ *
+ * Refreshes are counted as {@code cache.refreshes} with a {@code result} tag
+ * ({@code success}, {@code failure}, {@code rejected}).
+ */
+@Slf4j
+public class RefreshAheadCache implements TaggedCache {
+
+    private final InvalidatingCache delegate;
+    private final Policy.FixedExpiration<Object, Object> expiration;
+    private final double refreshFraction;
+    private final Executor executor;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    private final Counter refreshed;
+    private final Counter failed;
+    private final Counter rejected;
+    private volatile Function<Object, ?> reloader;
+
+    public RefreshAheadCache(InvalidatingCache delegate, Policy.FixedExpiration<Object, Object> expiration,
+                             double refreshFraction, Executor executor, MeterRegistry meterRegistry) {
+        if (refreshFraction <= 0 || refreshFraction >= 1) {
+            throw new IllegalArgumentException("Refresh fraction must be between 0 and 1: " + refreshFraction);
+        }
+        this.delegate = delegate;
+        this.expiration = expiration;
+        this.refreshFraction = refreshFraction;
+        this.executor = executor;
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : new SimpleMeterRegistry();
+        this.refreshed = refreshCounter(registry, delegate.getName(), "success");
+        this.failed = refreshCounter(registry, delegate.getName(), "failure");
+        this.rejected = refreshCounter(registry, delegate.getName(), "rejected");
+    }
+
+    /** Loads the current value for a key; it must not depend on the calling thread's context. */
+    public void setReloader(Function<Object, ?> reloader) {
+        this.reloader = reloader;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        T value = delegate.get(key, valueLoader);
+        Function<Object, ?> reloader = this.reloader;
+        if (reloader != null && isDueForRefresh(key) && refreshing.add(key)) {
+            try {
+                executor.execute(() -> refresh(key, reloader));
+            } catch (RejectedExecutionException e) {
+                refreshing.remove(key);
+                rejected.increment();
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    @Override
+    public void evictTag(String tag) {
+        delegate.evictTag(tag);
+    }
+
+    private boolean isDueForRefresh(Object key) {
+        long threshold = (long) (expiration.getExpiresAfter(TimeUnit.NANOSECONDS) * refreshFraction);
+        return expiration.ageOf(key).map(Duration::toNanos).filter(age -> age >= threshold).isPresent();
+    }
+
+    private void refresh(Object key, Function<Object, ?> reloader) {
+        try {
+            long version = delegate.version(key);
+            Object value = reloader.apply(key);
+            if (delegate.putIfUnchanged(key, value, version)) {
+                log.trace("Refreshed key {} in cache '{}' ahead of expiry", key, getName());
+            }
+            refreshed.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Refresh-ahead of key {} in cache '{}' failed; the entry will expire normally - Error: {}",
+                    key, getName(), e.getMessage());
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    private static Counter refreshCounter(MeterRegistry registry, String cacheName, String result) {
+        return Counter.builder("cache.refreshes")
+                .description("Background reloads of entries read close to their expiry")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,171 @@
+package com.assignments.rbac.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces concurrent loads of the same key ({@code @Cacheable(sync = true)} and other
+ * {@code get(key, loader)} callers).
+ *
+ * The first caller to miss runs the loader and stores the value; callers missing the same key
+ * meanwhile wait on its future instead of running their own load. A waiter that is not
+ * answered within {@code waitTimeoutMs} runs the loader itself, so a stuck load cannot pile up
+ * every request for that key; a failed load fails its waiters too rather than sending them all
+ * to the database at once. Unlike Caffeine's own {@code get(key, loader)}, the load runs
+ * outside the map's bin lock, so a slow load does not block unrelated keys.
+ *
+ * Waits are recorded as {@code cache.singleflight.waits} with an {@code outcome} tag
+ * ({@code coalesced}, {@code timeout}, {@code failed}); the loads themselves as
+ * {@code cache.loads}.
+ */
+@Slf4j
+public class SingleFlightCache implements Cache {
+
+    private final Cache delegate;
+    private final long waitTimeoutMs;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Timer loadSuccesses;
+    private final Timer loadFailures;
+    private final Timer coalescedWaits;
+    private final Timer timedOutWaits;
+    private final Timer failedWaits;
+
+    public SingleFlightCache(Cache delegate, long waitTimeoutMs, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.waitTimeoutMs = waitTimeoutMs;
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : new SimpleMeterRegistry();
+        String name = delegate.getName();
+        this.loadSuccesses = Timer.builder("cache.loads").tag("cache", name).tag("result", "success").register(registry);
+        this.loadFailures = Timer.builder("cache.loads").tag("cache", name).tag("result", "failure").register(registry);
+        this.coalescedWaits = waitTimer(registry, name, "coalesced");
+        this.timedOutWaits = waitTimer(registry, name, "timeout");
+        this.failedWaits = waitTimer(registry, name, "failed");
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, load);
+        if (leader == null) {
+            try {
+                return (T) load(key, valueLoader, load);
+            } finally {
+                inFlight.remove(key, load);
+            }
+        }
+        return (T) await(key, valueLoader, leader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Object load(Object key, Callable<?> valueLoader, CompletableFuture<Object> result) {
+        long start = System.nanoTime();
+        try {
+            Object value = valueLoader.call();
+            delegate.put(key, value);
+            loadSuccesses.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            result.complete(value);
+            return value;
+        } catch (Exception e) {
+            loadFailures.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            result.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> leader) {
+        long start = System.nanoTime();
+        try {
+            Object value = leader.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            coalescedWaits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return value;
+        } catch (TimeoutException e) {
+            timedOutWaits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.warn("Load of key {} in cache '{}' still running after {} ms; loading it again", key, getName(), waitTimeoutMs);
+            return load(key, valueLoader, new CompletableFuture<>());
+        } catch (ExecutionException e) {
+            failedWaits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private static Timer waitTimer(MeterRegistry registry, String cacheName, String outcome) {
+        return Timer.builder("cache.singleflight.waits")
+                .description("Callers that waited for a load of the same key already in progress")
+                .tag("cache", cacheName)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
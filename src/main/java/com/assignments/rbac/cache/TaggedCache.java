@@ -0,0 +1,13 @@
+package com.assignments.rbac.cache;
+
+import org.springframework.cache.Cache;
+
+/**
+ * A cache whose entries carry tags (see {@link CacheTags}), so every entry derived from the
+ * same user or role can be evicted at once without knowing the entries' keys.
+ */
+public interface TaggedCache extends Cache {
+
+    /** Evicts every entry carrying {@code tag} here and on the other nodes. */
+    void evictTag(String tag);
+}
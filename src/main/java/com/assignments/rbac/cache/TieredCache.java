@@ -0,0 +1,113 @@
+package com.assignments.rbac.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Small on-heap cache in front of a large {@link OffHeapCache}.
+ *
+ * Writes go to both tiers; reads try the heap tier first and fall back to the off-heap tier,
+ * deserializing the entry on every such hit. Entries found only off-heap are not copied back
+ * onto the heap: a copy would outlive the off-heap entry's TTL and could race with an eviction
+ * of the same key. The heap tier therefore holds recently written entries, bounded by its
+ * Caffeine spec, and everything else it evicted stays reachable off-heap until it expires or is
+ * pushed out. The native cache is the heap tier's, so its stats and refresh-ahead keep working.
+ */
+public class TieredCache implements Cache {
+
+    private final Cache heap;
+    private final OffHeapCache offHeap;
+
+    public TieredCache(Cache heap, OffHeapCache offHeap) {
+        this.heap = heap;
+        this.offHeap = offHeap;
+    }
+
+    @Override
+    public String getName() {
+        return heap.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return heap.getNativeCache();
+    }
+
+    public OffHeapCache getOffHeapCache() {
+        return offHeap;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = heap.get(key);
+        return value != null ? value : offHeap.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object stored = value != null ? value.get() : null;
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        offHeap.put(key, value);
+        heap.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = offHeap.putIfAbsent(key, value);
+        if (existing == null) {
+            heap.put(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        offHeap.evict(key);
+        heap.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean offHeapPresent = offHeap.evictIfPresent(key);
+        return heap.evictIfPresent(key) || offHeapPresent;
+    }
+
+    @Override
+    public void clear() {
+        offHeap.clear();
+        heap.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean offHeapHadEntries = offHeap.invalidate();
+        return heap.invalidate() || offHeapHadEntries;
+    }
+}
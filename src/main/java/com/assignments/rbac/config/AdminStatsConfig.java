@@ -0,0 +1,21 @@
+package com.assignments.rbac.config;
+
+import com.assignments.rbac.service.StatsSectionExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AdminStatsConfig {
+
+    @Bean(destroyMethod = "close")
+    public StatsSectionExecutor statsSectionExecutor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.stats.sections.pool-size:4}") int poolSize,
+            @Value("${app.stats.sections.queue-capacity:32}") int queueCapacity,
+            @Value("${app.stats.sections.timeout-ms:2000}") long timeoutMs) {
+        return new StatsSectionExecutor(poolSize, queueCapacity, timeoutMs, meterRegistry.getIfAvailable());
+    }
+}
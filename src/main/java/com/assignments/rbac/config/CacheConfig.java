@@ -1,74 +1,190 @@
 package com.assignments.rbac.config;
 
+import com.assignments.rbac.cache.CacheInvalidationBroadcaster;
+import com.assignments.rbac.cache.CacheTags;
+import com.assignments.rbac.cache.InvalidatingCaffeineCacheManager;
+import com.assignments.rbac.dto.CurrentUserResponse;
+import com.assignments.rbac.messaging.BrokerCircuitBreaker;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineStatsCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
-import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Caffeine-backed caches, one per name listed under {@code app.cache.specs}.
+ *
+ * Each entry is a Caffeine spec string, e.g.
+ * {@code app.cache.specs.userCache=maximumSize=10000,expireAfterWrite=30m}. Caches are bounded
+ * by size with W-TinyLFU admission, and the system scheduler removes entries as soon as they
+ * expire instead of waiting for the next lookup of the same key. Names without a spec fall back
+ * to {@code app.cache.default-spec}. Each cache records Micrometer stats ({@code cache.gets},
+ * {@code cache.loads}, {@code cache.evictions} by cause, {@code cache.size}) tagged with its name.
+ *
+ * Caches listed in {@code app.cache.refresh-ahead.caches} reload entries that are read after
+ * {@code app.cache.refresh-ahead.fraction} of their TTL in the background (see
+ * {@link com.assignments.rbac.cache.RefreshAheadCache}).
+ *
+ * Caches listed in {@code app.cache.off-heap.caches} also keep their entries serialized in direct
+ * memory, up to {@code app.cache.off-heap.max-size} per cache; their Caffeine spec then only
+ * sizes the on-heap tier in front (see {@link com.assignments.rbac.cache.TieredCache}). Direct
+ * memory is capped by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+ *
+ * {@code userCache} entries are tagged with the user's id and the ids of the roles in them, so
+ * role assignments and role edits evict exactly the responses they affect (see
+ * {@link com.assignments.rbac.service.UserRoleCache}).
+ *
+ * Every cache is a near cache: evictions are broadcast to the other nodes through the
+ * {@code cache.invalidation.exchange} fanout exchange when events go through RabbitMQ
+ * (see {@link InvalidatingCaffeineCacheManager}).
+ */
+@Slf4j
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
-    @Bean
-    public CacheManager cacheManager() {
-        SimpleCacheManager cacheManager = new SimpleCacheManager();
-        
-        
-        ConcurrentMapCache userCache = new ConcurrentMapCache("userCache") {
-            private final long TTL = 5 * 60 * 1000; // 5 minutes in milliseconds
-            private final java.util.concurrent.ConcurrentHashMap<Object, CacheEntry> cacheMap = 
-                new java.util.concurrent.ConcurrentHashMap<>();
-
-            @Override
-            protected Object lookup(Object key) {
-                CacheEntry entry = cacheMap.get(key);
-                if (entry != null && !entry.isExpired()) {
-                    return entry.getValue();
-                } else {
-                    cacheMap.remove(key);
-                    return null;
-                }
-            }
+    public static final String USER_CACHE = "userCache";
+    public static final String USER_ROLES_CACHE = "userRolesCache";
+    public static final String ROLES_CACHE = "rolesCache";
 
-            @Override
-            public void put(Object key, Object value) {
-                cacheMap.put(key, new CacheEntry(value, System.currentTimeMillis() + TTL));
+    @Bean(destroyMethod = "close")
+    public CacheInvalidationBroadcaster cacheInvalidationBroadcaster(
+            ObjectProvider<RabbitTemplate> rabbitTemplate,
+            @Value("${app.events.transport:rabbit}") String transport,
+            @Value("${app.cache.invalidation.enabled:true}") boolean enabled,
+            @Value("${app.cache.invalidation.flush-interval-ms:20}") long flushIntervalMs,
+            @Value("${app.cache.invalidation.max-keys-per-message:500}") int maxKeysPerMessage,
+            @Value("${app.cache.invalidation.circuit-breaker.failure-threshold:3}") int breakerFailureThreshold,
+            @Value("${app.cache.invalidation.circuit-breaker.open-duration-ms:5000}") long breakerOpenDurationMs) {
+        if (!enabled || !"rabbit".equals(transport)) {
+            return new CacheInvalidationBroadcaster(null, flushIntervalMs, maxKeysPerMessage);
+        }
+        RabbitTemplate template = rabbitTemplate.getObject();
+        // A dead broker costs the flusher one probe per open period, not a timeout per flush. The breaker is
+        // its own, not the event publisher's: events failing for other reasons must not hold back invalidations.
+        BrokerCircuitBreaker breaker = new BrokerCircuitBreaker(breakerFailureThreshold, breakerOpenDurationMs);
+        CacheInvalidationBroadcaster broadcaster = new CacheInvalidationBroadcaster(event -> {
+            if (!breaker.tryAcquire()) {
+                throw new IllegalStateException("Broker circuit breaker is open");
             }
-
-            @Override
-            public void evict(Object key) {
-                cacheMap.remove(key);
-            }
-
-            @Override
-            public void clear() {
-                cacheMap.clear();
+            try {
+                template.convertAndSend(RabbitMQConfig.CACHE_INVALIDATION_EXCHANGE, "", event);
+                breaker.recordSuccess();
+            } catch (AmqpException e) {
+                breaker.recordFailure();
+                throw e;
             }
+        }, flushIntervalMs, maxKeysPerMessage);
+        // The listener's queue is deleted with its connection; whatever was published meanwhile is lost.
+        template.getConnectionFactory().addConnectionListener(connection -> broadcaster.clearLocalCaches());
+        return broadcaster;
+    }
 
-             class CacheEntry {
-                private final Object value;
-                private final long expirationTime;
+    /** Bounded pool for refresh-ahead reloads; when it is saturated refreshes are skipped, not queued. */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor cacheRefreshExecutor(
+            @Value("${app.cache.refresh-ahead.pool-size:2}") int poolSize,
+            @Value("${app.cache.refresh-ahead.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 
-                public CacheEntry(Object value, long expirationTime) {
-                    this.value = value;
-                    this.expirationTime = expirationTime;
-                }
+    @Bean
+    public CacheManager cacheManager(Environment environment,
+                                     @Value("${app.cache.default-spec:maximumSize=1000,expireAfterWrite=5m}") String defaultSpec,
+                                     @Value("${app.cache.single-flight.wait-timeout-ms:2000}") long singleFlightTimeoutMs,
+                                     @Value("${app.cache.refresh-ahead.caches:userCache,userRolesCache}") Set<String> refreshAheadCaches,
+                                     @Value("${app.cache.refresh-ahead.fraction:0.8}") double refreshFraction,
+                                     ThreadPoolExecutor cacheRefreshExecutor,
+                                     @Value("${app.cache.off-heap.caches:}") Set<String> offHeapCaches,
+                                     @Value("${app.cache.off-heap.max-size:256MB}") DataSize offHeapMaxSize,
+                                     @Value("${app.cache.off-heap.chunk-size:256}") int offHeapChunkSize,
+                                     CacheInvalidationBroadcaster cacheInvalidationBroadcaster,
+                                     ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        // app.cache.specs is the only place sizes and TTLs are set; caches the code relies on still
+        // get created with the default spec when they are missing from it
+        Map<String, String> specs = new LinkedHashMap<>(Binder.get(environment)
+                .bind("app.cache.specs", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of()));
+        for (String name : List.of(USER_CACHE, USER_ROLES_CACHE, ROLES_CACHE)) {
+            specs.putIfAbsent(name, defaultSpec);
+        }
 
-                public Object getValue() {
-                    return value;
-                }
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        InvalidatingCaffeineCacheManager cacheManager = new InvalidatingCaffeineCacheManager(
+                cacheInvalidationBroadcaster, meterRegistry,
+                (name, evictionListener) -> nativeCache(name, specs.getOrDefault(name, defaultSpec), evictionListener,
+                        meterRegistry));
+        cacheManager.setSingleFlightTimeoutMs(singleFlightTimeoutMs);
+        // Reloaders are registered by the services owning the data (see CacheReloaders).
+        cacheManager.setRefreshAhead(refreshAheadCaches, refreshFraction, cacheRefreshExecutor);
+        cacheManager.setOffHeap(offHeapCaches, offHeapMaxSize.toBytes(), offHeapChunkSize);
+        cacheManager.setTagger(USER_CACHE, CacheConfig::userCacheTags);
+        cacheManager.setKeyDecoder(USER_ROLES_CACHE, Long::valueOf);
+        cacheManager.setKeyDecoder(ROLES_CACHE, Long::valueOf);
+        specs.forEach((name, spec) -> {
+            cacheManager.registerCustomCache(name);
+            log.info("Cache '{}' configured with spec: {}", name, spec);
+        });
+        return cacheManager;
+    }
 
-                public boolean isExpired() {
-                    return System.currentTimeMillis() > expirationTime;
-                }
-            }
-        };
+    private static Collection<String> userCacheTags(Object value) {
+        if (!(value instanceof CurrentUserResponse user)) {
+            return List.of();
+        }
+        List<String> tags = new ArrayList<>();
+        tags.add(CacheTags.user(user.getId()));
+        if (user.getRoles() != null) {
+            user.getRoles().forEach(role -> tags.add(CacheTags.role(role.getId())));
+        }
+        return tags;
+    }
 
-        cacheManager.setCaches(Arrays.asList(userCache));
-        return cacheManager;
+    private static Cache<Object, Object> nativeCache(String name, String spec,
+                                                     RemovalListener<Object, Object> evictionListener,
+                                                     MeterRegistry meterRegistry) {
+        Caffeine<Object, Object> builder = Caffeine.from(spec)
+                .scheduler(Scheduler.systemScheduler())
+                .evictionListener(evictionListener);
+        if (meterRegistry == null) {
+            return builder.build();
+        }
+        CaffeineStatsCounter stats = new CaffeineStatsCounter(meterRegistry, name);
+        Cache<Object, Object> cache = builder.recordStats(() -> stats).build();
+        stats.registerSizeMetric(cache);
+        return cache;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package com.assignments.rbac.config;
+
+import com.assignments.rbac.messaging.BrokerCircuitBreaker;
+import com.assignments.rbac.messaging.EventSpool;
+import com.assignments.rbac.messaging.EventTransport;
+import com.assignments.rbac.messaging.InMemoryEventBus;
+import com.assignments.rbac.messaging.InMemoryEventTransport;
+import com.assignments.rbac.messaging.RabbitEventTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Selects how user events leave the application: {@code app.events.transport=rabbit} (default)
+ * publishes to RabbitMQ, {@code in-memory} routes through an {@link InMemoryEventBus} that
+ * mirrors the RabbitMQ bindings, for broker-free load tests and integration tests.
+ */
+@Configuration
+public class EventPublishingConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "app.events.transport", havingValue = "rabbit", matchIfMissing = true)
+    public static class RabbitTransportConfig {
+
+        @Bean
+        public BrokerCircuitBreaker brokerCircuitBreaker(
+                @Value("${app.events.circuit-breaker.failure-threshold:3}") int failureThreshold,
+                @Value("${app.events.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+            return new BrokerCircuitBreaker(failureThreshold, openDurationMs);
+        }
+
+        @Bean(destroyMethod = "close")
+        public EventSpool eventSpool(
+                @Value("${app.events.spool.directory:${java.io.tmpdir}/rbac-event-spool}") String directory,
+                @Value("${app.events.spool.segment-size-bytes:16777216}") int segmentSize) throws IOException {
+            return new EventSpool(Path.of(directory), segmentSize);
+        }
+
+        @Bean
+        public RabbitEventTransport rabbitEventTransport(RabbitTemplate rabbitTemplate,
+                                                         BrokerCircuitBreaker brokerCircuitBreaker,
+                                                         EventSpool eventSpool,
+                                                         @Value("${app.events.publish.confirm-timeout-ms:2000}") long confirmTimeoutMs) {
+            return new RabbitEventTransport(rabbitTemplate, brokerCircuitBreaker, eventSpool, confirmTimeoutMs);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "app.events.transport", havingValue = "in-memory")
+    public static class InMemoryTransportConfig {
+
+        @Bean(destroyMethod = "close")
+        public InMemoryEventBus inMemoryEventBus(
+                List<Declarables> topology,
+                ObjectProvider<MeterRegistry> meterRegistry,
+                @Value("${app.events.in-memory.queue-capacity:10000}") int queueCapacity,
+                @Value("${app.events.in-memory.overflow:DROP_HEAD}") InMemoryEventBus.OverflowPolicy overflow,
+                @Value("${app.events.in-memory.max-batch-size:100}") int maxBatchSize) {
+            List<Queue> queues = topology.stream()
+                    .flatMap(declarables -> declarables.getDeclarablesByType(Queue.class).stream())
+                    .toList();
+            List<Binding> bindings = topology.stream()
+                    .flatMap(declarables -> declarables.getDeclarablesByType(Binding.class).stream())
+                    .toList();
+            return new InMemoryEventBus(queues, bindings, queueCapacity, overflow, maxBatchSize,
+                    meterRegistry.getIfAvailable());
+        }
+
+        @Bean
+        public EventTransport inMemoryEventTransport(InMemoryEventBus inMemoryEventBus) {
+            return new InMemoryEventTransport(inMemoryEventBus);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.assignments.rbac.config;
+
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queue layout behind the user events exchange, selected with {@code app.events.topology}.
+ * Every layout stores each event exactly once:
+ * <ul>
+ *   <li>{@code PER_TYPE} - one classic queue per event type</li>
+ *   <li>{@code CONSOLIDATED} - a single classic queue carrying all user events</li>
+ *   <li>{@code STREAM_FANOUT} - a single stream; each consumer reads it independently,
+ *       so adding a consumer does not add a copy of the data</li>
+ * </ul>
+ */
+public enum EventTopology {
+
+    PER_TYPE,
+    CONSOLIDATED,
+    STREAM_FANOUT;
+
+    static final String STREAM_MAX_AGE = "7D";
+
+    /**
+     * Name of the queue a consumer of the given routing key should listen on. Consolidated and
+     * stream queues also carry other event types, which consumers filter by payload type.
+     */
+    public String queueFor(String routingKey) {
+        return switch (this) {
+            case PER_TYPE -> switch (routingKey) {
+                case RabbitMQConfig.USER_LOGIN_ROUTING_KEY -> RabbitMQConfig.USER_LOGIN_QUEUE;
+                case RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY -> RabbitMQConfig.USER_REGISTRATION_QUEUE;
+                default -> throw new IllegalArgumentException("No queue bound for routing key " + routingKey);
+            };
+            case CONSOLIDATED -> RabbitMQConfig.USER_EVENTS_QUEUE;
+            case STREAM_FANOUT -> RabbitMQConfig.USER_EVENTS_STREAM;
+        };
+    }
+
+    public Declarables declarables(TopicExchange exchange) {
+        List<Declarable> declarables = new ArrayList<>();
+        switch (this) {
+            case PER_TYPE -> {
+                Queue registrationQueue = QueueBuilder.durable(RabbitMQConfig.USER_REGISTRATION_QUEUE).build();
+                Queue loginQueue = QueueBuilder.durable(RabbitMQConfig.USER_LOGIN_QUEUE).build();
+                declarables.add(registrationQueue);
+                declarables.add(loginQueue);
+                declarables.add(BindingBuilder.bind(registrationQueue).to(exchange)
+                        .with(RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY));
+                declarables.add(BindingBuilder.bind(loginQueue).to(exchange)
+                        .with(RabbitMQConfig.USER_LOGIN_ROUTING_KEY));
+            }
+            case CONSOLIDATED -> {
+                Queue eventsQueue = QueueBuilder.durable(RabbitMQConfig.USER_EVENTS_QUEUE).build();
+                declarables.add(eventsQueue);
+                declarables.add(BindingBuilder.bind(eventsQueue).to(exchange).with("user.*"));
+            }
+            case STREAM_FANOUT -> {
+                Queue stream = QueueBuilder.durable(RabbitMQConfig.USER_EVENTS_STREAM)
+                        .stream()
+                        .withArgument("x-max-age", STREAM_MAX_AGE)
+                        .build();
+                declarables.add(stream);
+                declarables.add(BindingBuilder.bind(stream).to(exchange).with("user.*"));
+            }
+        }
+        return new Declarables(declarables);
+    }
+}
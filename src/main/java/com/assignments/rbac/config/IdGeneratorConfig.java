@@ -0,0 +1,38 @@
+package com.assignments.rbac.config;
+
+import com.assignments.rbac.util.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Snowflake ids are only unique if every running instance has its own node id. A node id derived
+ * from the hostname collides across replicas (hash mod 1024), and colliding nodes produce
+ * identical event ids and primary keys, so deployments with more than one instance set
+ * {@code app.id.require-node-id=true} and assign {@code app.id.node-id} explicitly.
+ */
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(@Value("${app.id.node-id:-1}") long nodeId,
+                                                     @Value("${app.id.require-node-id:false}") boolean requireNodeId) {
+        long resolvedNodeId;
+        if (nodeId >= 0) {
+            resolvedNodeId = nodeId;
+            log.info("Snowflake id generator initialised with node id {}", resolvedNodeId);
+        } else if (requireNodeId) {
+            throw new IllegalStateException("app.id.node-id must be set to a node id between 0 and "
+                    + SnowflakeIdGenerator.MAX_NODE_ID + " that is unique to this instance");
+        } else {
+            resolvedNodeId = SnowflakeIdGenerator.deriveNodeId();
+            log.warn("Snowflake node id {} derived from the hostname; it may collide with other instances, "
+                    + "which would produce duplicate ids. Set app.id.node-id per instance.", resolvedNodeId);
+        }
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(resolvedNodeId);
+        SnowflakeIdGenerator.setDefault(generator);
+        return generator;
+    }
+}
@@ -1,10 +1,14 @@
 package com.assignments.rbac.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JavaTypeMapper;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,65 +18,79 @@ public class RabbitMQConfig {
     public static final String USER_EVENTS_QUEUE = "user.events.queue";
     public static final String USER_REGISTRATION_QUEUE = "user.registration.queue";
     public static final String USER_LOGIN_QUEUE = "user.login.queue";
+    public static final String USER_EVENTS_STREAM = "user.events.stream";
 
     public static final String USER_EVENTS_EXCHANGE = "user.events.exchange";
+    public static final String CACHE_INVALIDATION_EXCHANGE = "cache.invalidation.exchange";
 
     public static final String USER_REGISTRATION_ROUTING_KEY = "user.registration";
     public static final String USER_LOGIN_ROUTING_KEY = "user.login";
 
+    public static final String BATCH_LISTENER_CONTAINER_FACTORY = "batchListenerContainerFactory";
+
     @Bean
     public TopicExchange userEventsExchange() {
         return new TopicExchange(USER_EVENTS_EXCHANGE);
     }
 
     @Bean
-    public Queue userEventsQueue() {
-        return QueueBuilder.durable(USER_EVENTS_QUEUE).build();
+    public FanoutExchange cacheInvalidationExchange() {
+        return new FanoutExchange(CACHE_INVALIDATION_EXCHANGE);
     }
 
+    /** Per-node queue, removed by the broker when the node disconnects. */
     @Bean
-    public Queue userRegistrationQueue() {
-        return QueueBuilder.durable(USER_REGISTRATION_QUEUE).build();
+    public Queue cacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("cache.invalidation."));
     }
 
     @Bean
-    public Queue userLoginQueue() {
-        return QueueBuilder.durable(USER_LOGIN_QUEUE).build();
+    public Binding cacheInvalidationBinding() {
+        return BindingBuilder.bind(cacheInvalidationQueue()).to(cacheInvalidationExchange());
     }
 
     @Bean
-    public Binding userRegistrationBinding() {
-        return BindingBuilder
-                .bind(userRegistrationQueue())
-                .to(userEventsExchange())
-                .with(USER_REGISTRATION_ROUTING_KEY);
+    public EventTopology eventTopology(@Value("${app.events.topology:PER_TYPE}") EventTopology topology) {
+        return topology;
     }
 
     @Bean
-    public Binding userLoginBinding() {
-        return BindingBuilder
-                .bind(userLoginQueue())
-                .to(userEventsExchange())
-                .with(USER_LOGIN_ROUTING_KEY);
+    public Declarables userEventsTopology(EventTopology eventTopology) {
+        return eventTopology.declarables(userEventsExchange());
     }
 
     @Bean
-    public Binding userEventsBinding() {
-        return BindingBuilder
-                .bind(userEventsQueue())
-                .to(userEventsExchange())
-                .with("user.*");
+    public MessageConverter jsonMessageConverter() {
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter("com.assignments.rbac.dto.events");
+        // Shared queues carry several event types, so the __TypeId__ header decides the payload class.
+        converter.setTypePrecedence(Jackson2JavaTypeMapper.TypePrecedence.TYPE_ID);
+        return converter;
     }
 
-    @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    @Bean(BATCH_LISTENER_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.events.consumer.batch-size:200}") int batchSize,
+            @Value("${app.events.consumer.prefetch:1000}") int prefetch,
+            @Value("${app.events.consumer.receive-timeout-ms:500}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(jsonMessageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(prefetch);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        return factory;
     }
 
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(jsonMessageConverter());
+        // Unroutable messages come back on the publish's CorrelationData instead of being dropped.
+        template.setMandatory(true);
         return template;
     }
 }
\ No newline at end of file
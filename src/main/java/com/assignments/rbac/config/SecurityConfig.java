@@ -54,7 +54,10 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll() 
-                .requestMatchers("/actuator/health", "/actuator/info").permitAll() 
+                // streamed responses finish on an async dispatch; the original request was already authorized
+                .dispatcherTypeMatchers(jakarta.servlet.DispatcherType.ASYNC).permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/liveness", "/actuator/health/readiness", "/actuator/info").permitAll() 
+                .requestMatchers("/actuator/cachestats/**", "/actuator/hotkeys/**").hasRole("ADMIN")
                 .requestMatchers("/api/users/register", "/api/users/login").permitAll()
                 .requestMatchers(
                     "/swagger-ui.html",
@@ -1,8 +1,20 @@
 package com.assignments.rbac.controller;
 
 import com.assignments.rbac.dto.AdminStatsResponse;
+import com.assignments.rbac.dto.AdminUserSummary;
 import com.assignments.rbac.dto.ApiResponse;
+import com.assignments.rbac.dto.ChangeFeedResponse;
+import com.assignments.rbac.dto.CursorPageResponse;
+import com.assignments.rbac.dto.LoginAnalyticsResponse;
+import com.assignments.rbac.dto.LoginHistoryResponse;
+import com.assignments.rbac.dto.PageResponse;
+import com.assignments.rbac.dto.UserSearchResponse;
 import com.assignments.rbac.service.AdminService;
+import com.assignments.rbac.service.ChangeFeedService;
+import com.assignments.rbac.service.ExportFormat;
+import com.assignments.rbac.service.LoginHistoryService;
+import com.assignments.rbac.service.StatsStreamService;
+import com.assignments.rbac.service.UserExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -10,12 +22,28 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
 
 @Slf4j
 @RestController
@@ -26,12 +54,21 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminController {
 
     private final AdminService adminService;
+    private final LoginHistoryService loginHistoryService;
+    private final UserExportService userExportService;
+    private final StatsStreamService statsStreamService;
+    private final ChangeFeedService changeFeedService;
+
+    private static final String EXPORT_TIMEOUT_INTERCEPTOR = AdminController.class.getName() + ".exportTimeout";
+
+    @Value("${app.export.timeout-ms:3600000}")
+    private long exportTimeoutMs;
 
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(
             summary = "Get admin statistics",
-            description = "Retrieves administrative statistics including user counts, role counts, and other system metrics."
+            description = "Retrieves aggregate administrative statistics: user counts, role counts, and other system metrics. Use GET /api/admin/users for the user list."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -57,4 +94,278 @@ public class AdminController {
         
         return ResponseEntity.ok(ApiResponse.success(stats));
     }
+
+    @GetMapping(value = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Stream admin statistics",
+            description = "Server-sent events: a `snapshot` event with all statistics, then `delta` events carrying only the fields that changed. Updates are coalesced to the configured interval (app.stats.stream.interval-ms)."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream opened"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Admin role required",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public SseEmitter streamAdminStats() {
+        log.info("Admin stats stream opened");
+
+        return statsStreamService.subscribe();
+    }
+
+    @GetMapping("/analytics/logins")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Get login analytics",
+            description = "Returns approximate daily, weekly and monthly active users (HyperLogLog, about 2% error) and per-minute login counts for the last `minutes` minutes. Served from memory on this instance."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Login analytics retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid minutes",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Admin role required",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<LoginAnalyticsResponse>> getLoginAnalytics(
+            @RequestParam(defaultValue = "60") int minutes) {
+        log.info("Login analytics requested for the last {} minutes", minutes);
+
+        LoginAnalyticsResponse analytics = adminService.getLoginAnalytics(minutes);
+
+        return ResponseEntity.ok(ApiResponse.success(analytics));
+    }
+
+    @GetMapping("/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "List users",
+            description = "Lists users newest first with their roles. Pass the returned nextCursor to fetch the following page; it is absent on the last page."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Users retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor or size",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Admin role required",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<CursorPageResponse<AdminUserSummary>>> listUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Admin user listing requested (size {})", size);
+
+        CursorPageResponse<AdminUserSummary> users = adminService.listUsers(cursor, size);
+
+        return ResponseEntity.ok(ApiResponse.success(users));
+    }
+
+    @GetMapping("/users/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Search users",
+            description = "Case-insensitive search over username, email and name. One or two characters match the start of a field; three or more match anywhere. Exact matches come first, then prefix matches, then the rest, newest users first. Served from an in-memory index; `complete` is false while it is still being built after a restart."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Search completed successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Blank query or invalid limit",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Admin role required",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<UserSearchResponse>> searchUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("User search requested (limit {})", limit);
+
+        UserSearchResponse results = adminService.searchUsers(q, limit);
+
+        return ResponseEntity.ok(ApiResponse.success(results));
+    }
+
+    @GetMapping("/users/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Export users",
+            description = "Streams every user with their roles as newline-delimited JSON (format=ndjson) or CSV (format=csv). Rows are written while they are read from the database."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Export streamed successfully"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Unsupported format",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Admin role required",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                                             HttpServletRequest request) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        log.info("User export requested as {}", exportFormat);
+
+        // Large exports outlive the default async timeout; raise it for this request only
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_TIMEOUT_INTERCEPTOR,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        ((AsyncWebRequest) webRequest).setTimeout(exportTimeoutMs);
+                    }
+                });
+
+        StreamingResponseBody body = out -> userExportService.export(exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users-" + LocalDate.now() + "." + exportFormat.getExtension())
+                        .build().toString())
+                .body(body);
+    }
+
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Get user and role assignment changes",
+            description = "Returns users and role assignments changed after the `since` cursor, oldest first, up to `limit` of each. Omit `since` to start from the beginning and pass `nextCursor` back on the next call; keep paging while `hasMore` is true. The last few seconds are held back until they have settled."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Changes retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed cursor or invalid limit",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Admin role required",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<ChangeFeedResponse>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Change feed requested (limit {})", limit);
+
+        ChangeFeedResponse changes = changeFeedService.getChanges(since, limit);
+
+        return ResponseEntity.ok(ApiResponse.success(changes));
+    }
+
+    @GetMapping("/users/{userId}/logins")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Get user login history",
+            description = "Returns the user's login attempts, newest first. History is recorded asynchronously from login events, so the latest attempt may take a moment to appear."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Login history retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid page or size",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Admin role required",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "User not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<PageResponse<LoginHistoryResponse>>> getUserLoginHistory(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Login history requested for user ID: {} (page {}, size {})", userId, page, size);
+
+        PageResponse<LoginHistoryResponse> history = loginHistoryService.getLoginHistory(userId, page, size);
+
+        return ResponseEntity.ok(ApiResponse.success(history));
+    }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.assignments.rbac.dto.LoginRequest;
 import com.assignments.rbac.dto.LoginResponse;
 import com.assignments.rbac.dto.UserRegistrationRequest;
 import com.assignments.rbac.dto.UserResponse;
+import com.assignments.rbac.service.HotKeyTracker;
 import com.assignments.rbac.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -26,6 +27,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final UserService userService;
+    private final HotKeyTracker hotKeyTracker;
 
     @PostMapping("/register")
     @Operation(
@@ -102,6 +104,8 @@ public class AuthController {
     @SecurityRequirement(name = "bearerAuth")
     public ResponseEntity<ApiResponse<CurrentUserResponse>> getCurrentUser() {
         CurrentUserResponse currentUser = userService.getCurrentUser();
+        // Recorded here rather than in the service, whose cached method body only runs on a miss.
+        hotKeyTracker.recordCurrentUser(currentUser.getEmail());
         return ResponseEntity.ok(ApiResponse.success(currentUser));
     }
 }
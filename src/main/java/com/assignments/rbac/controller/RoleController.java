@@ -92,6 +92,46 @@ public class RoleController {
         return ResponseEntity.ok(ApiResponse.success(roles));
     }
 
+    @PutMapping("/{roleId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Update a role",
+            description = "Updates the name and description of a role. Cached profiles of the users holding it are evicted."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Role updated successfully",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Validation error or invalid request",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Admin role required",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Role not found",
+                    content = @Content(schema = @Schema(implementation = ApiResponse.class))
+            )
+    })
+    public ResponseEntity<ApiResponse<RoleResponse>> updateRole(
+            @PathVariable Long roleId,
+            @Valid @RequestBody RoleRequest request) {
+        RoleResponse roleResponse = roleService.updateRole(roleId, request);
+        return ResponseEntity.ok(ApiResponse.success(roleResponse));
+    }
+
     @PostMapping("/users/{userId}/roles")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(
@@ -0,0 +1,26 @@
+package com.assignments.rbac.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Admin statistics pushed over the stats stream. The first event carries every field; later
+ * events carry only the fields (and role counts) that changed, with unchanged ones omitted.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AdminStatsDelta {
+
+    private Long totalUsers;
+    private Long totalRoles;
+    private Long activeUsers;
+    private Long neverLoggedInUsers;
+    private Map<String, Long> usersByRole;
+    private Long loginsLast24h;
+    private LocalDateTime generatedAt;
+}
@@ -6,7 +6,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -16,21 +16,10 @@ public class AdminStatsResponse {
     private Long totalUsers;
     private Long totalRoles;
     private Long activeUsers;
-    private List<UserDetailInfo> users;
+    private Long neverLoggedInUsers;
+    private Map<String, Long> usersByRole;
+    private Long loginsLast24h;
     private LocalDateTime generatedAt;
-    
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class UserDetailInfo {
-        private Long userId;
-        private String name;
-        private String username;
-        private String email;
-        private Set<RoleResponse> roles;
-        private LocalDateTime lastLoginAt;
-        private String loginStatus; 
-        private LocalDateTime createdAt;
-        private String createdBy;
-    }
-}
\ No newline at end of file
+    private Boolean partial;
+    private List<String> missingSections;
+}
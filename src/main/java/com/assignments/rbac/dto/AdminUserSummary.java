@@ -0,0 +1,23 @@
+package com.assignments.rbac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminUserSummary {
+    private Long userId;
+    private String name;
+    private String username;
+    private String email;
+    private Set<RoleResponse> roles;
+    private LocalDateTime lastLoginAt;
+    private String loginStatus;
+    private LocalDateTime createdAt;
+    private String createdBy;
+}
@@ -0,0 +1,19 @@
+package com.assignments.rbac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedResponse {
+
+    private List<UserChange> users;
+    private List<RoleAssignmentChange> roleAssignments;
+    private boolean hasMore;
+    /** Pass back as {@code since}; returned even when nothing changed so consumers can keep polling. */
+    private String nextCursor;
+}
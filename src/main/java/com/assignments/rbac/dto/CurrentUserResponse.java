@@ -2,11 +2,14 @@ package com.assignments.rbac.dto;
 
 import lombok.Data;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.Set;
 
 @Data
-public class CurrentUserResponse {
+public class CurrentUserResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private Long id;
     private String name;
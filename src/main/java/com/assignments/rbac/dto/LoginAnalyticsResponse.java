@@ -0,0 +1,22 @@
+package com.assignments.rbac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginAnalyticsResponse {
+
+    private Long dailyActiveUsers;
+    private Long weeklyActiveUsers;
+    private Long monthlyActiveUsers;
+    private Long successfulLoginsLast24h;
+    private Long failedLoginsLast24h;
+    private List<LoginRatePoint> loginsPerMinute;
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,17 @@
+package com.assignments.rbac.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class LoginHistoryResponse {
+
+    private Long id;
+    private String eventId;
+    private LocalDateTime loginAt;
+    private String ipAddress;
+    private String userAgent;
+    private boolean successful;
+    private String failureReason;
+}
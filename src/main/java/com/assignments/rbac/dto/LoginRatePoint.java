@@ -0,0 +1,17 @@
+package com.assignments.rbac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginRatePoint {
+
+    private LocalDateTime minute;
+    private Long successful;
+    private Long failed;
+}
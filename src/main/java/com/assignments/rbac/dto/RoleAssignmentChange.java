@@ -0,0 +1,21 @@
+package com.assignments.rbac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleAssignmentChange {
+
+    private Long changeId;
+    private Long userId;
+    private Long roleId;
+    private String roleName;
+    private String changeType;
+    private LocalDateTime changedAt;
+    private String changedBy;
+}
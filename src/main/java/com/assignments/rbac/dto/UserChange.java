@@ -0,0 +1,20 @@
+package com.assignments.rbac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChange {
+
+    private Long id;
+    private String username;
+    private String email;
+    private String name;
+    private boolean deleted;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.assignments.rbac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserExportRow {
+    private Long id;
+    private String name;
+    private String username;
+    private String email;
+    private List<String> roles;
+    private LocalDateTime createdAt;
+    private String createdBy;
+    private LocalDateTime lastLoginAt;
+}
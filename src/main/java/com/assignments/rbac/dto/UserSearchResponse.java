@@ -0,0 +1,18 @@
+package com.assignments.rbac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchResponse {
+
+    private String query;
+    private List<UserSearchResult> results;
+    /** False while the index is still being built at startup; results may then be incomplete. */
+    private boolean complete;
+}
@@ -0,0 +1,16 @@
+package com.assignments.rbac.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchResult {
+
+    private Long id;
+    private String username;
+    private String email;
+    private String name;
+}
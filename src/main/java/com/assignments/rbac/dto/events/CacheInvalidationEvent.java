@@ -0,0 +1,39 @@
+package com.assignments.rbac.dto.events;
+
+import com.assignments.rbac.util.SnowflakeIdGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationEvent {
+
+    private String eventId;
+    private String eventType = "CACHE_INVALIDATION";
+    private String originNodeId;
+    private String cacheName;
+    private boolean clear;
+    private List<String> keys;
+    private List<String> tags;
+    private LocalDateTime eventTimestamp;
+
+    public CacheInvalidationEvent(String originNodeId, String cacheName, boolean clear, List<String> keys) {
+        this(originNodeId, cacheName, clear, keys, List.of());
+    }
+
+    public CacheInvalidationEvent(String originNodeId, String cacheName, boolean clear, List<String> keys,
+                                  List<String> tags) {
+        this.eventId = SnowflakeIdGenerator.getDefault().nextIdString();
+        this.originNodeId = originNodeId;
+        this.cacheName = cacheName;
+        this.clear = clear;
+        this.keys = keys;
+        this.tags = tags;
+        this.eventTimestamp = LocalDateTime.now();
+    }
+}
@@ -1,5 +1,6 @@
 package com.assignments.rbac.dto.events;
 
+import com.assignments.rbac.util.SnowflakeIdGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -29,7 +30,7 @@ public class UserLoginEvent {
     public UserLoginEvent(Long userId, String username, String email, String name, List<String> roles,
                          LocalDateTime loginTimestamp, String ipAddress, String userAgent, 
                          boolean loginSuccessful, String failureReason) {
-        this.eventId = java.util.UUID.randomUUID().toString();
+        this.eventId = SnowflakeIdGenerator.getDefault().nextIdString();
         this.userId = userId;
         this.username = username;
         this.email = email;
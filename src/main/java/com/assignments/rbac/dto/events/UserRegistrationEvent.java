@@ -1,5 +1,6 @@
 package com.assignments.rbac.dto.events;
 
+import com.assignments.rbac.util.SnowflakeIdGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,7 +25,7 @@ public class UserRegistrationEvent {
 
     public UserRegistrationEvent(Long userId, String username, String email, String name, 
                                 LocalDateTime registrationTimestamp, String ipAddress, String userAgent) {
-        this.eventId = java.util.UUID.randomUUID().toString();
+        this.eventId = SnowflakeIdGenerator.getDefault().nextIdString();
         this.userId = userId;
         this.username = username;
         this.email = email;
@@ -0,0 +1,19 @@
+package com.assignments.rbac.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a time-ordered snowflake id before insert. Use instead of
+ * {@code @GeneratedValue(strategy = IDENTITY)} on new tables so primary keys are
+ * generated without a database round trip and inserts stay append-only in the index.
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
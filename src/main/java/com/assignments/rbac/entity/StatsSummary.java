@@ -0,0 +1,26 @@
+package com.assignments.rbac.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stats_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsSummary {
+
+    @Id
+    @Column(name = "stat_key", length = 100)
+    private String statKey;
+
+    @Column(name = "stat_value", nullable = false)
+    private Long statValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,44 @@
+package com.assignments.rbac.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_login_history")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLoginHistory {
+
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, unique = true, length = 36)
+    private String eventId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(length = 100)
+    private String email;
+
+    @Column(name = "login_at", nullable = false)
+    private LocalDateTime loginAt;
+
+    @Column(name = "ip_address", length = 45)
+    private String ipAddress;
+
+    @Column(name = "user_agent")
+    private String userAgent;
+
+    @Column(nullable = false)
+    private boolean successful;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+}
@@ -0,0 +1,62 @@
+package com.assignments.rbac.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * One role assignment or revocation, read by the change feed. {@code roleName} is the name the
+ * role had when the change was recorded; renaming a role does not rewrite past changes and is
+ * not itself a change, so consumers that need the current name resolve {@code roleId}.
+ */
+@Entity
+@Table(name = "user_role_changes",
+       indexes = {
+           @Index(name = "idx_user_role_changes_changed_at_id", columnList = "changed_at, id")
+       })
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRoleChange {
+
+    public enum ChangeType { ASSIGNED, REVOKED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "role_id", nullable = false)
+    private Long roleId;
+
+    @Column(name = "role_name", nullable = false, length = 50)
+    private String roleName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private ChangeType changeType;
+
+    @CreatedDate
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+
+    @CreatedBy
+    @Column(name = "changed_by", length = 50, updatable = false)
+    private String changedBy;
+
+    public UserRoleChange(Long userId, Role role, ChangeType changeType) {
+        this.userId = userId;
+        this.roleId = role.getId();
+        this.roleName = role.getName();
+        this.changeType = changeType;
+    }
+}
@@ -0,0 +1,11 @@
+package com.assignments.rbac.mapper;
+
+import com.assignments.rbac.dto.LoginHistoryResponse;
+import com.assignments.rbac.entity.UserLoginHistory;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface LoginHistoryMapper {
+
+    LoginHistoryResponse toResponse(UserLoginHistory history);
+}
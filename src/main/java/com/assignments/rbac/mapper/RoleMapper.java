@@ -3,6 +3,7 @@ package com.assignments.rbac.mapper;
 import com.assignments.rbac.dto.RoleRequest;
 import com.assignments.rbac.dto.RoleResponse;
 import com.assignments.rbac.entity.Role;
+import com.assignments.rbac.repository.UserRoleView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -20,5 +21,7 @@ public interface RoleMapper {
     Role toEntity(RoleRequest request);
 
     RoleResponse toResponse(Role role);
+
+    RoleResponse toResponse(UserRoleView userRole);
 }
 
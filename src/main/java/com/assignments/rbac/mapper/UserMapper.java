@@ -1,12 +1,15 @@
 package com.assignments.rbac.mapper;
 
 import com.assignments.rbac.dto.CurrentUserResponse;
+import com.assignments.rbac.dto.RoleResponse;
 import com.assignments.rbac.dto.UserRegistrationRequest;
 import com.assignments.rbac.dto.UserResponse;
 import com.assignments.rbac.entity.User;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.util.List;
+
 @Mapper(componentModel = "spring", uses = {RoleMapper.class})
 public interface UserMapper {
 
@@ -22,5 +25,6 @@ public interface UserMapper {
 
     UserResponse toResponse(User user);
 
-    CurrentUserResponse toCurrentUserResponse(User user);
+    @Mapping(target = "roles", source = "roles")
+    CurrentUserResponse toCurrentUserResponse(User user, List<RoleResponse> roles);
 }
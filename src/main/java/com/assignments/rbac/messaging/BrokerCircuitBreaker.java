@@ -0,0 +1,77 @@
+package com.assignments.rbac.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker for broker publishes.
+ *
+ * Request threads only ever ask {@link #isClosed()}; while the breaker is open they divert to
+ * the spool instead of waiting on broker timeouts. Probing a recovered broker is left to the
+ * background replayer through {@link #tryAcquire()}, which admits one half-open attempt once
+ * the open duration has elapsed.
+ */
+@Slf4j
+public class BrokerCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final LongSupplier clock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    public BrokerCircuitBreaker(int failureThreshold, long openDurationMs) {
+        this(failureThreshold, openDurationMs, System::currentTimeMillis);
+    }
+
+    BrokerCircuitBreaker(int failureThreshold, long openDurationMs, LongSupplier clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean isClosed() {
+        return state.get() == State.CLOSED;
+    }
+
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && clock.getAsLong() - openedAt >= openDurationMs) {
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        State previous = state.getAndSet(State.CLOSED);
+        if (previous != State.CLOSED) {
+            log.info("Broker circuit breaker closed after successful publish");
+        }
+    }
+
+    public void recordFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (state.get() == State.HALF_OPEN || failures >= failureThreshold) {
+            openedAt = clock.getAsLong();
+            State previous = state.getAndSet(State.OPEN);
+            if (previous != State.OPEN) {
+                log.warn("Broker circuit breaker opened after {} consecutive failures", failures);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.assignments.rbac.messaging;
+
+import com.assignments.rbac.cache.CacheInvalidationBroadcaster;
+import com.assignments.rbac.dto.events.CacheInvalidationEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies cache invalidations broadcast by other nodes. Each node consumes from its own
+ * anonymous queue bound to the cache invalidation fanout exchange, so every node sees every
+ * message; with the in-memory transport there is only one node and nothing to listen for.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener {
+
+    private final CacheInvalidationBroadcaster cacheInvalidationBroadcaster;
+
+    @RabbitListener(
+            queues = "#{@cacheInvalidationQueue.name}",
+            autoStartup = "#{'${app.events.transport:rabbit}' == 'rabbit' && ${app.cache.invalidation.enabled:true}}")
+    public void onInvalidation(CacheInvalidationEvent event) {
+        log.debug("Received invalidation of cache '{}' from node {}: clear={}, keys={}",
+                event.getCacheName(), event.getOriginNodeId(), event.isClear(), event.getKeys());
+        cacheInvalidationBroadcaster.apply(event);
+    }
+}
@@ -0,0 +1,13 @@
+package com.assignments.rbac.messaging;
+
+import java.util.List;
+
+/**
+ * Consumer attached to an {@link InMemoryEventBus} queue. Receives events in batches of up to
+ * the bus's configured batch size, in queue order.
+ */
+@FunctionalInterface
+public interface EventConsumer {
+
+    void consume(List<Object> events) throws Exception;
+}
@@ -0,0 +1,315 @@
+package com.assignments.rbac.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk queue of events that could not be handed to the broker.
+ *
+ * Records are appended to fixed-size memory-mapped segment files as
+ * {@code [int length][int crc32][routing key, type id, body]}. The length is written last, so a
+ * reader (or recovery after a crash) never sees a half-written record. A single replay thread
+ * consumes records in append order and persists its position in a checkpoint file; fully
+ * consumed segments are deleted. Delivery is at-least-once: a crash between a successful
+ * replay and the next checkpoint re-sends those records, which carry their original event id.
+ */
+@Slf4j
+public class EventSpool implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    public record Entry(String routingKey, String typeId, byte[] body) {
+    }
+
+    @FunctionalInterface
+    public interface EntryHandler {
+        void handle(Entry entry) throws Exception;
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Object writeLock = new Object();
+    private final Object readLock = new Object();
+
+    private volatile Segment activeSegment;
+    private volatile boolean dirty;
+    private long readSegmentIndex;
+    private int readPosition;
+    private String lastCheckpoint;
+
+    public EventSpool(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Spool segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    public void append(Entry entry) throws IOException {
+        byte[] record = encode(entry);
+        if (record.length + HEADER_BYTES > segmentSize) {
+            throw new IllegalArgumentException("Event of " + record.length + " bytes exceeds spool segment size");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record);
+
+        synchronized (writeLock) {
+            Segment segment = activeSegment;
+            if (segment.writePosition + HEADER_BYTES + record.length > segmentSize) {
+                segment = roll();
+            }
+            int position = segment.writePosition;
+            segment.buffer.putInt(position + 4, (int) crc.getValue());
+            segment.buffer.put(position + HEADER_BYTES, record);
+            segment.buffer.putInt(position, record.length);
+            segment.writePosition = position + HEADER_BYTES + record.length;
+            dirty = true;
+        }
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Hands up to {@code maxEntries} records to the handler in append order. Stops at the first
+     * handler failure, leaving that record at the head of the spool, and rethrows it.
+     */
+    public int drain(int maxEntries, EntryHandler handler) throws Exception {
+        synchronized (readLock) {
+            int drained = 0;
+            try {
+                while (drained < maxEntries) {
+                    Segment segment = segments.get(readSegmentIndex);
+                    if (segment == null) {
+                        Long next = segments.ceilingKey(readSegmentIndex);
+                        if (next == null) {
+                            break;
+                        }
+                        readSegmentIndex = next;
+                        readPosition = 0;
+                        continue;
+                    }
+
+                    boolean sealed = segment.sealed;
+                    int limit = segment.writePosition;
+                    if (readPosition + HEADER_BYTES > limit) {
+                        if (!sealed) {
+                            break;
+                        }
+                        retire(segment);
+                        continue;
+                    }
+
+                    int length = segment.buffer.getInt(readPosition);
+                    byte[] record = new byte[length];
+                    segment.buffer.get(readPosition + HEADER_BYTES, record);
+                    handler.handle(decode(record));
+
+                    readPosition += HEADER_BYTES + length;
+                    pending.decrementAndGet();
+                    drained++;
+                }
+            } finally {
+                writeCheckpoint();
+            }
+            return drained;
+        }
+    }
+
+    public boolean hasPending() {
+        return pending.get() > 0;
+    }
+
+    public long pendingCount() {
+        return pending.get();
+    }
+
+    /** Forces appended records to disk; a no-op when nothing was appended since the last flush. */
+    public void flush() {
+        if (!dirty) {
+            return;
+        }
+        // Cleared first: records appended while forcing mark the spool dirty again.
+        dirty = false;
+        activeSegment.buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        synchronized (readLock) {
+            writeCheckpoint();
+        }
+    }
+
+    private Segment roll() throws IOException {
+        Segment current = activeSegment;
+        current.buffer.force();
+        Segment next = openSegment(current.index + 1);
+        segments.put(next.index, next);
+        current.sealed = true;
+        activeSegment = next;
+        log.debug("Event spool rolled to segment {}", next.index);
+        return next;
+    }
+
+    private void retire(Segment segment) throws IOException {
+        segments.remove(segment.index);
+        Files.deleteIfExists(segment.path);
+        Long next = segments.higherKey(segment.index);
+        readSegmentIndex = next != null ? next : segment.index + 1;
+        readPosition = 0;
+    }
+
+    private void recover() throws IOException {
+        List<Long> indexes = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(indexes::add);
+        }
+
+        long checkpointSegment = indexes.isEmpty() ? 0 : indexes.get(0);
+        int checkpointPosition = 0;
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            String[] parts = Files.readString(checkpoint, StandardCharsets.UTF_8).trim().split(" ");
+            checkpointSegment = Long.parseLong(parts[0]);
+            checkpointPosition = Integer.parseInt(parts[1]);
+        }
+
+        for (Long index : indexes) {
+            if (index < checkpointSegment) {
+                Files.deleteIfExists(segmentPath(index));
+                continue;
+            }
+            Segment segment = openSegment(index);
+            int skipUntil = index == checkpointSegment ? checkpointPosition : 0;
+            segment.writePosition = scan(segment, skipUntil);
+            segment.sealed = true;
+            segments.put(index, segment);
+        }
+
+        if (segments.isEmpty()) {
+            Segment segment = openSegment(checkpointSegment);
+            segments.put(segment.index, segment);
+        }
+        activeSegment = segments.lastEntry().getValue();
+        activeSegment.sealed = false;
+
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        readSegmentIndex = first.getKey();
+        readPosition = first.getKey() == checkpointSegment ? checkpointPosition : 0;
+
+        if (pending.get() > 0) {
+            log.info("Recovered {} spooled events from {}", pending.get(), directory);
+        }
+    }
+
+    private int scan(Segment segment, int skipUntil) {
+        int position = 0;
+        while (position + HEADER_BYTES <= segmentSize) {
+            int length = segment.buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            byte[] record = new byte[length];
+            segment.buffer.get(position + HEADER_BYTES, record);
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            if ((int) crc.getValue() != segment.buffer.getInt(position + 4)) {
+                log.warn("Discarding torn record at {}:{} in event spool", segment.index, position);
+                break;
+            }
+            if (position >= skipUntil) {
+                pending.incrementAndGet();
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private Segment openSegment(long index) throws IOException {
+        Path path = segmentPath(index);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return new Segment(index, path, buffer);
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private void writeCheckpoint() throws IOException {
+        String value = readSegmentIndex + " " + readPosition;
+        if (value.equals(lastCheckpoint)) {
+            return;
+        }
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, value, StandardCharsets.UTF_8);
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lastCheckpoint = value;
+    }
+
+    private static byte[] encode(Entry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(entry.body().length + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(entry.routingKey());
+            out.writeUTF(entry.typeId() != null ? entry.typeId() : "");
+            out.write(entry.body());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(byte[] record) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            String routingKey = in.readUTF();
+            String typeId = in.readUTF();
+            return new Entry(routingKey, typeId.isEmpty() ? null : typeId, in.readAllBytes());
+        }
+    }
+
+    private static final class Segment {
+        private final long index;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private volatile int writePosition;
+        private volatile boolean sealed;
+
+        private Segment(long index, Path path, MappedByteBuffer buffer) {
+            this.index = index;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
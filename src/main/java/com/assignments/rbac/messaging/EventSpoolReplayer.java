@@ -0,0 +1,46 @@
+package com.assignments.rbac.messaging;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.events.transport", havingValue = "rabbit", matchIfMissing = true)
+@RequiredArgsConstructor
+public class EventSpoolReplayer {
+
+    private final RabbitEventTransport rabbitEventTransport;
+    private final BrokerCircuitBreaker circuitBreaker;
+    private final EventSpool eventSpool;
+
+    @Value("${app.events.spool.replay-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.events.spool.replay-interval-ms:5000}")
+    public void replay() {
+        // No-op unless events were spooled since the last run.
+        eventSpool.flush();
+        if (!eventSpool.hasPending() || !circuitBreaker.tryAcquire()) {
+            return;
+        }
+
+        long replayed = 0;
+        try {
+            int drained;
+            do {
+                drained = rabbitEventTransport.replaySpooledEvents(batchSize);
+                replayed += drained;
+            } while (drained > 0 && eventSpool.hasPending());
+            circuitBreaker.recordSuccess();
+            log.info("Replayed {} spooled events to the broker", replayed);
+        } catch (Exception e) {
+            circuitBreaker.recordFailure();
+            log.warn("Spool replay stopped after {} events, {} still pending - Error: {}",
+                    replayed, eventSpool.pendingCount(), e.getMessage());
+        }
+    }
+}
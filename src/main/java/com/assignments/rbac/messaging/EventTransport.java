@@ -0,0 +1,9 @@
+package com.assignments.rbac.messaging;
+
+/**
+ * Delivers a user event to the user events exchange under the given routing key.
+ */
+public interface EventTransport {
+
+    void send(String routingKey, Object event) throws Exception;
+}
@@ -0,0 +1,213 @@
+package com.assignments.rbac.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Queue;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Broker-free stand-in for the user events exchange.
+ *
+ * Mirrors the AMQP bindings it is given: each published event is copied into every bounded
+ * queue whose binding pattern matches the routing key, and a dispatcher thread per queue hands
+ * batches to the attached consumers. Consumers on a classic queue compete for batches; on a
+ * stream queue ({@code x-queue-type=stream}) every consumer sees every batch. When a queue is
+ * full the overflow policy mirrors RabbitMQ's {@code x-overflow}: drop the oldest message or
+ * reject the publish.
+ */
+@Slf4j
+public class InMemoryEventBus implements Closeable {
+
+    public enum OverflowPolicy { DROP_HEAD, REJECT_PUBLISH }
+
+    public record QueueStats(String name, int depth, long published, long delivered, long dropped) {
+    }
+
+    private final Map<String, List<Route>> routesByExchange = new ConcurrentHashMap<>();
+    private final Map<String, BoundQueue> queues = new LinkedHashMap<>();
+    private final Map<String, List<BoundQueue>> routeCache = new ConcurrentHashMap<>();
+    private final OverflowPolicy overflowPolicy;
+    private final int maxBatchSize;
+    private final MeterRegistry meterRegistry;
+    private volatile boolean running = true;
+
+    public InMemoryEventBus(Collection<Queue> declaredQueues, Collection<Binding> bindings, int queueCapacity,
+                            OverflowPolicy overflowPolicy, int maxBatchSize, MeterRegistry meterRegistry) {
+        this.overflowPolicy = overflowPolicy;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.meterRegistry = meterRegistry;
+
+        for (Queue queue : declaredQueues) {
+            boolean stream = "stream".equals(queue.getArguments().get("x-queue-type"));
+            queues.put(queue.getName(), new BoundQueue(queue.getName(), queueCapacity, stream));
+        }
+        for (Binding binding : bindings) {
+            BoundQueue queue = queues.computeIfAbsent(binding.getDestination(),
+                    name -> new BoundQueue(name, queueCapacity, false));
+            routesByExchange.computeIfAbsent(binding.getExchange(), exchange -> new CopyOnWriteArrayList<>())
+                    .add(new Route(binding.getRoutingKey(), queue));
+        }
+        queues.values().forEach(BoundQueue::start);
+        log.info("In-memory event bus started with queues {}", queues.keySet());
+    }
+
+    public void publish(String exchange, String routingKey, Object event) {
+        List<BoundQueue> targets = routeCache.computeIfAbsent(exchange + "|" + routingKey, key -> resolve(exchange, routingKey));
+        long now = System.nanoTime();
+        for (BoundQueue queue : targets) {
+            queue.offer(new Envelope(event, now));
+        }
+    }
+
+    public void subscribe(String queueName, EventConsumer consumer) {
+        BoundQueue queue = queues.get(queueName);
+        if (queue == null) {
+            throw new IllegalArgumentException("No in-memory queue declared with name " + queueName);
+        }
+        queue.consumers.add(consumer);
+    }
+
+    public Collection<String> queueNames() {
+        return List.copyOf(queues.keySet());
+    }
+
+    public List<QueueStats> stats() {
+        List<QueueStats> stats = new ArrayList<>();
+        for (BoundQueue queue : queues.values()) {
+            stats.add(new QueueStats(queue.name, queue.buffer.size(), (long) queue.published.count(),
+                    (long) queue.delivered.count(), (long) queue.dropped.count()));
+        }
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        queues.values().forEach(queue -> queue.dispatcher.interrupt());
+    }
+
+    private List<BoundQueue> resolve(String exchange, String routingKey) {
+        List<BoundQueue> targets = new ArrayList<>();
+        for (Route route : routesByExchange.getOrDefault(exchange, List.of())) {
+            if (!targets.contains(route.queue) && TopicMatcher.matches(route.pattern, routingKey)) {
+                targets.add(route.queue);
+            }
+        }
+        return List.copyOf(targets);
+    }
+
+    private record Route(String pattern, BoundQueue queue) {
+    }
+
+    private record Envelope(Object event, long enqueuedAtNanos) {
+    }
+
+    private final class BoundQueue {
+        private final String name;
+        private final boolean stream;
+        private final ArrayBlockingQueue<Envelope> buffer;
+        private final List<EventConsumer> consumers = new CopyOnWriteArrayList<>();
+        private final AtomicInteger nextConsumer = new AtomicInteger();
+        private final Thread dispatcher;
+        private final Counter published;
+        private final Counter delivered;
+        private final Counter dropped;
+        private final Timer latency;
+
+        private BoundQueue(String name, int capacity, boolean stream) {
+            this.name = name;
+            this.stream = stream;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+            this.dispatcher = new Thread(this::dispatchLoop, "inmem-" + name);
+            this.dispatcher.setDaemon(true);
+
+            MeterRegistry registry = meterRegistry != null ? meterRegistry : new SimpleMeterRegistry();
+            this.published = Counter.builder("events.inmemory.published").tag("queue", name).register(registry);
+            this.delivered = Counter.builder("events.inmemory.delivered").tag("queue", name).register(registry);
+            this.dropped = Counter.builder("events.inmemory.dropped").tag("queue", name).register(registry);
+            this.latency = Timer.builder("events.inmemory.latency").tag("queue", name)
+                    .publishPercentiles(0.5, 0.99).register(registry);
+            Gauge.builder("events.inmemory.depth", buffer, ArrayBlockingQueue::size).tag("queue", name).register(registry);
+        }
+
+        private void start() {
+            dispatcher.start();
+        }
+
+        private void offer(Envelope envelope) {
+            while (!buffer.offer(envelope)) {
+                if (overflowPolicy == OverflowPolicy.REJECT_PUBLISH) {
+                    dropped.increment();
+                    throw new IllegalStateException("In-memory queue " + name + " is full");
+                }
+                if (buffer.poll() != null) {
+                    dropped.increment();
+                }
+            }
+            published.increment();
+        }
+
+        private void dispatchLoop() {
+            List<Envelope> batch = new ArrayList<>(maxBatchSize);
+            while (running) {
+                try {
+                    if (consumers.isEmpty()) {
+                        TimeUnit.MILLISECONDS.sleep(50);
+                        continue;
+                    }
+                    Envelope first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    buffer.drainTo(batch, maxBatchSize - 1);
+                    deliver(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        private void deliver(List<Envelope> batch) {
+            List<Object> events = new ArrayList<>(batch.size());
+            for (Envelope envelope : batch) {
+                events.add(envelope.event());
+            }
+
+            List<EventConsumer> targets = stream
+                    ? consumers
+                    : List.of(consumers.get(Math.floorMod(nextConsumer.getAndIncrement(), consumers.size())));
+            for (EventConsumer consumer : targets) {
+                try {
+                    consumer.consume(events);
+                } catch (Exception e) {
+                    log.error("In-memory consumer on queue {} failed for batch of {} events - Error: {}",
+                            name, events.size(), e.getMessage(), e);
+                }
+            }
+
+            // The head of the batch waited longest; sampling it keeps the timer off the per-event path.
+            latency.record(System.nanoTime() - batch.get(0).enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+            delivered.increment(batch.size());
+        }
+    }
+}
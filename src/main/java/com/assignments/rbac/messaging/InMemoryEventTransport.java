@@ -0,0 +1,15 @@
+package com.assignments.rbac.messaging;
+
+import com.assignments.rbac.config.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class InMemoryEventTransport implements EventTransport {
+
+    private final InMemoryEventBus eventBus;
+
+    @Override
+    public void send(String routingKey, Object event) {
+        eventBus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE, routingKey, event);
+    }
+}
@@ -0,0 +1,52 @@
+package com.assignments.rbac.messaging;
+
+import com.assignments.rbac.config.EventTopology;
+import com.assignments.rbac.config.RabbitMQConfig;
+import com.assignments.rbac.dto.events.UserLoginEvent;
+import com.assignments.rbac.service.LoginHistoryService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Projects login events into the login history table. Listens on whichever queue the configured
+ * {@link EventTopology} routes login events to and ignores other event types sharing it.
+ * Deliveries arrive as consumer-side batches so each batch becomes one multi-row insert; with the
+ * in-memory transport the same handler is subscribed to the local queue instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginHistoryListener {
+
+    private final LoginHistoryService loginHistoryService;
+    private final EventTopology eventTopology;
+    private final ObjectProvider<InMemoryEventBus> inMemoryEventBus;
+
+    @PostConstruct
+    void subscribeInMemory() {
+        inMemoryEventBus.ifAvailable(bus -> bus.subscribe(
+                eventTopology.queueFor(RabbitMQConfig.USER_LOGIN_ROUTING_KEY), this::onEvents));
+    }
+
+    @RabbitListener(
+            queues = "#{@eventTopology.queueFor(T(com.assignments.rbac.config.RabbitMQConfig).USER_LOGIN_ROUTING_KEY)}",
+            containerFactory = RabbitMQConfig.BATCH_LISTENER_CONTAINER_FACTORY,
+            autoStartup = "#{'${app.events.transport:rabbit}' == 'rabbit'}")
+    public void onEvents(List<Object> events) {
+        List<UserLoginEvent> loginEvents = new ArrayList<>(events.size());
+        for (Object event : events) {
+            if (event instanceof UserLoginEvent loginEvent) {
+                loginEvents.add(loginEvent);
+            }
+        }
+        log.debug("Received batch of {} events, {} login events", events.size(), loginEvents.size());
+        loginHistoryService.recordLoginEvents(loginEvents);
+    }
+}
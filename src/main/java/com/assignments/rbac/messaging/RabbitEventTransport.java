@@ -0,0 +1,140 @@
+package com.assignments.rbac.messaging;
+
+import com.assignments.rbac.config.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes to RabbitMQ behind a circuit breaker, spooling events to disk while the broker is
+ * unavailable.
+ *
+ * Every publish is checked against the broker's publisher confirm: a write to the socket alone
+ * does not mean the broker has the message. A nack or a missing confirm within
+ * {@code confirmTimeoutMs} counts as a failed publish, so the event is spooled, and a replayed
+ * event stays in the spool until it is confirmed. An event whose confirm was merely late may
+ * therefore be delivered twice; it keeps its event id. {@link #send} does not wait for the
+ * confirm: it is handled by a callback, so a slow broker never holds up the request thread, and
+ * an event spooled that way may end up behind events published after it. A mandatory return (no queue bound for the routing key) is permanent:
+ * retrying cannot route the event, so it is logged and dropped rather than left at the head of
+ * the spool, and it does not count against the circuit breaker.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RabbitEventTransport implements EventTransport {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final BrokerCircuitBreaker circuitBreaker;
+    private final EventSpool eventSpool;
+    private final long confirmTimeoutMs;
+
+    @Override
+    public void send(String routingKey, Object event) throws IOException {
+        // While older events are still spooled, new ones queue behind them to keep ordering.
+        if (circuitBreaker.isClosed() && !eventSpool.hasPending()) {
+            CorrelationData correlation = new CorrelationData();
+            try {
+                rabbitTemplate.convertAndSend(RabbitMQConfig.USER_EVENTS_EXCHANGE, routingKey, event, correlation);
+                correlation.getFuture()
+                        .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                        .whenComplete((confirm, error) -> onConfirm(routingKey, event, correlation, confirm, error));
+                return;
+            } catch (AmqpException e) {
+                circuitBreaker.recordFailure();
+                log.warn("Broker publish failed for routing key {}, spooling event - Error: {}", routingKey, e.getMessage());
+            }
+        }
+        spool(routingKey, event);
+    }
+
+    /**
+     * Replays spooled events to the broker in order. Called by the spool replayer once the
+     * circuit breaker admits a publish attempt; a failure stops the replay and is rethrown.
+     * The spool only moves past an event once the broker has confirmed or returned it.
+     */
+    public int replaySpooledEvents(int maxEvents) throws Exception {
+        return eventSpool.drain(maxEvents, entry -> {
+            MessageProperties properties = new MessageProperties();
+            properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+            properties.setContentEncoding("UTF-8");
+            if (entry.typeId() != null) {
+                properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, entry.typeId());
+            }
+            CorrelationData correlation = new CorrelationData();
+            rabbitTemplate.send(RabbitMQConfig.USER_EVENTS_EXCHANGE, entry.routingKey(),
+                    new Message(entry.body(), properties), correlation);
+            if (!awaitConfirm(correlation, entry.routingKey())) {
+                log.error("Dropped unroutable spooled event with routing key {}: {}", entry.routingKey(),
+                        new String(entry.body(), StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    private void onConfirm(String routingKey, Object event, CorrelationData correlation,
+                           CorrelationData.Confirm confirm, Throwable error) {
+        if (error == null && confirm.isAck()) {
+            if (correlation.getReturned() != null) {
+                log.error("Dropped unroutable event with routing key {}: {} - Reply: {}", routingKey, event,
+                        correlation.getReturned().getReplyText());
+            }
+            circuitBreaker.recordSuccess();
+            return;
+        }
+        circuitBreaker.recordFailure();
+        String reason = error instanceof TimeoutException ? "no confirm within " + confirmTimeoutMs + " ms"
+                : error != null ? error.getMessage() : "nacked: " + confirm.getReason();
+        log.warn("Broker publish failed for routing key {}, spooling event - Error: {}", routingKey, reason);
+        try {
+            spool(routingKey, event);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to spool event with routing key {}, event lost: {} - Error: {}",
+                    routingKey, event, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Waits for the broker's confirm and returns whether the event was routed. Throws on a nack or
+     * a missing confirm, which are worth retrying; an unroutable return is not.
+     */
+    private boolean awaitConfirm(CorrelationData correlation, String routingKey) {
+        CorrelationData.Confirm confirm;
+        try {
+            confirm = correlation.getFuture().get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new AmqpException("No publisher confirm within " + confirmTimeoutMs + " ms", e);
+        } catch (ExecutionException e) {
+            throw new AmqpException("Publisher confirm failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted while waiting for a publisher confirm", e);
+        }
+        if (!confirm.isAck()) {
+            throw new AmqpException("Broker nacked event with routing key " + routingKey + ": " + confirm.getReason());
+        }
+        ReturnedMessage returned = correlation.getReturned();
+        if (returned != null) {
+            log.warn("Broker returned event with routing key {} as unroutable: {}", routingKey, returned.getReplyText());
+            return false;
+        }
+        return true;
+    }
+
+    private void spool(String routingKey, Object event) throws IOException {
+        Message message = rabbitTemplate.getMessageConverter().toMessage(event, new MessageProperties());
+        String typeId = message.getMessageProperties().getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        eventSpool.append(new EventSpool.Entry(routingKey, typeId, message.getBody()));
+        log.debug("Event spooled with routing key: {} ({} pending)", routingKey, eventSpool.pendingCount());
+    }
+}
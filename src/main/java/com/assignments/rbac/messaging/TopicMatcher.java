@@ -0,0 +1,33 @@
+package com.assignments.rbac.messaging;
+
+/**
+ * AMQP topic exchange matching: words are separated by dots, {@code *} matches exactly one
+ * word and {@code #} matches zero or more words.
+ */
+public final class TopicMatcher {
+
+    private TopicMatcher() {
+    }
+
+    public static boolean matches(String pattern, String routingKey) {
+        return matches(pattern.split("\\.", -1), 0, routingKey.split("\\.", -1), 0);
+    }
+
+    private static boolean matches(String[] pattern, int p, String[] key, int k) {
+        if (p == pattern.length) {
+            return k == key.length;
+        }
+        if ("#".equals(pattern[p])) {
+            for (int skip = k; skip <= key.length; skip++) {
+                if (matches(pattern, p + 1, key, skip)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (k == key.length) {
+            return false;
+        }
+        return ("*".equals(pattern[p]) || pattern[p].equals(key[k])) && matches(pattern, p + 1, key, k + 1);
+    }
+}
@@ -0,0 +1,54 @@
+package com.assignments.rbac.repository;
+
+import com.assignments.rbac.dto.RoleAssignmentChange;
+import com.assignments.rbac.dto.UserChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset reads of the change feed. Both queries walk a {@code (timestamp, id)} index from the
+ * consumer's position; soft-deleted users are included so consumers see the deletion.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChangeFeedDao {
+
+    private static final String USER_CHANGES_SQL = "SELECT id, username, email, name, is_deleted, last_updated_at "
+            + "FROM users WHERE last_updated_at < ? AND (last_updated_at, id) > (?, ?) "
+            + "ORDER BY last_updated_at, id LIMIT ?";
+
+    private static final String ROLE_CHANGES_SQL = "SELECT id, user_id, role_id, role_name, change_type, changed_at, changed_by "
+            + "FROM user_role_changes WHERE changed_at < ? AND (changed_at, id) > (?, ?) "
+            + "ORDER BY changed_at, id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<UserChange> findUserChanges(LocalDateTime afterUpdatedAt, long afterId, LocalDateTime until, int limit) {
+        return jdbcTemplate.query(USER_CHANGES_SQL, (rs, rowNum) -> new UserChange(
+                        rs.getLong("id"),
+                        rs.getString("username"),
+                        rs.getString("email"),
+                        rs.getString("name"),
+                        rs.getBoolean("is_deleted"),
+                        rs.getTimestamp("last_updated_at").toLocalDateTime()),
+                Timestamp.valueOf(until), Timestamp.valueOf(afterUpdatedAt), afterId, limit);
+    }
+
+    public List<RoleAssignmentChange> findRoleChanges(LocalDateTime afterChangedAt, long afterId, LocalDateTime until,
+                                                      int limit) {
+        return jdbcTemplate.query(ROLE_CHANGES_SQL, (rs, rowNum) -> new RoleAssignmentChange(
+                        rs.getLong("id"),
+                        rs.getLong("user_id"),
+                        rs.getLong("role_id"),
+                        rs.getString("role_name"),
+                        rs.getString("change_type"),
+                        rs.getTimestamp("changed_at").toLocalDateTime(),
+                        rs.getString("changed_by")),
+                Timestamp.valueOf(until), Timestamp.valueOf(afterChangedAt), afterId, limit);
+    }
+}
@@ -0,0 +1,9 @@
+package com.assignments.rbac.repository;
+
+public interface MinuteCountView {
+
+    /** Minute formatted as {@code yyyy-MM-dd HH:mm}. */
+    String getBucket();
+
+    Long getTotal();
+}
@@ -0,0 +1,60 @@
+package com.assignments.rbac.repository;
+
+import com.assignments.rbac.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Streams the most recently active users, newest login first, through a forward-only MySQL
+ * result set. The order walks {@code idx_users_is_deleted_last_login_at} backwards, so the
+ * query reads only the rows it returns. Users are handed out as detached entities carrying the
+ * profile columns only; the password and roles are not read.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RecentUsersDao {
+
+    private static final String RECENT_USERS_SQL = "SELECT id, name, username, email, created_by, created_at, "
+            + "last_updated_by, last_updated_at, last_login_at FROM users "
+            + "WHERE is_deleted = 0 AND last_login_at IS NOT NULL ORDER BY last_login_at DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void streamRecentlyActiveUsers(int limit, Consumer<User> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(RECENT_USERS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setInt(1, limit);
+            return statement;
+        }, rs -> {
+            consumer.accept(toUser(rs));
+        });
+    }
+
+    private static User toUser(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setId(rs.getLong("id"));
+        user.setName(rs.getString("name"));
+        user.setUsername(rs.getString("username"));
+        user.setEmail(rs.getString("email"));
+        user.setCreatedBy(rs.getString("created_by"));
+        user.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        user.setLastUpdatedBy(rs.getString("last_updated_by"));
+        user.setLastUpdatedAt(toLocalDateTime(rs.getTimestamp("last_updated_at")));
+        user.setLastLoginAt(toLocalDateTime(rs.getTimestamp("last_login_at")));
+        return user;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -21,5 +22,16 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     
     @Query(value = "SELECT r.* FROM roles r INNER JOIN user_roles ur ON r.id = ur.role_id WHERE ur.user_id = :userId AND r.is_deleted = 0", nativeQuery = true)
     List<Role> findRolesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT u.id AS userId, r.id AS id, r.name AS name, r.description AS description, " +
+           "r.createdBy AS createdBy, r.createdAt AS createdAt, r.lastUpdatedBy AS lastUpdatedBy, " +
+           "r.lastUpdatedAt AS lastUpdatedAt FROM User u JOIN u.roles r WHERE u.id IN :userIds AND r.isDeleted = false")
+    List<UserRoleView> findRolesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query(value = "SELECT r.name AS roleName, COUNT(u.id) AS userCount FROM roles r " +
+                   "LEFT JOIN user_roles ur ON ur.role_id = r.id " +
+                   "LEFT JOIN users u ON u.id = ur.user_id AND u.is_deleted = 0 " +
+                   "WHERE r.is_deleted = 0 GROUP BY r.id, r.name", nativeQuery = true)
+    List<RoleUserCountView> countUsersPerRole();
 }
 
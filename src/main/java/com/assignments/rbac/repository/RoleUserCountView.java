@@ -0,0 +1,8 @@
+package com.assignments.rbac.repository;
+
+public interface RoleUserCountView {
+
+    String getRoleName();
+
+    Long getUserCount();
+}
@@ -0,0 +1,82 @@
+package com.assignments.rbac.repository;
+
+import com.assignments.rbac.dto.UserExportRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+/**
+ * Reads every active user with their role names through a forward-only MySQL streaming result
+ * set (fetch size {@link Integer#MIN_VALUE}), so rows are handed to the consumer as they arrive
+ * from the server and memory use does not depend on the table size. The join is ordered by user
+ * id only, letting MySQL walk the primary key instead of sorting; the few roles of each user are
+ * sorted in memory before the user is emitted.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserExportDao {
+
+    private static final String EXPORT_SQL = "SELECT u.id, u.name, u.username, u.email, u.created_at, u.created_by, "
+            + "u.last_login_at, r.name AS role_name FROM users u "
+            + "LEFT JOIN user_roles ur ON ur.user_id = u.id "
+            + "LEFT JOIN roles r ON r.id = ur.role_id AND r.is_deleted = 0 "
+            + "WHERE u.is_deleted = 0 ORDER BY u.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void streamUsersWithRoles(Consumer<UserExportRow> consumer) {
+        UserAssembler assembler = new UserAssembler(consumer);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, assembler::accept);
+        assembler.finish();
+    }
+
+    /** Folds consecutive join rows of one user into a single export row. */
+    private static final class UserAssembler {
+        private final Consumer<UserExportRow> consumer;
+        private UserExportRow current;
+
+        private UserAssembler(Consumer<UserExportRow> consumer) {
+            this.consumer = consumer;
+        }
+
+        private void accept(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                finish();
+                current = new UserExportRow(id, rs.getString("name"), rs.getString("username"),
+                        rs.getString("email"), new ArrayList<>(2), toLocalDateTime(rs.getTimestamp("created_at")),
+                        rs.getString("created_by"), toLocalDateTime(rs.getTimestamp("last_login_at")));
+            }
+            String role = rs.getString("role_name");
+            if (role != null) {
+                current.getRoles().add(role);
+            }
+        }
+
+        private void finish() {
+            if (current != null) {
+                Collections.sort(current.getRoles());
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.assignments.rbac.repository;
+
+import com.assignments.rbac.entity.UserLoginHistory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes login history rows with multi-row {@code INSERT IGNORE} statements, one round trip
+ * per chunk instead of one per row. Rows whose event id is already stored are skipped, so a
+ * redelivered batch is harmless.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserLoginHistoryBatchWriter {
+
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT_PREFIX = "INSERT IGNORE INTO user_login_history "
+            + "(id, event_id, user_id, email, login_at, ip_address, user_agent, successful, failure_reason) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS = 9;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insertAll(List<UserLoginHistory> rows) {
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<UserLoginHistory> chunk = rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT));
+            inserted += jdbcTemplate.update(insertSql(chunk.size()), bindValues(chunk));
+        }
+        return inserted;
+    }
+
+    private static String insertSql(int rowCount) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rowCount * (ROW_PLACEHOLDER.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+        }
+        return sql.toString();
+    }
+
+    private static Object[] bindValues(List<UserLoginHistory> chunk) {
+        List<Object> values = new ArrayList<>(chunk.size() * COLUMNS);
+        for (UserLoginHistory row : chunk) {
+            values.add(row.getId());
+            values.add(row.getEventId());
+            values.add(row.getUserId());
+            values.add(row.getEmail());
+            values.add(Timestamp.valueOf(row.getLoginAt()));
+            values.add(row.getIpAddress());
+            values.add(row.getUserAgent());
+            values.add(row.isSuccessful());
+            values.add(row.getFailureReason());
+        }
+        return values.toArray();
+    }
+}
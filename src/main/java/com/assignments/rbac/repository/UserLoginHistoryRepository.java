@@ -0,0 +1,24 @@
+package com.assignments.rbac.repository;
+
+import com.assignments.rbac.entity.UserLoginHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserLoginHistoryRepository extends JpaRepository<UserLoginHistory, Long> {
+
+    Page<UserLoginHistory> findByUserIdOrderByLoginAtDescIdDesc(Long userId, Pageable pageable);
+
+    @Query(value = "SELECT DATE_FORMAT(h.login_at, '%Y-%m-%d %H:%i') AS bucket, COUNT(*) AS total " +
+                   "FROM user_login_history h WHERE h.login_at >= :since AND h.successful = 1 GROUP BY bucket", nativeQuery = true)
+    List<MinuteCountView> countSuccessfulLoginsPerMinuteSince(@Param("since") LocalDateTime since);
+
+    long countBySuccessfulTrueAndLoginAtGreaterThanEqual(LocalDateTime since);
+}
@@ -0,0 +1,45 @@
+package com.assignments.rbac.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Streams login history rows in a time range through a forward-only MySQL result set, so a
+ * large range is never materialised in memory. The range is served by the
+ * {@code (login_at, successful)} index.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserLoginHistoryScanDao {
+
+    private static final String SCAN_SQL = "SELECT user_id, login_at, successful FROM user_login_history "
+            + "WHERE login_at >= ? AND login_at < ?";
+
+    @FunctionalInterface
+    public interface LoginVisitor {
+        void visit(Long userId, LocalDateTime loginAt, boolean successful);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void streamLogins(LocalDateTime from, LocalDateTime until, LoginVisitor visitor) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SCAN_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(until));
+            return statement;
+        }, rs -> {
+            long userId = rs.getLong("user_id");
+            visitor.visit(rs.wasNull() ? null : userId, rs.getTimestamp("login_at").toLocalDateTime(),
+                    rs.getBoolean("successful"));
+        });
+    }
+}
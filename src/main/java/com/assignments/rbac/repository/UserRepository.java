@@ -1,6 +1,7 @@
 package com.assignments.rbac.repository;
 
 import com.assignments.rbac.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +9,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,15 +24,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles r WHERE u.email = :email AND u.isDeleted = false AND (r.isDeleted = false OR r.isDeleted IS NULL)")
     Optional<User> findByEmailWithRoles(@Param("email") String email);
 
+    List<User> findByEmailIn(Collection<String> emails);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
 
-    @Query("SELECT u FROM User u WHERE u.lastLoginAt IS NOT NULL ORDER BY u.lastLoginAt DESC LIMIT 10")
-    List<User> findUsersWithRecentLogins();
+    @Query("SELECT u FROM User u ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findFirstUsersPage(Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findUsersPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(value = "SELECT COUNT(*) AS totalUsers, " +
+                   "COALESCE(SUM(CASE WHEN u.last_login_at >= :activeSince THEN 1 ELSE 0 END), 0) AS activeUsers, " +
+                   "COALESCE(SUM(CASE WHEN u.last_login_at IS NULL THEN 1 ELSE 0 END), 0) AS neverLoggedIn " +
+                   "FROM users u WHERE u.is_deleted = 0", nativeQuery = true)
+    UserStatsView aggregateUserStats(@Param("activeSince") LocalDateTime activeSince);
 
-    @Query("SELECT u FROM User u ORDER BY u.createdAt DESC")
-    List<User> findAllUsersOrderByCreated();
+    @Query(value = "SELECT DATE_FORMAT(u.last_login_at, '%Y-%m-%d %H:%i') AS bucket, COUNT(*) AS total " +
+                   "FROM users u WHERE u.is_deleted = 0 AND u.last_login_at >= :since GROUP BY bucket", nativeQuery = true)
+    List<MinuteCountView> countLastLoginsPerMinuteSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Sets {@code last_login_at} only if it still holds {@code previousLoginAt} ({@code <=>} also
+     * matches NULL), so of two concurrent logins exactly one moves the user's last login.
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET last_login_at = :loginAt " +
+                   "WHERE id = :userId AND last_login_at <=> :previousLoginAt", nativeQuery = true)
+    int updateLastLoginAtIfUnchanged(@Param("userId") Long userId,
+                                     @Param("previousLoginAt") LocalDateTime previousLoginAt,
+                                     @Param("loginAt") LocalDateTime loginAt);
 
     @Modifying
     @Transactional
@@ -0,0 +1,9 @@
+package com.assignments.rbac.repository;
+
+import com.assignments.rbac.entity.UserRoleChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserRoleChangeRepository extends JpaRepository<UserRoleChange, Long> {
+}
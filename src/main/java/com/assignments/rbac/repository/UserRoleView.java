@@ -0,0 +1,25 @@
+package com.assignments.rbac.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A role together with the id of a user holding it, for loading the roles of many users in one query.
+ */
+public interface UserRoleView {
+
+    Long getUserId();
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    String getCreatedBy();
+
+    LocalDateTime getCreatedAt();
+
+    String getLastUpdatedBy();
+
+    LocalDateTime getLastUpdatedAt();
+}
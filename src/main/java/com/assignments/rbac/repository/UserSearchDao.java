@@ -0,0 +1,36 @@
+package com.assignments.rbac.repository;
+
+import com.assignments.rbac.dto.UserSearchResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Consumer;
+
+/**
+ * Streams the searchable columns of every active user through a forward-only MySQL result set,
+ * so building the search index does not load the table into memory.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserSearchDao {
+
+    private static final String SEARCHABLE_USERS_SQL = "SELECT id, username, email, name FROM users "
+            + "WHERE is_deleted = 0 ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void streamSearchableUsers(Consumer<UserSearchResult> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SEARCHABLE_USERS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, rs -> {
+            consumer.accept(new UserSearchResult(rs.getLong("id"), rs.getString("username"),
+                    rs.getString("email"), rs.getString("name")));
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package com.assignments.rbac.repository;
+
+public interface UserStatsView {
+
+    Long getTotalUsers();
+
+    Long getActiveUsers();
+
+    Long getNeverLoggedIn();
+}
@@ -1,5 +1,6 @@
 package com.assignments.rbac.security;
 
+import com.assignments.rbac.service.HotKeyTracker;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +24,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
@@ -33,11 +37,15 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
             return;
         }
-        
+        // The socket address, not X-Forwarded-For: clients could rotate that header to hide from the
+        // tracker. Behind a proxy, server.forward-headers-strategy resolves it from trusted hops only.
+        hotKeyTracker.recordClientIp(request.getRemoteAddr());
+
         try {
             String jwt = parseJwt(request);
             if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
                 String username = jwtUtils.getUserNameFromJwtToken(jwt);
+                hotKeyTracker.recordSubject(username);
                 List<String> roles = jwtUtils.getRolesFromJwtToken(jwt);
 
                 List<SimpleGrantedAuthority> authorities = roles.stream()
@@ -1,20 +1,36 @@
 package com.assignments.rbac.service;
 
 import com.assignments.rbac.dto.AdminStatsResponse;
+import com.assignments.rbac.dto.AdminUserSummary;
+import com.assignments.rbac.dto.CursorPageResponse;
+import com.assignments.rbac.dto.LoginAnalyticsResponse;
+import com.assignments.rbac.dto.LoginRatePoint;
+import com.assignments.rbac.dto.RoleResponse;
+import com.assignments.rbac.dto.UserSearchResponse;
+import com.assignments.rbac.dto.UserSearchResult;
 import com.assignments.rbac.entity.User;
-import com.assignments.rbac.mapper.RoleMapper;
 import com.assignments.rbac.repository.RoleRepository;
+import com.assignments.rbac.repository.RoleUserCountView;
+import com.assignments.rbac.repository.UserLoginHistoryRepository;
 import com.assignments.rbac.repository.UserRepository;
+import com.assignments.rbac.repository.UserStatsView;
+import com.assignments.rbac.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -22,59 +38,175 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class AdminService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    static final Duration ACTIVE_WINDOW = Duration.ofHours(24);
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final RoleMapper roleMapper;
+    private final UserRoleCache userRoleCache;
+    private final UserLoginHistoryRepository loginHistoryRepository;
+    private final StatsCounters statsCounters;
+    private final LoginAnalytics loginAnalytics;
+    private final StatsSectionExecutor statsSections;
+    private final UserSearchIndex userSearchIndex;
+
+    @Value("${app.stats.source:counters}")
+    private String statsSource;
 
+    // Sections run on the stats pool, each in its own transaction; holding one here would pin an idle connection.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AdminStatsResponse getAdminStats() {
+        if (!"database".equalsIgnoreCase(statsSource) && statsCounters.isInitialized()) {
+            return getAdminStatsFromCounters();
+        }
+        return getAdminStatsFromDatabase();
+    }
+
+    AdminStatsResponse getAdminStatsFromCounters() {
+        LocalDateTime now = LocalDateTime.now();
+        StatsCounters.Snapshot snapshot = statsCounters.snapshot(now);
+        log.debug("Admin stats served from counters: {} total users", snapshot.totalUsers());
+
+        return new AdminStatsResponse(
+                snapshot.totalUsers(),
+                snapshot.totalRoles(),
+                snapshot.activeUsers(),
+                snapshot.neverLoggedIn(),
+                snapshot.usersByRole(),
+                snapshot.loginsLast24h(),
+                now,
+                false,
+                List.of()
+        );
+    }
+
+    AdminStatsResponse getAdminStatsFromDatabase() {
         log.info("Generating admin statistics");
         
-        long totalUsers = userRepository.count();
-        long totalRoles = roleRepository.count();
-        
-        List<AdminStatsResponse.UserDetailInfo> users = getAllUsersWithDetails();
-        
-        long activeUsers = users.stream()
-                .filter(user -> user.getLastLoginAt() != null)
-                .count();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime activeSince = now.minus(ACTIVE_WINDOW);
+        CompletableFuture<UserStatsView> userStatsSection =
+                statsSections.submit("users", () -> userRepository.aggregateUserStats(activeSince));
+        CompletableFuture<List<RoleUserCountView>> rolesSection =
+                statsSections.submit("roles", roleRepository::countUsersPerRole);
+        CompletableFuture<Long> loginsSection = statsSections.submit("logins",
+                () -> loginHistoryRepository.countBySuccessfulTrueAndLoginAtGreaterThanEqual(activeSince));
+
+        List<String> missingSections = new ArrayList<>();
+        UserStatsView userStats = statsSections.join("users", userStatsSection, missingSections);
+        List<RoleUserCountView> roleCounts = statsSections.join("roles", rolesSection, missingSections);
+        Long loginsLast24h = statsSections.join("logins", loginsSection, missingSections);
+
+        Map<String, Long> usersByRole = null;
+        if (roleCounts != null) {
+            usersByRole = new TreeMap<>();
+            for (RoleUserCountView roleCount : roleCounts) {
+                usersByRole.put(roleCount.getRoleName(), roleCount.getUserCount());
+            }
+        }
 
         AdminStatsResponse stats = new AdminStatsResponse(
-                totalUsers,
-                totalRoles,
-                activeUsers,
-                users,
-                LocalDateTime.now()
+                userStats != null ? userStats.getTotalUsers() : null,
+                usersByRole != null ? (long) usersByRole.size() : null,
+                userStats != null ? userStats.getActiveUsers() : null,
+                userStats != null ? userStats.getNeverLoggedIn() : null,
+                usersByRole,
+                loginsLast24h,
+                now,
+                !missingSections.isEmpty(),
+                missingSections
         );
 
-        log.info("Admin stats generated: {} total users, {} total roles, {} active users", 
-                totalUsers, totalRoles, activeUsers);
+        log.info("Admin stats generated: {} total users, {} total roles, {} active users (missing sections: {})",
+                stats.getTotalUsers(), stats.getTotalRoles(), stats.getActiveUsers(), missingSections);
         
         return stats;
     }
 
-    private List<AdminStatsResponse.UserDetailInfo> getAllUsersWithDetails() {
-        List<User> allUsers = userRepository.findAllUsersOrderByCreated();
-        
-        return allUsers.stream()
-                .map(this::mapUserToDetailInfo)
-                .collect(Collectors.toList());
+    public LoginAnalyticsResponse getLoginAnalytics(int minutes) {
+        if (minutes < 1 || minutes > LoginAnalytics.MINUTE_SLOTS) {
+            throw new IllegalArgumentException("minutes must be between 1 and " + LoginAnalytics.MINUTE_SLOTS);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LoginAnalytics.Snapshot snapshot = loginAnalytics.snapshot(now, minutes);
+        List<LoginRatePoint> series = snapshot.series().stream()
+                .map(point -> new LoginRatePoint(point.minute(), point.successful(), point.failed()))
+                .toList();
+
+        return new LoginAnalyticsResponse(
+                snapshot.dailyActiveUsers(),
+                snapshot.weeklyActiveUsers(),
+                snapshot.monthlyActiveUsers(),
+                snapshot.successfulLast24h(),
+                snapshot.failedLast24h(),
+                series,
+                now
+        );
     }
 
-    private AdminStatsResponse.UserDetailInfo mapUserToDetailInfo(User user) {
-        Set<com.assignments.rbac.entity.Role> userRoles = new HashSet<>(roleRepository.findRolesByUserId(user.getId()));
-        
-        String loginStatus = determineLoginStatus(user.getLastLoginAt());
-        
-        return new AdminStatsResponse.UserDetailInfo(
+    public CursorPageResponse<AdminUserSummary> listUsers(String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // One extra row tells us whether another page exists without a count query.
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<User> users;
+        if (cursor == null || cursor.isBlank()) {
+            users = userRepository.findFirstUsersPage(limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            users = userRepository.findUsersPageAfter(position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasMore = users.size() > size;
+        List<User> page = hasMore ? users.subList(0, size) : users;
+        Map<Long, Set<RoleResponse>> rolesByUser = loadRoles(page);
+
+        List<AdminUserSummary> content = page.stream()
+                .map(user -> mapUserToSummary(user, rolesByUser.getOrDefault(user.getId(), Set.of())))
+                .toList();
+        String nextCursor = null;
+        if (hasMore) {
+            User last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        log.debug("Listed {} users (hasMore: {})", content.size(), hasMore);
+        return new CursorPageResponse<>(content, content.size(), hasMore, nextCursor);
+    }
+
+    public UserSearchResponse searchUsers(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q must not be blank");
+        }
+        if (limit < 1 || limit > UserSearchIndex.MAX_RESULTS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + UserSearchIndex.MAX_RESULTS);
+        }
+
+        boolean complete = userSearchIndex.isReady();
+        List<UserSearchResult> results = userSearchIndex.search(query, limit);
+        log.debug("User search for '{}' returned {} results (index complete: {})", query, results.size(), complete);
+        return new UserSearchResponse(query, results, complete);
+    }
+
+    private Map<Long, Set<RoleResponse>> loadRoles(List<User> users) {
+        if (users.isEmpty()) {
+            return Map.of();
+        }
+        return userRoleCache.getRoles(users.stream().map(User::getId).toList());
+    }
+
+    private AdminUserSummary mapUserToSummary(User user, Set<RoleResponse> roles) {
+        return new AdminUserSummary(
                 user.getId(),
                 user.getName(),
                 user.getUsername(),
                 user.getEmail(),
-                userRoles.stream()
-                        .map(roleMapper::toResponse)
-                        .collect(Collectors.toSet()),
+                roles,
                 user.getLastLoginAt(),
-                loginStatus,
+                determineLoginStatus(user.getLastLoginAt()),
                 user.getCreatedAt(),
                 user.getCreatedBy()
         );
@@ -85,13 +217,10 @@ public class AdminService {
             return "Never logged in";
         }
         
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime twentyFourHoursAgo = now.minusHours(24);
-        
-        if (lastLoginAt.isAfter(twentyFourHoursAgo)) {
+        if (!lastLoginAt.isBefore(LocalDateTime.now().minus(ACTIVE_WINDOW))) {
             return "Active";
         } else {
             return "Inactive";
         }
     }
-}
\ No newline at end of file
+}
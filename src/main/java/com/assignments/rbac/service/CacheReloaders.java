@@ -0,0 +1,22 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.cache.InvalidatingCaffeineCacheManager;
+import com.assignments.rbac.config.CacheConfig;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers how the refresh-ahead caches reload a key in the background. The reloaders call the
+ * services through their Spring proxies, so a reload runs in its own read-only transaction and
+ * does not depend on the security context of the request that triggered it.
+ */
+@Component
+public class CacheReloaders {
+
+    public CacheReloaders(CacheManager cacheManager, UserService userService, UserRoleCache userRoleCache) {
+        if (cacheManager instanceof InvalidatingCaffeineCacheManager manager) {
+            manager.setReloader(CacheConfig.USER_CACHE, email -> userService.loadCurrentUser((String) email));
+            manager.setReloader(CacheConfig.USER_ROLES_CACHE, userId -> userRoleCache.loadRoleIds((Long) userId));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.config.CacheConfig;
+import com.assignments.rbac.dto.RoleResponse;
+import com.assignments.rbac.entity.User;
+import com.assignments.rbac.mapper.UserMapper;
+import com.assignments.rbac.repository.RecentUsersDao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills {@code userCache}, {@code userRolesCache} and {@code rolesCache} with the most recently
+ * active users when the node starts, so a deploy does not send every first request to MySQL.
+ *
+ * The users are streamed newest login first and cut into batches; each batch resolves the roles
+ * of all its users with one query and is cached on one of {@code parallelism} workers while the
+ * stream carries on. The warm-up runs in the {@link ApplicationReadyEvent} listener, before the
+ * node reports itself ready to take traffic, and gives up after {@code timeoutMs}, keeping
+ * whatever was cached by then. Entries that live traffic or another node already cached or
+ * invalidated are left alone. The duration is recorded as {@code cache.warmup} and the number of
+ * users cached by the last run as {@code cache.warmup.users}.
+ */
+@Slf4j
+@Component
+public class CacheWarmUp {
+
+    private final RecentUsersDao recentUsersDao;
+    private final UserRoleCache userRoleCache;
+    private final UserMapper userMapper;
+    private final Cache userCache;
+    private final boolean enabled;
+    private final int maxUsers;
+    private final int batchSize;
+    private final int parallelism;
+    private final long timeoutMs;
+    private final Timer duration;
+    private final AtomicInteger lastWarmedUsers = new AtomicInteger();
+
+    public CacheWarmUp(RecentUsersDao recentUsersDao, UserRoleCache userRoleCache, UserMapper userMapper,
+                       CacheManager cacheManager,
+                       @Value("${app.cache.warm-up.enabled:true}") boolean enabled,
+                       @Value("${app.cache.warm-up.users:1000}") int maxUsers,
+                       @Value("${app.cache.warm-up.batch-size:200}") int batchSize,
+                       @Value("${app.cache.warm-up.parallelism:4}") int parallelism,
+                       @Value("${app.cache.warm-up.timeout-ms:30000}") long timeoutMs,
+                       ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.recentUsersDao = recentUsersDao;
+        this.userRoleCache = userRoleCache;
+        this.userMapper = userMapper;
+        this.userCache = cacheManager.getCache(CacheConfig.USER_CACHE);
+        this.enabled = enabled;
+        this.maxUsers = maxUsers;
+        this.batchSize = Math.max(1, batchSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.timeoutMs = timeoutMs;
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(SimpleMeterRegistry::new);
+        this.duration = Timer.builder("cache.warmup")
+                .description("Time spent filling the caches with recently active users at startup")
+                .register(meterRegistry);
+        meterRegistry.gauge("cache.warmup.users", lastWarmedUsers);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (!enabled || maxUsers <= 0) {
+            return;
+        }
+        try {
+            warmUp();
+        } catch (RuntimeException e) {
+            // A cold cache only costs latency; it must not keep the node from starting.
+            log.warn("Cache warm-up failed; starting with cold caches - Error: {}", e.getMessage());
+        }
+    }
+
+    /** Caches up to {@code maxUsers} recently active users and returns how many were cached. */
+    public int warmUp() {
+        long start = System.nanoTime();
+        AtomicInteger warmed = new AtomicInteger();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "cache-warm-up-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<?>> batches = new ArrayList<>();
+        try {
+            List<User> batch = new ArrayList<>(batchSize);
+            recentUsersDao.streamRecentlyActiveUsers(maxUsers, user -> {
+                batch.add(user);
+                if (batch.size() == batchSize) {
+                    List<User> users = List.copyOf(batch);
+                    batches.add(workers.submit(() -> warmBatch(users, warmed)));
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                List<User> users = List.copyOf(batch);
+                batches.add(workers.submit(() -> warmBatch(users, warmed)));
+            }
+            awaitAll(batches, start + TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+        } finally {
+            workers.shutdownNow();
+            long elapsed = System.nanoTime() - start;
+            duration.record(elapsed, TimeUnit.NANOSECONDS);
+            lastWarmedUsers.set(warmed.get());
+            log.info("Cache warm-up cached {} recently active users in {} ms", warmed.get(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        return warmed.get();
+    }
+
+    private void warmBatch(List<User> users, AtomicInteger warmed) {
+        Map<Long, Set<RoleResponse>> rolesByUser = userRoleCache.getRoles(users.stream().map(User::getId).toList());
+        for (User user : users) {
+            // The lookup also lets the cache drop the put if the user is invalidated meanwhile.
+            if (userCache.get(user.getEmail()) != null) {
+                continue;
+            }
+            List<RoleResponse> roles = List.copyOf(rolesByUser.getOrDefault(user.getId(), Set.of()));
+            userCache.put(user.getEmail(), userMapper.toCurrentUserResponse(user, roles));
+            warmed.incrementAndGet();
+        }
+    }
+
+    private void awaitAll(List<Future<?>> batches, long deadline) {
+        for (Future<?> batch : batches) {
+            try {
+                batch.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Cache warm-up did not finish within {} ms; continuing with what was cached", timeoutMs);
+                return;
+            } catch (ExecutionException e) {
+                log.warn("Cache warm-up batch failed - Error: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
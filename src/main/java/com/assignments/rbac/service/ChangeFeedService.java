@@ -0,0 +1,72 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.dto.ChangeFeedResponse;
+import com.assignments.rbac.dto.RoleAssignmentChange;
+import com.assignments.rbac.dto.UserChange;
+import com.assignments.rbac.repository.ChangeFeedDao;
+import com.assignments.rbac.util.ChangeFeedCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Incremental sync of users and role assignments.
+ *
+ * Changes are returned in {@code (timestamp, id)} order after the consumer's cursor, with the
+ * users and the role assignment log paged independently. Only changes older than the settle
+ * window are served: a transaction stamps its rows before it commits, so a row can become
+ * visible after later-stamped rows were already handed out. Holding back the most recent
+ * seconds keeps such rows from being skipped.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ChangeFeedService {
+
+    static final int MAX_LIMIT = 500;
+
+    private final ChangeFeedDao changeFeedDao;
+    private final long settleMs;
+
+    public ChangeFeedService(ChangeFeedDao changeFeedDao, @Value("${app.changes.settle-ms:5000}") long settleMs) {
+        this.changeFeedDao = changeFeedDao;
+        this.settleMs = settleMs;
+    }
+
+    public ChangeFeedResponse getChanges(String since, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        ChangeFeedCursor cursor = since == null || since.isBlank() ? ChangeFeedCursor.START : ChangeFeedCursor.decode(since);
+        LocalDateTime until = LocalDateTime.now().minusNanos(settleMs * 1_000_000);
+
+        // One extra row per stream tells us whether another page exists.
+        List<UserChange> users = changeFeedDao.findUserChanges(cursor.usersUpdatedAt(), cursor.userId(), until, limit + 1);
+        List<RoleAssignmentChange> roles = changeFeedDao.findRoleChanges(cursor.rolesChangedAt(), cursor.roleChangeId(),
+                until, limit + 1);
+        boolean hasMore = users.size() > limit || roles.size() > limit;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+        }
+        if (roles.size() > limit) {
+            roles = roles.subList(0, limit);
+        }
+
+        ChangeFeedCursor next = cursor;
+        if (!users.isEmpty()) {
+            UserChange last = users.get(users.size() - 1);
+            next = new ChangeFeedCursor(last.getUpdatedAt(), last.getId(), next.rolesChangedAt(), next.roleChangeId());
+        }
+        if (!roles.isEmpty()) {
+            RoleAssignmentChange last = roles.get(roles.size() - 1);
+            next = new ChangeFeedCursor(next.usersUpdatedAt(), next.userId(), last.getChangedAt(), last.getChangeId());
+        }
+
+        log.debug("Change feed returned {} user and {} role changes (hasMore: {})", users.size(), roles.size(), hasMore);
+        return new ChangeFeedResponse(users, roles, hasMore, next.encode());
+    }
+}
@@ -3,66 +3,89 @@ package com.assignments.rbac.service;
 import com.assignments.rbac.config.RabbitMQConfig;
 import com.assignments.rbac.dto.events.UserLoginEvent;
 import com.assignments.rbac.dto.events.UserRegistrationEvent;
+import com.assignments.rbac.messaging.EventTransport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Hands user events to the transport once the caller's transaction has committed, so a slow
+ * broker never keeps a transaction, its connection or its row locks open. Events of a
+ * transaction that rolls back are dropped, except failed logins: the rollback is the failure
+ * they report.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EventPublisherService {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final EventTransport eventTransport;
 
     public void publishUserRegistrationEvent(UserRegistrationEvent event) {
+        afterTransaction(false, () -> sendRegistrationEvent(event));
+    }
+
+    public void publishUserLoginEvent(UserLoginEvent event) {
+        afterTransaction(!event.isLoginSuccessful(), () -> sendLoginEvent(event));
+    }
+
+    public void publishUserEvent(Object event, String routingKey) {
+        afterTransaction(false, () -> sendUserEvent(event, routingKey));
+    }
+
+    private void sendRegistrationEvent(UserRegistrationEvent event) {
         try {
             log.info("Publishing user registration event for user: {} (ID: {})", event.getEmail(), event.getUserId());
-            
-            rabbitTemplate.convertAndSend(
-                RabbitMQConfig.USER_EVENTS_EXCHANGE,
-                RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY,
-                event
-            );
-            
-            log.debug("User registration event published successfully: {}", event.getEventId());
-            
+
+            eventTransport.send(RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY, event);
+
+            log.debug("User registration event handed off: {}", event.getEventId());
+
         } catch (Exception e) {
-            log.error("Failed to publish user registration event for user: {} - Error: {}", 
+            log.error("Failed to publish user registration event for user: {} - Error: {}",
                      event.getEmail(), e.getMessage(), e);
         }
     }
 
-    public void publishUserLoginEvent(UserLoginEvent event) {
+    private void sendLoginEvent(UserLoginEvent event) {
         try {
-            log.info("Publishing user login event for user: {} (ID: {}) - Success: {}", 
+            log.info("Publishing user login event for user: {} (ID: {}) - Success: {}",
                     event.getEmail(), event.getUserId(), event.isLoginSuccessful());
-            
-            rabbitTemplate.convertAndSend(
-                RabbitMQConfig.USER_EVENTS_EXCHANGE,
-                RabbitMQConfig.USER_LOGIN_ROUTING_KEY,
-                event
-            );
-            
-            log.debug("User login event published successfully: {}", event.getEventId());
-            
+
+            eventTransport.send(RabbitMQConfig.USER_LOGIN_ROUTING_KEY, event);
+
+            log.debug("User login event handed off: {}", event.getEventId());
+
         } catch (Exception e) {
-            log.error("Failed to publish user login event for user: {} - Error: {}", 
+            log.error("Failed to publish user login event for user: {} - Error: {}",
                      event.getEmail(), e.getMessage(), e);
         }
     }
 
-    public void publishUserEvent(Object event, String routingKey) {
+    private void sendUserEvent(Object event, String routingKey) {
         try {
-            rabbitTemplate.convertAndSend(
-                RabbitMQConfig.USER_EVENTS_EXCHANGE,
-                routingKey,
-                event
-            );
-            log.debug("Generic user event published with routing key: {}", routingKey);
+            eventTransport.send(routingKey, event);
+            log.debug("Generic user event handed off with routing key: {}", routingKey);
         } catch (Exception e) {
-            log.error("Failed to publish generic user event with routing key: {} - Error: {}", 
+            log.error("Failed to publish generic user event with routing key: {} - Error: {}",
                      routingKey, e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    private static void afterTransaction(boolean evenOnRollback, Runnable publish) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED || evenOnRollback) {
+                    publish.run();
+                }
+            }
+        });
+    }
+}
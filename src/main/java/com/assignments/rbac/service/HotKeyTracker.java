@@ -0,0 +1,80 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.util.HeavyHitters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hottest token subjects, {@code /users/me} cache keys and client IPs, for sizing the caches and
+ * spotting abusive clients. Each is a {@link HeavyHitters} sketch updated on the request thread,
+ * so recording a key costs one sketch update in the common case. Counts are halved every
+ * {@code app.hot-keys.decay-interval-ms}; the top keys are served by {@link HotKeysEndpoint}.
+ */
+@Component
+public class HotKeyTracker {
+
+    public static final String SUBJECTS = "subjects";
+    public static final String CURRENT_USERS = "currentUsers";
+    public static final String CLIENT_IPS = "clientIps";
+
+    public record Report(long total, List<HeavyHitters.Entry> top) {
+    }
+
+    private final boolean enabled;
+    private final HeavyHitters subjects;
+    private final HeavyHitters currentUsers;
+    private final HeavyHitters clientIps;
+
+    public HotKeyTracker(@Value("${app.hot-keys.enabled:true}") boolean enabled,
+                         @Value("${app.hot-keys.top-k:20}") int topK,
+                         @Value("${app.hot-keys.sketch-depth:4}") int depth,
+                         @Value("${app.hot-keys.sketch-width:2048}") int width) {
+        this.enabled = enabled;
+        this.subjects = new HeavyHitters(topK, depth, width);
+        this.currentUsers = new HeavyHitters(topK, depth, width);
+        this.clientIps = new HeavyHitters(topK, depth, width);
+    }
+
+    public void recordSubject(String subject) {
+        if (enabled) {
+            subjects.add(subject);
+        }
+    }
+
+    public void recordCurrentUser(String email) {
+        if (enabled) {
+            currentUsers.add(email);
+        }
+    }
+
+    public void recordClientIp(String ip) {
+        if (enabled) {
+            clientIps.add(ip);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.hot-keys.decay-interval-ms:60000}",
+            initialDelayString = "${app.hot-keys.decay-interval-ms:60000}")
+    public void decay() {
+        subjects.decay();
+        currentUsers.decay();
+        clientIps.decay();
+    }
+
+    public Map<String, Report> snapshot() {
+        Map<String, Report> reports = new LinkedHashMap<>();
+        reports.put(SUBJECTS, report(subjects));
+        reports.put(CURRENT_USERS, report(currentUsers));
+        reports.put(CLIENT_IPS, report(clientIps));
+        return reports;
+    }
+
+    private static Report report(HeavyHitters hitters) {
+        return new Report(hitters.total(), hitters.top());
+    }
+}
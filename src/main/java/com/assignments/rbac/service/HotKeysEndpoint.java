@@ -0,0 +1,33 @@
+package com.assignments.rbac.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/hotkeys}: the most frequent token subjects, {@code /users/me} cache keys and
+ * client IPs with their decayed counts, as tracked by {@link HotKeyTracker}.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeysEndpoint {
+
+    private final HotKeyTracker hotKeyTracker;
+
+    @ReadOperation
+    public Map<String, HotKeyTracker.Report> hotKeys() {
+        return hotKeyTracker.snapshot();
+    }
+
+    @ReadOperation
+    @Nullable
+    public HotKeyTracker.Report category(@Selector String category) {
+        return hotKeyTracker.snapshot().get(category);
+    }
+}
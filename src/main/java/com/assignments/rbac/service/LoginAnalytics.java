@@ -0,0 +1,158 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.util.HyperLogLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory login analytics with a fixed memory footprint.
+ *
+ * Logins land in two ring buffers of buckets: one per minute covering the last 24 hours and one
+ * per day covering the last 30 days. Each bucket holds a {@link HyperLogLog} of the user ids that
+ * logged in plus success and failure counters. A slot is recycled by swapping in a fresh bucket
+ * once its minute or day has passed, so memory is bounded by the ring sizes and the sketch
+ * precision. DAU is the union of the minute sketches of the last 24 hours; WAU and MAU are the
+ * unions of the last 7 and 30 calendar days, including today.
+ */
+@Component
+public class LoginAnalytics {
+
+    static final int MINUTE_SLOTS = 24 * 60;
+    static final int DAY_SLOTS = 30;
+    static final int WEEK_DAYS = 7;
+
+    public record RatePoint(LocalDateTime minute, long successful, long failed) {
+    }
+
+    public record Snapshot(long dailyActiveUsers, long weeklyActiveUsers, long monthlyActiveUsers,
+                           long successfulLast24h, long failedLast24h, List<RatePoint> series) {
+    }
+
+    private final int precision;
+    private final AtomicReferenceArray<Bucket> minutes = new AtomicReferenceArray<>(MINUTE_SLOTS);
+    private final AtomicReferenceArray<Bucket> days = new AtomicReferenceArray<>(DAY_SLOTS);
+
+    public LoginAnalytics(@Value("${app.analytics.hll-precision:11}") int precision) {
+        if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("app.analytics.hll-precision must be between "
+                    + HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+    }
+
+    public void recordSuccess(long userId, LocalDateTime loginAt) {
+        long hash = HyperLogLog.mix64(userId);
+        Bucket minute = bucket(minutes, minuteOf(loginAt));
+        if (minute != null) {
+            minute.users.addHash(hash);
+            minute.successful.increment();
+        }
+        Bucket day = bucket(days, dayOf(loginAt));
+        if (day != null) {
+            day.users.addHash(hash);
+            day.successful.increment();
+        }
+    }
+
+    public void recordFailure(LocalDateTime attemptAt) {
+        Bucket minute = bucket(minutes, minuteOf(attemptAt));
+        if (minute != null) {
+            minute.failed.increment();
+        }
+        Bucket day = bucket(days, dayOf(attemptAt));
+        if (day != null) {
+            day.failed.increment();
+        }
+    }
+
+    /** Merges the buckets in the windows ending at {@code now}; {@code seriesMinutes} is capped at 24 hours. */
+    public Snapshot snapshot(LocalDateTime now, int seriesMinutes) {
+        long nowMinute = minuteOf(now);
+        long today = dayOf(now);
+
+        HyperLogLog daily = new HyperLogLog(precision);
+        long successful = 0;
+        long failed = 0;
+        for (long minute = nowMinute - MINUTE_SLOTS + 1; minute <= nowMinute; minute++) {
+            Bucket bucket = current(minutes, minute);
+            if (bucket != null) {
+                daily.merge(bucket.users);
+                successful += bucket.successful.sum();
+                failed += bucket.failed.sum();
+            }
+        }
+
+        HyperLogLog weekly = new HyperLogLog(precision);
+        HyperLogLog monthly = new HyperLogLog(precision);
+        for (long day = today - DAY_SLOTS + 1; day <= today; day++) {
+            Bucket bucket = current(days, day);
+            if (bucket != null) {
+                monthly.merge(bucket.users);
+                if (day > today - WEEK_DAYS) {
+                    weekly.merge(bucket.users);
+                }
+            }
+        }
+
+        int length = Math.max(0, Math.min(seriesMinutes, MINUTE_SLOTS));
+        List<RatePoint> series = new ArrayList<>(length);
+        for (long minute = nowMinute - length + 1; minute <= nowMinute; minute++) {
+            Bucket bucket = current(minutes, minute);
+            series.add(new RatePoint(LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC),
+                    bucket != null ? bucket.successful.sum() : 0,
+                    bucket != null ? bucket.failed.sum() : 0));
+        }
+
+        return new Snapshot(daily.estimate(), weekly.estimate(), monthly.estimate(), successful, failed, series);
+    }
+
+    private Bucket bucket(AtomicReferenceArray<Bucket> ring, long key) {
+        int index = (int) Math.floorMod(key, (long) ring.length());
+        while (true) {
+            Bucket existing = ring.get(index);
+            if (existing != null && existing.key == key) {
+                return existing;
+            }
+            if (existing != null && existing.key > key) {
+                // The slot already moved on to a newer period; this timestamp is outside the ring.
+                return null;
+            }
+            Bucket fresh = new Bucket(key, precision);
+            if (ring.compareAndSet(index, existing, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static Bucket current(AtomicReferenceArray<Bucket> ring, long key) {
+        Bucket bucket = ring.get((int) Math.floorMod(key, (long) ring.length()));
+        return bucket != null && bucket.key == key ? bucket : null;
+    }
+
+    private static long minuteOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static long dayOf(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay();
+    }
+
+    private static final class Bucket {
+        private final long key;
+        private final HyperLogLog users;
+        private final LongAdder successful = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        private Bucket(long key, int precision) {
+            this.key = key;
+            this.users = new HyperLogLog(precision);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.repository.UserLoginHistoryScanDao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds {@link LoginAnalytics} from the login history after a restart. Only rows from before
+ * this instance started are replayed; later logins are recorded live by {@link UserService}.
+ * The two windows do not overlap and {@link LoginAnalytics} takes concurrent updates, so the
+ * replay runs on a background thread and never holds back readiness.
+ */
+@Slf4j
+@Component
+public class LoginAnalyticsBackfill {
+
+    private final LoginAnalytics loginAnalytics;
+    private final UserLoginHistoryScanDao scanDao;
+    private final boolean enabled;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    public LoginAnalyticsBackfill(LoginAnalytics loginAnalytics, UserLoginHistoryScanDao scanDao,
+                                  @Value("${app.analytics.backfill-on-startup:true}") boolean enabled) {
+        this.loginAnalytics = loginAnalytics;
+        this.scanDao = scanDao;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread backfiller = new Thread(this::backfill, "login-analytics-backfill");
+        backfiller.setDaemon(true);
+        backfiller.start();
+    }
+
+    public void backfill() {
+        LocalDateTime from = startedAt.toLocalDate().minusDays(LoginAnalytics.DAY_SLOTS - 1).atStartOfDay();
+        AtomicLong replayed = new AtomicLong();
+        try {
+            scanDao.streamLogins(from, startedAt, (userId, loginAt, successful) -> {
+                if (successful && userId != null) {
+                    loginAnalytics.recordSuccess(userId, loginAt);
+                } else if (!successful) {
+                    loginAnalytics.recordFailure(loginAt);
+                }
+                replayed.incrementAndGet();
+            });
+            log.info("Login analytics rebuilt from {} login history rows since {}", replayed.get(), from);
+        } catch (Exception e) {
+            log.warn("Failed to rebuild login analytics from history after {} rows - Error: {}",
+                    replayed.get(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.dto.LoginHistoryResponse;
+import com.assignments.rbac.dto.PageResponse;
+import com.assignments.rbac.dto.events.UserLoginEvent;
+import com.assignments.rbac.entity.User;
+import com.assignments.rbac.entity.UserLoginHistory;
+import com.assignments.rbac.exception.UserNotFoundException;
+import com.assignments.rbac.mapper.LoginHistoryMapper;
+import com.assignments.rbac.repository.UserLoginHistoryBatchWriter;
+import com.assignments.rbac.repository.UserLoginHistoryRepository;
+import com.assignments.rbac.repository.UserRepository;
+import com.assignments.rbac.util.SnowflakeIdGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoginHistoryService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final UserLoginHistoryRepository loginHistoryRepository;
+    private final UserLoginHistoryBatchWriter loginHistoryBatchWriter;
+    private final UserRepository userRepository;
+    private final LoginHistoryMapper loginHistoryMapper;
+
+    @Transactional
+    public int recordLoginEvents(List<UserLoginEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // Failed attempts are published without a user id; attach them to the account they targeted.
+        Set<String> unresolvedEmails = events.stream()
+                .filter(event -> event.getUserId() == null && event.getEmail() != null)
+                .map(UserLoginEvent::getEmail)
+                .collect(Collectors.toSet());
+        Map<String, Long> userIdsByEmail = unresolvedEmails.isEmpty()
+                ? Map.of()
+                : userRepository.findByEmailIn(unresolvedEmails).stream()
+                        .collect(Collectors.toMap(User::getEmail, User::getId, (first, second) -> first));
+
+        SnowflakeIdGenerator idGenerator = SnowflakeIdGenerator.getDefault();
+        List<UserLoginHistory> rows = new ArrayList<>(events.size());
+        for (UserLoginEvent event : events) {
+            if (event.getEventId() == null) {
+                log.warn("Skipping login event without an event id for user: {}", event.getEmail());
+                continue;
+            }
+            Long userId = event.getUserId() != null ? event.getUserId() : userIdsByEmail.get(event.getEmail());
+            LocalDateTime loginAt = event.getLoginTimestamp() != null ? event.getLoginTimestamp() : event.getEventTimestamp();
+            rows.add(new UserLoginHistory(
+                    idGenerator.nextId(),
+                    event.getEventId(),
+                    userId,
+                    truncate(event.getEmail(), 100),
+                    loginAt != null ? loginAt : LocalDateTime.now(),
+                    truncate(event.getIpAddress(), 45),
+                    truncate(event.getUserAgent(), 255),
+                    event.isLoginSuccessful(),
+                    truncate(event.getFailureReason(), 255)
+            ));
+        }
+
+        int inserted = loginHistoryBatchWriter.insertAll(rows);
+        log.debug("Recorded {} of {} login events in login history", inserted, events.size());
+        return inserted;
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<LoginHistoryResponse> getLoginHistory(Long userId, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("User not found with id: " + userId);
+        }
+
+        return PageResponse.from(loginHistoryRepository
+                .findByUserIdOrderByLoginAtDescIdDesc(userId, PageRequest.of(page, size))
+                .map(loginHistoryMapper::toResponse));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -0,0 +1,48 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.repository.RoleRepository;
+import com.assignments.rbac.repository.UserRoleView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads role assignments with {@code WHERE user_id IN (...)} queries.
+ *
+ * Every query runs on the caller's own connection and transaction, and its rows only go back to
+ * that caller. Lookups of different callers are deliberately not coalesced: under REPEATABLE
+ * READ one transaction's snapshot can predate an assignment another already sees, and handing
+ * it the older rows would cache a stale role set for the whole TTL. Callers that hold a list of
+ * users batch them through {@link #loadAll}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoleBatchLoader {
+
+    private final RoleRepository roleRepository;
+
+    public List<UserRoleView> load(Long userId) {
+        return loadAll(Set.of(userId)).getOrDefault(userId, List.of());
+    }
+
+    public List<String> loadRoleNames(Long userId) {
+        return load(userId).stream().map(UserRoleView::getName).toList();
+    }
+
+    public Map<Long, List<UserRoleView>> loadAll(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<UserRoleView>> rolesByUser = new HashMap<>();
+        for (UserRoleView role : roleRepository.findRolesByUserIds(userIds)) {
+            rolesByUser.computeIfAbsent(role.getUserId(), id -> new ArrayList<>()).add(role);
+        }
+        return rolesByUser;
+    }
+}
@@ -6,12 +6,14 @@ import com.assignments.rbac.dto.RoleResponse;
 import com.assignments.rbac.dto.UserResponse;
 import com.assignments.rbac.entity.Role;
 import com.assignments.rbac.entity.User;
+import com.assignments.rbac.entity.UserRoleChange;
 import com.assignments.rbac.exception.UserAlreadyExistsException;
 import com.assignments.rbac.exception.UserNotFoundException;
 import com.assignments.rbac.mapper.RoleMapper;
 import com.assignments.rbac.mapper.UserMapper;
 import com.assignments.rbac.repository.RoleRepository;
 import com.assignments.rbac.repository.UserRepository;
+import com.assignments.rbac.repository.UserRoleChangeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,16 +21,23 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class RoleService {
 
+    /** Roles that authorization rules refer to by name; renaming them would lock their holders out. */
+    static final Set<String> PROTECTED_ROLE_NAMES = Set.of("ADMIN", "USER");
+
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final RoleMapper roleMapper;
     private final UserMapper userMapper;
+    private final StatsCounters statsCounters;
+    private final UserRoleChangeRepository userRoleChangeRepository;
+    private final UserRoleCache userRoleCache;
 
     public RoleResponse createRole(RoleRequest request) {
         if (roleRepository.existsByName(request.getName())) {
@@ -37,6 +46,30 @@ public class RoleService {
 
         Role role = roleMapper.toEntity(request);
         Role savedRole = roleRepository.save(role);
+        statsCounters.roleCreated(savedRole.getName());
+        return roleMapper.toResponse(savedRole);
+    }
+
+    public RoleResponse updateRole(Long roleId, RoleRequest request) {
+        Role role = roleRepository.findById(roleId)
+                .orElseThrow(() -> new UserNotFoundException("Role not found with id: " + roleId));
+
+        String previousName = role.getName();
+        boolean renamed = !previousName.equals(request.getName());
+        if (renamed && PROTECTED_ROLE_NAMES.contains(previousName)) {
+            throw new IllegalArgumentException("Role '" + previousName + "' is used by authorization rules and cannot be renamed");
+        }
+        if (renamed && roleRepository.existsByName(request.getName())) {
+            throw new UserAlreadyExistsException("Role with name '" + request.getName() + "' already exists");
+        }
+
+        role.setName(request.getName());
+        role.setDescription(request.getDescription());
+        Role savedRole = roleRepository.save(role);
+        if (renamed) {
+            statsCounters.roleRenamed(previousName, savedRole.getName());
+        }
+        userRoleCache.evictRole(roleId);
         return roleMapper.toResponse(savedRole);
     }
 
@@ -50,10 +83,22 @@ public class RoleService {
             throw new UserNotFoundException("One or more roles not found");
         }
 
+        Set<Long> heldRoleIds = user.getRoles().stream().map(Role::getId).collect(Collectors.toSet());
+        List<Role> addedRoles = roles.stream()
+                .filter(role -> !heldRoleIds.contains(role.getId()))
+                .toList();
+
         Set<Role> userRoles = new HashSet<>(user.getRoles());
         userRoles.addAll(roles);
         user.setRoles(userRoles);
         User savedUser = userRepository.save(user);
+        userRoleChangeRepository.saveAll(addedRoles.stream()
+                .map(role -> new UserRoleChange(userId, role, UserRoleChange.ChangeType.ASSIGNED))
+                .toList());
+        statsCounters.rolesAssigned(addedRoles.stream().map(Role::getName).toList());
+        if (!addedRoles.isEmpty()) {
+            userRoleCache.evict(userId);
+        }
         return userMapper.toResponse(savedUser);
     }
 
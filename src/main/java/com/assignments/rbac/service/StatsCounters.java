@@ -0,0 +1,238 @@
+package com.assignments.rbac.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory admin statistics maintained incrementally by the services that change them, so
+ * reading them costs the same no matter how many users exist.
+ *
+ * Updates are applied after the surrounding transaction commits and go to striped
+ * {@link LongAdder}s. Active users are kept as a per-minute histogram of each user's last login,
+ * so a user logging in again moves from one bucket to another and users fall out of the 24h
+ * window without any per-user bookkeeping. {@link StatsReconciler} periodically replaces the
+ * counters with database values; updates made while the database was being read are carried over.
+ */
+@Component
+public class StatsCounters {
+
+    static final int WINDOW_MINUTES = 24 * 60;
+
+    public record Baseline(long totalUsers, long totalRoles, long neverLoggedIn, Map<String, Long> usersByRole) {
+    }
+
+    public record Snapshot(long totalUsers, long totalRoles, long activeUsers, long neverLoggedIn,
+                           Map<String, Long> usersByRole, long loginsLast24h) {
+    }
+
+    /** Deltas observed when a reconciliation started; see {@link #beginReconcile()}. */
+    public record Marks(long totalUsers, long totalRoles, long neverLoggedIn, Map<String, Long> usersByRole) {
+    }
+
+    private final ReconciledCounter totalUsers = new ReconciledCounter();
+    private final ReconciledCounter totalRoles = new ReconciledCounter();
+    private final ReconciledCounter neverLoggedIn = new ReconciledCounter();
+    private final Map<String, ReconciledCounter> usersByRole = new ConcurrentHashMap<>();
+    private final MinuteHistogram activeUsersByLastLogin = new MinuteHistogram();
+    private final MinuteHistogram logins = new MinuteHistogram();
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean initialized;
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /** Incremented after every applied update; lets readers skip recomputing an unchanged snapshot. */
+    public long version() {
+        return version.get();
+    }
+
+    public void userRegistered() {
+        afterCommit(() -> {
+            totalUsers.add(1);
+            neverLoggedIn.add(1);
+        });
+    }
+
+    public void userLoggedIn(LocalDateTime previousLoginAt, LocalDateTime loginAt) {
+        afterCommit(() -> {
+            long loginMinute = minuteOf(loginAt);
+            if (previousLoginAt == null) {
+                neverLoggedIn.add(-1);
+            } else {
+                long previousMinute = minuteOf(previousLoginAt);
+                if (previousMinute > loginMinute - WINDOW_MINUTES) {
+                    activeUsersByLastLogin.add(previousMinute, -1);
+                }
+            }
+            activeUsersByLastLogin.add(loginMinute, 1);
+            logins.add(loginMinute, 1);
+        });
+    }
+
+    /** A login that lost the last-login update to a concurrent one: counted, but the user is not moved. */
+    public void loginCounted(LocalDateTime loginAt) {
+        afterCommit(() -> logins.add(minuteOf(loginAt), 1));
+    }
+
+    public void roleCreated(String roleName) {
+        afterCommit(() -> {
+            totalRoles.add(1);
+            usersByRole.computeIfAbsent(roleName, name -> new ReconciledCounter());
+        });
+    }
+
+    /** Moves the role's user count to its new name. */
+    public void roleRenamed(String previousName, String newName) {
+        afterCommit(() -> {
+            ReconciledCounter counter = usersByRole.remove(previousName);
+            usersByRole.put(newName, counter != null ? counter : new ReconciledCounter());
+        });
+    }
+
+    public void rolesAssigned(Collection<String> roleNames) {
+        if (roleNames.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> roleNames.forEach(name ->
+                usersByRole.computeIfAbsent(name, key -> new ReconciledCounter()).add(1)));
+    }
+
+    public Snapshot snapshot(LocalDateTime now) {
+        long currentMinute = minuteOf(now);
+        Map<String, Long> roles = new TreeMap<>();
+        usersByRole.forEach((name, counter) -> roles.put(name, counter.get()));
+        return new Snapshot(
+                totalUsers.get(),
+                totalRoles.get(),
+                activeUsersByLastLogin.sumSince(currentMinute - WINDOW_MINUTES + 1),
+                neverLoggedIn.get(),
+                roles,
+                logins.sumSince(currentMinute - WINDOW_MINUTES + 1));
+    }
+
+    public Marks beginReconcile() {
+        Map<String, Long> roleMarks = new HashMap<>();
+        usersByRole.forEach((name, counter) -> roleMarks.put(name, counter.mark()));
+        return new Marks(totalUsers.mark(), totalRoles.mark(), neverLoggedIn.mark(), roleMarks);
+    }
+
+    /**
+     * Replaces the counters with values read from the database after {@link #beginReconcile()}.
+     * Histogram minutes at or after {@code settledBefore} are left alone because the rows for
+     * them may not have been visible to the query yet.
+     */
+    public void completeReconcile(Marks marks, Baseline baseline, Map<LocalDateTime, Long> activeUsersByMinute,
+                                  Map<LocalDateTime, Long> loginsByMinute, LocalDateTime settledBefore) {
+        totalUsers.reset(baseline.totalUsers(), marks.totalUsers());
+        totalRoles.reset(baseline.totalRoles(), marks.totalRoles());
+        neverLoggedIn.reset(baseline.neverLoggedIn(), marks.neverLoggedIn());
+
+        usersByRole.keySet().retainAll(baseline.usersByRole().keySet());
+        baseline.usersByRole().forEach((name, count) -> usersByRole
+                .computeIfAbsent(name, key -> new ReconciledCounter())
+                .reset(count, marks.usersByRole().getOrDefault(name, 0L)));
+
+        long cutoff = minuteOf(settledBefore);
+        activeUsersByLastLogin.replaceBefore(cutoff, toMinutes(activeUsersByMinute));
+        logins.replaceBefore(cutoff, toMinutes(loginsByMinute));
+        activeUsersByLastLogin.evictBefore(cutoff - WINDOW_MINUTES);
+        logins.evictBefore(cutoff - WINDOW_MINUTES);
+        initialized = true;
+        version.incrementAndGet();
+    }
+
+    static long minuteOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static Map<Long, Long> toMinutes(Map<LocalDateTime, Long> countsByMinute) {
+        Map<Long, Long> counts = new HashMap<>();
+        countsByMinute.forEach((minute, count) -> counts.merge(minuteOf(minute), count, Long::sum));
+        return counts;
+    }
+
+    private void afterCommit(Runnable update) {
+        Runnable versioned = () -> {
+            update.run();
+            version.incrementAndGet();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versioned.run();
+                }
+            });
+        } else {
+            versioned.run();
+        }
+    }
+
+    /** A reconciled base value plus the striped sum of updates applied since. */
+    private static final class ReconciledCounter {
+        private final AtomicLong base = new AtomicLong();
+        private final LongAdder delta = new LongAdder();
+
+        void add(long amount) {
+            delta.add(amount);
+        }
+
+        long get() {
+            return base.get() + delta.sum();
+        }
+
+        long mark() {
+            return delta.sum();
+        }
+
+        void reset(long value, long mark) {
+            base.set(value);
+            delta.add(-mark);
+        }
+    }
+
+    private static final class MinuteHistogram {
+        private final Map<Long, LongAdder> buckets = new ConcurrentHashMap<>();
+
+        void add(long minute, long amount) {
+            buckets.computeIfAbsent(minute, key -> new LongAdder()).add(amount);
+        }
+
+        long sumSince(long fromMinute) {
+            long sum = 0;
+            for (Map.Entry<Long, LongAdder> bucket : buckets.entrySet()) {
+                if (bucket.getKey() >= fromMinute) {
+                    sum += bucket.getValue().sum();
+                }
+            }
+            return sum;
+        }
+
+        void replaceBefore(long cutoffMinute, Map<Long, Long> counts) {
+            buckets.keySet().removeIf(minute -> minute < cutoffMinute && !counts.containsKey(minute));
+            counts.forEach((minute, count) -> {
+                if (minute < cutoffMinute) {
+                    LongAdder adder = new LongAdder();
+                    adder.add(count);
+                    buckets.put(minute, adder);
+                }
+            });
+        }
+
+        void evictBefore(long minute) {
+            buckets.keySet().removeIf(bucket -> bucket < minute);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.entity.StatsSummary;
+import com.assignments.rbac.repository.MinuteCountView;
+import com.assignments.rbac.repository.RoleRepository;
+import com.assignments.rbac.repository.RoleUserCountView;
+import com.assignments.rbac.repository.StatsSummaryRepository;
+import com.assignments.rbac.repository.UserLoginHistoryRepository;
+import com.assignments.rbac.repository.UserRepository;
+import com.assignments.rbac.repository.UserStatsView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link StatsCounters} honest: restores them on startup from the {@code stats_summary}
+ * table, periodically replaces them with fresh database aggregates, and persists the result
+ * (and the live values again on shutdown). The 24h histograms are not persisted; they are
+ * rebuilt from the last day of {@code users} and {@code user_login_history} rows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatsReconciler {
+
+    static final String TOTAL_USERS = "users.total";
+    static final String TOTAL_ROLES = "roles.total";
+    static final String NEVER_LOGGED_IN = "users.never_logged_in";
+    static final String ROLE_PREFIX = "users.role.";
+
+    private final StatsCounters statsCounters;
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final UserLoginHistoryRepository loginHistoryRepository;
+    private final StatsSummaryRepository statsSummaryRepository;
+
+    @Value("${app.stats.reconcile-settle-ms:120000}")
+    private long settleMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        try {
+            List<StatsSummary> summary = statsSummaryRepository.findAll();
+            if (summary.isEmpty()) {
+                reconcile();
+                return;
+            }
+
+            StatsCounters.Marks marks = statsCounters.beginReconcile();
+            StatsCounters.Baseline baseline = fromSummary(summary);
+            LocalDateTime now = LocalDateTime.now();
+            statsCounters.completeReconcile(marks, baseline, activeUsersByMinute(now), loginsByMinute(now),
+                    now.minus(Duration.ofMillis(settleMs)));
+            log.info("Restored admin stats counters from summary: {} users, {} roles",
+                    baseline.totalUsers(), baseline.totalRoles());
+        } catch (Exception e) {
+            log.warn("Could not restore admin stats counters, stats will be read from the database - Error: {}",
+                    e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long started = System.nanoTime();
+        try {
+            StatsCounters.Marks marks = statsCounters.beginReconcile();
+            LocalDateTime now = LocalDateTime.now();
+
+            UserStatsView userStats = userRepository.aggregateUserStats(now.minus(AdminService.ACTIVE_WINDOW));
+            Map<String, Long> usersByRole = new HashMap<>();
+            for (RoleUserCountView roleCount : roleRepository.countUsersPerRole()) {
+                usersByRole.put(roleCount.getRoleName(), roleCount.getUserCount());
+            }
+            StatsCounters.Baseline baseline = new StatsCounters.Baseline(userStats.getTotalUsers(),
+                    usersByRole.size(), userStats.getNeverLoggedIn(), usersByRole);
+
+            statsCounters.completeReconcile(marks, baseline, activeUsersByMinute(now), loginsByMinute(now),
+                    now.minus(Duration.ofMillis(settleMs)));
+            persist(baseline, now);
+
+            log.debug("Reconciled admin stats counters in {} ms",
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (Exception e) {
+            log.warn("Admin stats reconciliation failed - Error: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void persistOnShutdown() {
+        if (!statsCounters.isInitialized()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            StatsCounters.Snapshot snapshot = statsCounters.snapshot(now);
+            persist(new StatsCounters.Baseline(snapshot.totalUsers(), snapshot.totalRoles(),
+                    snapshot.neverLoggedIn(), snapshot.usersByRole()), now);
+        } catch (Exception e) {
+            log.warn("Could not persist admin stats counters on shutdown - Error: {}", e.getMessage());
+        }
+    }
+
+    private Map<LocalDateTime, Long> activeUsersByMinute(LocalDateTime now) {
+        return toMinutes(userRepository.countLastLoginsPerMinuteSince(now.minus(AdminService.ACTIVE_WINDOW)));
+    }
+
+    private Map<LocalDateTime, Long> loginsByMinute(LocalDateTime now) {
+        return toMinutes(loginHistoryRepository.countSuccessfulLoginsPerMinuteSince(now.minus(AdminService.ACTIVE_WINDOW)));
+    }
+
+    private static Map<LocalDateTime, Long> toMinutes(List<MinuteCountView> rows) {
+        Map<LocalDateTime, Long> counts = new HashMap<>();
+        for (MinuteCountView row : rows) {
+            counts.put(LocalDateTime.parse(row.getBucket().replace(' ', 'T')), row.getTotal());
+        }
+        return counts;
+    }
+
+    private void persist(StatsCounters.Baseline baseline, LocalDateTime now) {
+        List<StatsSummary> rows = new ArrayList<>();
+        rows.add(new StatsSummary(TOTAL_USERS, baseline.totalUsers(), now));
+        rows.add(new StatsSummary(TOTAL_ROLES, baseline.totalRoles(), now));
+        rows.add(new StatsSummary(NEVER_LOGGED_IN, baseline.neverLoggedIn(), now));
+        baseline.usersByRole().forEach((role, count) -> rows.add(new StatsSummary(ROLE_PREFIX + role, count, now)));
+
+        Set<String> current = rows.stream().map(StatsSummary::getStatKey).collect(Collectors.toSet());
+        List<String> stale = statsSummaryRepository.findAll().stream()
+                .map(StatsSummary::getStatKey)
+                .filter(key -> !current.contains(key))
+                .toList();
+        if (!stale.isEmpty()) {
+            statsSummaryRepository.deleteAllByIdInBatch(stale);
+        }
+        statsSummaryRepository.saveAll(rows);
+    }
+
+    private static StatsCounters.Baseline fromSummary(List<StatsSummary> summary) {
+        Map<String, Long> values = new HashMap<>();
+        Map<String, Long> usersByRole = new HashMap<>();
+        for (StatsSummary row : summary) {
+            if (row.getStatKey().startsWith(ROLE_PREFIX)) {
+                usersByRole.put(row.getStatKey().substring(ROLE_PREFIX.length()), row.getStatValue());
+            } else {
+                values.put(row.getStatKey(), row.getStatValue());
+            }
+        }
+        return new StatsCounters.Baseline(values.getOrDefault(TOTAL_USERS, 0L), values.getOrDefault(TOTAL_ROLES, 0L),
+                values.getOrDefault(NEVER_LOGGED_IN, 0L), usersByRole);
+    }
+}
@@ -0,0 +1,97 @@
+package com.assignments.rbac.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent sections of the admin stats on a small bounded pool.
+ *
+ * Every section gets its own timeout, counted from submission. A section that times out, fails,
+ * or is rejected because the pool and its queue are full resolves to {@code null} in
+ * {@link #join}, and its name is added to the caller's list of missing sections. Latency is
+ * recorded per section as {@code admin.stats.section} with an {@code outcome} tag. A timed-out
+ * query keeps running on its worker, so the bounded pool also caps the number of database
+ * connections the stats can hold.
+ */
+@Slf4j
+public class StatsSectionExecutor implements Closeable {
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final long timeoutMs;
+
+    public StatsSectionExecutor(int poolSize, int queueCapacity, long timeoutMs, MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "admin-stats-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutMs = timeoutMs;
+        this.meterRegistry = meterRegistry != null ? meterRegistry : new SimpleMeterRegistry();
+    }
+
+    public <T> CompletableFuture<T> submit(String section, Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(() -> timed(section, supplier), executor)
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("admin.stats.section.rejected", "section", section).increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Waits for a section; returns {@code null} and records it as missing if it did not complete in time. */
+    public <T> T join(String section, CompletableFuture<T> future, Collection<String> missingSections) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof TimeoutException) {
+                Counter.builder("admin.stats.section.timeouts").tag("section", section)
+                        .register(meterRegistry).increment();
+                log.warn("Admin stats section '{}' timed out after {} ms", section, timeoutMs);
+            } else {
+                log.warn("Admin stats section '{}' failed - Error: {}", section, cause.getMessage());
+            }
+            missingSections.add(section);
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T timed(String section, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return supplier.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            Timer.builder("admin.stats.section").tag("section", section).tag("outcome", outcome)
+                    .register(meterRegistry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
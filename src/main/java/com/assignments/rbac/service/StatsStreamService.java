@@ -0,0 +1,242 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.dto.AdminStatsDelta;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes admin statistics to server-sent event subscribers.
+ *
+ * A single scheduled tick reads {@link StatsCounters} at most once, and only when an update was
+ * applied or the 24h window moved on to a new minute. The change against the previous tick is
+ * serialized once and the same payload is written to every subscriber, so the cost per tick does
+ * not depend on how many dashboards are connected. A new subscriber receives a full
+ * {@code snapshot} event on the next tick and {@code delta} events afterwards.
+ *
+ * Writes to an emitter block while the client's socket is full, so ticks run on a dedicated
+ * thread rather than the shared task scheduler: a stalled dashboard delays the other dashboards,
+ * never the spool replay, the stats reconciliation or other scheduled jobs.
+ */
+@Slf4j
+@Service
+public class StatsStreamService {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String DELTA_EVENT = "delta";
+
+    private final StatsCounters statsCounters;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final long heartbeatMs;
+    private final long intervalMs;
+    private ScheduledExecutorService ticker;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Only touched by the scheduled tick.
+    private StatsCounters.Snapshot lastSnapshot;
+    private long lastVersion = -1;
+    private long lastMinute = -1;
+    private long sequence;
+    private String snapshotPayload;
+    private long lastSentAt = System.currentTimeMillis();
+
+    public StatsStreamService(StatsCounters statsCounters, ObjectMapper objectMapper,
+                              @Value("${app.stats.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+                              @Value("${app.stats.stream.heartbeat-ms:15000}") long heartbeatMs,
+                              @Value("${app.stats.stream.interval-ms:1000}") long intervalMs) {
+        this.statsCounters = statsCounters;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.heartbeatMs = heartbeatMs;
+        this.intervalMs = intervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "admin-stats-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        log.debug("Admin stats stream subscriber added ({} connected)", subscribers.size());
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void tick() {
+        try {
+            broadcast();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task for good.
+            log.error("Admin stats stream tick failed - Error: {}", e.getMessage(), e);
+        }
+    }
+
+    public void broadcast() {
+        if (subscribers.isEmpty() || !statsCounters.isInitialized()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        long version = statsCounters.version();
+        long minute = StatsCounters.minuteOf(now);
+        String deltaPayload = null;
+        if (version != lastVersion || minute != lastMinute) {
+            StatsCounters.Snapshot snapshot = statsCounters.snapshot(now);
+            AdminStatsDelta delta = lastSnapshot == null ? full(snapshot, now) : diff(lastSnapshot, snapshot, now);
+            if (delta != null) {
+                sequence++;
+                deltaPayload = write(delta);
+                snapshotPayload = null;
+            }
+            lastSnapshot = snapshot;
+            lastVersion = version;
+            lastMinute = minute;
+        }
+
+        boolean heartbeat = deltaPayload == null && System.currentTimeMillis() - lastSentAt >= heartbeatMs;
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.primed) {
+                if (snapshotPayload == null) {
+                    snapshotPayload = write(full(lastSnapshot, now));
+                }
+                send(subscriber, SseEmitter.event().id(Long.toString(sequence)).name(SNAPSHOT_EVENT)
+                        .data(snapshotPayload, MediaType.APPLICATION_JSON));
+                subscriber.primed = true;
+            } else if (deltaPayload != null) {
+                send(subscriber, SseEmitter.event().id(Long.toString(sequence)).name(DELTA_EVENT)
+                        .data(deltaPayload, MediaType.APPLICATION_JSON));
+            } else if (heartbeat) {
+                send(subscriber, SseEmitter.event().comment("keepalive"));
+            }
+        }
+        if (deltaPayload != null || heartbeat) {
+            lastSentAt = System.currentTimeMillis();
+        }
+    }
+
+    static AdminStatsDelta full(StatsCounters.Snapshot snapshot, LocalDateTime now) {
+        AdminStatsDelta stats = new AdminStatsDelta();
+        stats.setTotalUsers(snapshot.totalUsers());
+        stats.setTotalRoles(snapshot.totalRoles());
+        stats.setActiveUsers(snapshot.activeUsers());
+        stats.setNeverLoggedInUsers(snapshot.neverLoggedIn());
+        stats.setUsersByRole(snapshot.usersByRole());
+        stats.setLoginsLast24h(snapshot.loginsLast24h());
+        stats.setGeneratedAt(now);
+        return stats;
+    }
+
+    /** Returns only the fields that differ, or {@code null} when nothing changed. */
+    static AdminStatsDelta diff(StatsCounters.Snapshot previous, StatsCounters.Snapshot current, LocalDateTime now) {
+        AdminStatsDelta delta = new AdminStatsDelta();
+        boolean changed = false;
+        if (previous.totalUsers() != current.totalUsers()) {
+            delta.setTotalUsers(current.totalUsers());
+            changed = true;
+        }
+        if (previous.totalRoles() != current.totalRoles()) {
+            delta.setTotalRoles(current.totalRoles());
+            changed = true;
+        }
+        if (previous.activeUsers() != current.activeUsers()) {
+            delta.setActiveUsers(current.activeUsers());
+            changed = true;
+        }
+        if (previous.neverLoggedIn() != current.neverLoggedIn()) {
+            delta.setNeverLoggedInUsers(current.neverLoggedIn());
+            changed = true;
+        }
+        if (previous.loginsLast24h() != current.loginsLast24h()) {
+            delta.setLoginsLast24h(current.loginsLast24h());
+            changed = true;
+        }
+
+        Map<String, Long> roles = new TreeMap<>();
+        Set<String> names = new HashSet<>(previous.usersByRole().keySet());
+        names.addAll(current.usersByRole().keySet());
+        for (String name : names) {
+            Long count = current.usersByRole().getOrDefault(name, 0L);
+            if (!Objects.equals(previous.usersByRole().get(name), count)) {
+                roles.put(name, count);
+            }
+        }
+        if (!roles.isEmpty()) {
+            delta.setUsersByRole(roles);
+            changed = true;
+        }
+
+        if (!changed) {
+            return null;
+        }
+        delta.setGeneratedAt(now);
+        return delta;
+    }
+
+    private String write(AdminStatsDelta stats) {
+        try {
+            return objectMapper.writeValueAsString(stats);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize admin stats", e);
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container completes the emitter.
+            subscribers.remove(subscriber);
+            log.debug("Dropped admin stats stream subscriber - Error: {}", e.getMessage());
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private volatile boolean primed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.assignments.rbac.service;
 
 import com.assignments.rbac.entity.User;
 import com.assignments.rbac.repository.UserRepository;
-import com.assignments.rbac.repository.RoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -12,6 +11,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -20,7 +20,7 @@ import java.util.stream.Collectors;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final UserRoleCache userRoleCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -32,17 +32,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         
         log.debug("User found: ID={}, Email={}", user.getId(), user.getEmail());
         
-        // Fetch roles separately
-        user.setRoles(new java.util.HashSet<>(roleRepository.findRolesByUserId(user.getId())));
-        log.debug("Roles fetched separately. Size: {}", user.getRoles().size());
+        // Roles come from the shared user-roles cache; misses from concurrent authentications share one query
+        List<String> roleNames = userRoleCache.getRoleNames(user.getId());
+        log.debug("Roles fetched separately. Size: {}", roleNames.size());
 
         try {
             log.debug("Building UserDetails with authorities...");
             return org.springframework.security.core.userdetails.User.builder()
                     .username(user.getEmail())
                     .password(user.getPassword())
-                    .authorities(user.getRoles().stream()
-                            .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName()))
+                    .authorities(roleNames.stream()
+                            .map(roleName -> new SimpleGrantedAuthority("ROLE_" + roleName))
                             .collect(Collectors.toList()))
                     .build();
         } catch (Exception e) {
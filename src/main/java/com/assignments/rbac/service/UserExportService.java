@@ -0,0 +1,129 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.dto.UserExportRow;
+import com.assignments.rbac.repository.UserExportDao;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+
+    static final String[] CSV_HEADER = {"id", "name", "username", "email", "roles", "createdAt", "createdBy", "lastLoginAt"};
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final UserExportDao userExportDao;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every user to {@code out} while they are read from the database. Memory use is
+     * bounded by the output buffer regardless of the number of users.
+     */
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        log.info("Starting {} user export", format);
+        long started = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            Consumer<UserExportRow> rowWriter = format == ExportFormat.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+            userExportDao.streamUsersWithRoles(row -> {
+                rowWriter.accept(row);
+                rows.incrementAndGet();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+
+        log.info("Exported {} users as {} in {} ms", rows.get(), format, (System.nanoTime() - started) / 1_000_000);
+        return rows.get();
+    }
+
+    private Consumer<UserExportRow> ndjsonWriter(Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // flush() below only moves the generator's buffer into the writer; the writer decides when to hit the socket
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.setRootValueSeparator(null);
+        return row -> {
+            try {
+                generator.writeObject(row);
+                generator.flush();
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private Consumer<UserExportRow> csvWriter(Writer writer) throws IOException {
+        writer.write(String.join(",", CSV_HEADER));
+        writer.write("\r\n");
+        return row -> {
+            try {
+                writer.write(String.valueOf(row.getId()));
+                writer.write(',');
+                writeCsvField(writer, row.getName());
+                writer.write(',');
+                writeCsvField(writer, row.getUsername());
+                writer.write(',');
+                writeCsvField(writer, row.getEmail());
+                writer.write(',');
+                writeCsvField(writer, String.join(";", row.getRoles()));
+                writer.write(',');
+                writeCsvField(writer, format(row.getCreatedAt()));
+                writer.write(',');
+                writeCsvField(writer, row.getCreatedBy());
+                writer.write(',');
+                writeCsvField(writer, format(row.getLastLoginAt()));
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * Writes one CSV field, quoted when needed. Values that a spreadsheet would evaluate as a
+     * formula (leading {@code =}, {@code +}, {@code -}, {@code @}, tab or carriage return) are
+     * prefixed with {@code '} so that user-supplied names cannot inject formulas into the export.
+     */
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String format(LocalDateTime value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,188 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.cache.CacheTags;
+import com.assignments.rbac.cache.TaggedCache;
+import com.assignments.rbac.config.CacheConfig;
+import com.assignments.rbac.dto.RoleResponse;
+import com.assignments.rbac.entity.Role;
+import com.assignments.rbac.mapper.RoleMapper;
+import com.assignments.rbac.repository.RoleRepository;
+import com.assignments.rbac.repository.UserRoleView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Role resolution shared by authentication, {@code /users/me}, login events and the admin views.
+ *
+ * {@code userRolesCache} maps a user id to the immutable set of ids of the roles the user
+ * holds; {@code rolesCache} maps a role id to its details. Roles are few and rarely change, so
+ * resolving a user's roles is normally two memory reads. Misses are loaded through the
+ * {@link RoleBatchLoader} on the caller's connection, one query for a list of users, and every load
+ * also refreshes the details of the roles it saw. Role assignments evict the affected user
+ * once the transaction commits.
+ *
+ * The {@code userCache} responses embed the same roles, so evictions also reach them by tag:
+ * a user's entry when their roles change, and every entry holding a role when the role is
+ * edited. A cache without tags is cleared instead.
+ */
+@Slf4j
+@Component
+public class UserRoleCache {
+
+    private static final Comparator<RoleResponse> BY_ID = Comparator.comparing(RoleResponse::getId);
+
+    private final Cache userRoles;
+    private final Cache roles;
+    private final Cache users;
+    private final RoleBatchLoader roleBatchLoader;
+    private final RoleRepository roleRepository;
+    private final RoleMapper roleMapper;
+
+    public UserRoleCache(CacheManager cacheManager, RoleBatchLoader roleBatchLoader,
+                         RoleRepository roleRepository, RoleMapper roleMapper) {
+        this.userRoles = cacheManager.getCache(CacheConfig.USER_ROLES_CACHE);
+        this.roles = cacheManager.getCache(CacheConfig.ROLES_CACHE);
+        this.users = cacheManager.getCache(CacheConfig.USER_CACHE);
+        this.roleBatchLoader = roleBatchLoader;
+        this.roleRepository = roleRepository;
+        this.roleMapper = roleMapper;
+    }
+
+    public Set<Long> getRoleIds(Long userId) {
+        return userRoles.get(userId, () -> loadRoleIds(userId));
+    }
+
+    /** Uncached role ids of a user; also how refresh-ahead reloads {@code userRolesCache}. */
+    public Set<Long> loadRoleIds(Long userId) {
+        return remember(roleBatchLoader.load(userId));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<Long, Set<Long>> getRoleIds(Collection<Long> userIds) {
+        Map<Long, Set<Long>> roleIdsByUser = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            Cache.ValueWrapper cached = userRoles.get(userId);
+            if (cached != null) {
+                roleIdsByUser.put(userId, (Set<Long>) cached.get());
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, List<UserRoleView>> loaded = roleBatchLoader.loadAll(missing);
+            for (Long userId : missing) {
+                Set<Long> roleIds = remember(loaded.getOrDefault(userId, List.of()));
+                userRoles.put(userId, roleIds);
+                roleIdsByUser.put(userId, roleIds);
+            }
+            log.debug("Loaded roles of {} users in one query ({} cached)", missing.size(),
+                    roleIdsByUser.size() - missing.size());
+        }
+        return roleIdsByUser;
+    }
+
+    /** The user's roles, ordered by id. */
+    public List<RoleResponse> getRoles(Long userId) {
+        return resolve(getRoleIds(userId));
+    }
+
+    public List<String> getRoleNames(Long userId) {
+        return getRoles(userId).stream().map(RoleResponse::getName).toList();
+    }
+
+    public Map<Long, Set<RoleResponse>> getRoles(Collection<Long> userIds) {
+        Map<Long, Set<RoleResponse>> rolesByUser = new HashMap<>();
+        getRoleIds(userIds).forEach((userId, roleIds) ->
+                rolesByUser.put(userId, new LinkedHashSet<>(resolve(roleIds))));
+        return rolesByUser;
+    }
+
+    /** Drops the user's cached roles and profile once the current transaction commits (immediately without one). */
+    public void evict(Long userId) {
+        afterCommit(() -> {
+            userRoles.evict(userId);
+            evictUsersTagged(CacheTags.user(userId));
+        });
+    }
+
+    /**
+     * Drops the cached details of a role, and the cached profiles of the users holding it, once
+     * the current transaction commits (immediately without one).
+     */
+    public void evictRole(Long roleId) {
+        afterCommit(() -> {
+            roles.evict(roleId);
+            evictUsersTagged(CacheTags.role(roleId));
+        });
+    }
+
+    private void evictUsersTagged(String tag) {
+        if (users instanceof TaggedCache tagged) {
+            tagged.evictTag(tag);
+        } else if (users != null) {
+            users.clear();
+        }
+    }
+
+    private Set<Long> remember(List<UserRoleView> views) {
+        Set<Long> roleIds = new TreeSet<>();
+        for (UserRoleView view : views) {
+            roleIds.add(view.getId());
+            roles.put(view.getId(), roleMapper.toResponse(view));
+        }
+        return Set.copyOf(roleIds);
+    }
+
+    private List<RoleResponse> resolve(Set<Long> roleIds) {
+        List<RoleResponse> resolved = new ArrayList<>(roleIds.size());
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long roleId : roleIds) {
+            RoleResponse role = roles.get(roleId, RoleResponse.class);
+            if (role != null) {
+                resolved.add(role);
+            } else {
+                missing.add(roleId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Role role : roleRepository.findByIdIn(missing)) {
+                if (Boolean.TRUE.equals(role.getIsDeleted())) {
+                    continue;
+                }
+                RoleResponse response = roleMapper.toResponse(role);
+                roles.put(role.getId(), response);
+                resolved.add(response);
+            }
+        }
+        resolved.sort(BY_ID);
+        return resolved;
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.dto.UserSearchResult;
+import com.assignments.rbac.entity.User;
+import com.assignments.rbac.repository.UserSearchDao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory trigram index over username, email and name.
+ *
+ * Each field is lower-cased and padded with two start markers before being cut into trigrams,
+ * so queries of three or more characters match anywhere in a field while one- and
+ * two-character queries match field prefixes through the padded trigrams. Users get dense
+ * document numbers in insertion order, which keeps every posting list a sorted {@code int[]}
+ * that only grows at the end. A query intersects the posting lists of its trigrams, starting
+ * from the shortest, and verifies the survivors against the stored fields. Prefix and exact
+ * matches are looked up first by adding the padded start trigrams to the query; infix matches
+ * are only scanned for when those leave room in the result.
+ *
+ * The index is built at startup by streaming the users table on a background thread and kept
+ * current by {@link UserService#registerUser}. Registrations seen while the build is running are
+ * held back and applied once it finishes, skipping any the stream already delivered.
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    static final int MAX_RESULTS = 100;
+
+    private static final char START = '\u0002';
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_INFIX = 2;
+
+    private final UserSearchDao userSearchDao;
+    private final boolean buildOnStartup;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock.
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, UserSearchResult> pending = new LinkedHashMap<>();
+    private long[] userIds = new long[1024];
+    private String[] usernames = new String[1024];
+    private String[] emails = new String[1024];
+    private String[] names = new String[1024];
+    private int size;
+    private boolean ready;
+
+    public UserSearchIndex(UserSearchDao userSearchDao,
+                           @Value("${app.search.build-on-startup:true}") boolean buildOnStartup) {
+        this.userSearchDao = userSearchDao;
+        this.buildOnStartup = buildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!buildOnStartup) {
+            return;
+        }
+        Thread builder = new Thread(() -> {
+            try {
+                rebuild(userSearchDao::streamSearchableUsers);
+            } catch (Exception e) {
+                log.error("Failed to build user search index - Error: {}", e.getMessage(), e);
+            }
+        }, "user-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /** Indexes every user handed to the sink by {@code source}, then the registrations held back meanwhile. */
+    public void rebuild(Consumer<Consumer<UserSearchResult>> source) {
+        long start = System.currentTimeMillis();
+        source.accept(user -> {
+            lock.writeLock().lock();
+            try {
+                insert(user);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            // A registration can be held back before or after the stream delivered it; drop those
+            // the stream already indexed so that no user gets two documents.
+            for (int doc = 0; doc < size && !pending.isEmpty(); doc++) {
+                pending.remove(userIds[doc]);
+            }
+            pending.values().forEach(this::insert);
+            pending.clear();
+            ready = true;
+            log.info("User search index built: {} users, {} trigrams in {} ms",
+                    size, postings.size(), System.currentTimeMillis() - start);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void userRegistered(User user) {
+        UserSearchResult entry = new UserSearchResult(user.getId(), user.getUsername(), user.getEmail(), user.getName());
+        afterCommit(() -> add(entry));
+    }
+
+    public void add(UserSearchResult user) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                insert(user);
+            } else {
+                pending.put(user.getId(), user);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Best matches first: exact field matches, then prefix matches, then infix matches; newest users first within each. */
+    public List<UserSearchResult> search(String query, int limit) {
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        if (needle.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<UserSearchResult> exact = new ArrayList<>();
+            List<UserSearchResult> prefix = new ArrayList<>();
+            List<UserSearchResult> infix = new ArrayList<>();
+
+            // Exact and prefix matches carry the padded start trigrams too, so they are collected from the
+            // (usually much shorter) intersection that includes them; no exact match can be missed.
+            for (int doc : candidates(prefixTrigrams(needle))) {
+                int rank = rank(doc, needle);
+                if (rank == RANK_EXACT) {
+                    exact.add(result(doc));
+                } else if (rank == RANK_PREFIX && prefix.size() < limit) {
+                    prefix.add(result(doc));
+                }
+            }
+
+            if (needle.length() >= 3 && exact.size() + prefix.size() < limit) {
+                int wanted = limit - exact.size() - prefix.size();
+                for (int doc : candidates(queryTrigrams(needle))) {
+                    if (rank(doc, needle) == RANK_INFIX) {
+                        infix.add(result(doc));
+                        if (infix.size() == wanted) {
+                            break;
+                        }
+                    }
+                }
+            }
+
+            List<UserSearchResult> results = new ArrayList<>(limit);
+            for (List<UserSearchResult> bucket : List.of(exact, prefix, infix)) {
+                for (UserSearchResult result : bucket) {
+                    if (results.size() == limit) {
+                        return results;
+                    }
+                    results.add(result);
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Documents present in every posting list of {@code keys}, newest first. Caller holds the read lock. */
+    private Iterable<Integer> candidates(long[] keys) {
+        Postings[] lists = new Postings[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null) {
+                return List.of();
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        Postings shortest = lists[0];
+        return () -> new Iterator<>() {
+            private int position = shortest.size;
+            private int next = advance();
+
+            private int advance() {
+                while (--position >= 0) {
+                    if (containedInAll(lists, shortest.docs[position])) {
+                        return shortest.docs[position];
+                    }
+                }
+                return -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    private UserSearchResult result(int doc) {
+        return new UserSearchResult(userIds[doc], usernames[doc], emails[doc], names[doc]);
+    }
+
+    private void insert(UserSearchResult user) {
+        int doc = size;
+        if (doc == userIds.length) {
+            int capacity = doc + (doc >> 1);
+            userIds = Arrays.copyOf(userIds, capacity);
+            usernames = Arrays.copyOf(usernames, capacity);
+            emails = Arrays.copyOf(emails, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        userIds[doc] = user.getId();
+        usernames[doc] = user.getUsername();
+        emails[doc] = user.getEmail();
+        names[doc] = user.getName();
+        size++;
+
+        long[] keys = concat(fieldTrigrams(user.getUsername()), fieldTrigrams(user.getEmail()),
+                fieldTrigrams(user.getName()));
+        for (long key : keys) {
+            postings.computeIfAbsent(key, k -> new Postings()).add(doc);
+        }
+    }
+
+    private int rank(int doc, String needle) {
+        int best = -1;
+        for (String field : new String[] {usernames[doc], emails[doc], names[doc]}) {
+            if (field == null) {
+                continue;
+            }
+            int rank;
+            if (field.equalsIgnoreCase(needle)) {
+                rank = RANK_EXACT;
+            } else if (field.regionMatches(true, 0, needle, 0, needle.length())) {
+                rank = RANK_PREFIX;
+            } else if (needle.length() >= 3 && containsIgnoreCase(field, needle)) {
+                rank = RANK_INFIX;
+            } else {
+                continue;
+            }
+            if (best < 0 || rank < best) {
+                best = rank;
+            }
+        }
+        return best;
+    }
+
+    private static boolean containedInAll(Postings[] lists, int doc) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i].docs, 0, lists[i].size, doc) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(String haystack, String needle) {
+        for (int offset = 0; offset + needle.length() <= haystack.length(); offset++) {
+            if (haystack.regionMatches(true, offset, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Trigrams of a field starting with {@code needle}: the padded start trigrams plus the inner ones. */
+    static long[] prefixTrigrams(String needle) {
+        long first = key(START, START, needle.charAt(0));
+        if (needle.length() == 1) {
+            return new long[] {first};
+        }
+        long second = key(START, needle.charAt(0), needle.charAt(1));
+        return concat(new long[] {first, second}, queryTrigrams(needle), new long[0]);
+    }
+
+    /** Trigrams of {@code needle} itself; empty for needles shorter than three characters. */
+    static long[] queryTrigrams(String needle) {
+        if (needle.length() < 3) {
+            return new long[0];
+        }
+        long[] keys = new long[needle.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(needle.charAt(i), needle.charAt(i + 1), needle.charAt(i + 2));
+        }
+        return distinct(keys);
+    }
+
+    private static long[] fieldTrigrams(String field) {
+        if (field == null || field.isEmpty()) {
+            return new long[0];
+        }
+        String padded = "" + START + START + field.toLowerCase(Locale.ROOT);
+        long[] keys = new long[padded.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2));
+        }
+        return keys;
+    }
+
+    private static long[] concat(long[] first, long[] second, long[] third) {
+        long[] all = new long[first.length + second.length + third.length];
+        System.arraycopy(first, 0, all, 0, first.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        System.arraycopy(third, 0, all, first.length + second.length, third.length);
+        return distinct(all);
+    }
+
+    private static long[] distinct(long[] keys) {
+        Arrays.sort(keys);
+        int unique = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[unique++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, unique);
+    }
+
+    private static long key(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /** Sorted document numbers; documents are only ever appended in increasing order. */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
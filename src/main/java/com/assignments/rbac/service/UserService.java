@@ -3,6 +3,7 @@ package com.assignments.rbac.service;
 import com.assignments.rbac.dto.CurrentUserResponse;
 import com.assignments.rbac.dto.LoginRequest;
 import com.assignments.rbac.dto.LoginResponse;
+import com.assignments.rbac.dto.RoleResponse;
 import com.assignments.rbac.dto.UserRegistrationRequest;
 import com.assignments.rbac.dto.UserResponse;
 import com.assignments.rbac.dto.events.UserLoginEvent;
@@ -12,7 +13,6 @@ import com.assignments.rbac.exception.UserAlreadyExistsException;
 import com.assignments.rbac.exception.UserNotFoundException;
 import com.assignments.rbac.mapper.UserMapper;
 import com.assignments.rbac.repository.UserRepository;
-import com.assignments.rbac.repository.RoleRepository;
 import com.assignments.rbac.security.JwtUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,7 +29,7 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 
 import java.time.LocalDateTime;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -38,13 +38,16 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final UserRoleCache userRoleCache;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
     private final EventPublisherService eventPublisherService;
     private final RequestInfoService requestInfoService;
+    private final StatsCounters statsCounters;
+    private final LoginAnalytics loginAnalytics;
+    private final UserSearchIndex userSearchIndex;
 
     public UserResponse registerUser(UserRegistrationRequest request) {
         log.info("Attempting to register user with email: {}", request.getEmail());
@@ -64,6 +67,8 @@ public class UserService {
 
         User savedUser = userRepository.save(user);
         log.info("User registered successfully with ID: {} and email: {}", savedUser.getId(), savedUser.getEmail());
+        statsCounters.userRegistered();
+        userSearchIndex.userRegistered(savedUser);
         
         publishRegistrationEvent(savedUser);
         
@@ -87,10 +92,18 @@ public class UserService {
             User user = userRepository.findByEmail(request.getEmail())
                     .orElseThrow(() -> new UserNotFoundException("User not found with email: " + request.getEmail()));
 
-            // Update last login timestamp
+            // Update last login timestamp; a concurrent login of the same user may get there first,
+            // in which case it has already moved the user in the last-login stats. The managed entity
+            // is left alone: marking it dirty would flush a second, unconditional UPDATE at commit.
+            // Nothing built from it below (response, login event) carries lastLoginAt.
+            LocalDateTime previousLoginAt = user.getLastLoginAt();
             LocalDateTime loginTime = java.time.LocalDateTime.now();
-            user.setLastLoginAt(loginTime);
-            userRepository.save(user);
+            if (userRepository.updateLastLoginAtIfUnchanged(user.getId(), previousLoginAt, loginTime) == 1) {
+                statsCounters.userLoggedIn(previousLoginAt, loginTime);
+            } else {
+                statsCounters.loginCounted(loginTime);
+            }
+            loginAnalytics.recordSuccess(user.getId(), loginTime);
             log.debug("Updated last login timestamp for user {}: {} (cache evicted)", user.getEmail(), loginTime);
 
             UserResponse userResponse = userMapper.toResponse(user);
@@ -103,6 +116,7 @@ public class UserService {
             
         } catch (AuthenticationException e) {
             log.warn("Login failed for email: {} - Invalid credentials", request.getEmail());
+            loginAnalytics.recordFailure(LocalDateTime.now());
             
             publishFailedLoginEvent(request.getEmail(), "Invalid credentials");
             
@@ -111,20 +125,23 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "userCache", key = "#root.target.getCurrentUserEmail()")
+    @Cacheable(value = "userCache", key = "#root.target.getCurrentUserEmail()", sync = true)
     public CurrentUserResponse getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        
+        return loadCurrentUser(getCurrentUserEmail());
+    }
+
+    /** Uncached {@code /users/me} response for a user; also how refresh-ahead reloads {@code userCache}. */
+    @Transactional(readOnly = true)
+    public CurrentUserResponse loadCurrentUser(String email) {
         log.info("Getting current user details for email: {} (cache miss)", email);
 
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
 
-        user.setRoles(new java.util.HashSet<>(roleRepository.findRolesByUserId(user.getId())));
+        List<RoleResponse> roles = userRoleCache.getRoles(user.getId());
         
-        log.info("Current user found with ID: {} and roles: {}", user.getId(), user.getRoles().size());
-        return userMapper.toCurrentUserResponse(user);
+        log.info("Current user found with ID: {} and roles: {}", user.getId(), roles.size());
+        return userMapper.toCurrentUserResponse(user, roles);
     }
 
     
@@ -164,14 +181,12 @@ public class UserService {
 
     private void publishLoginEvent(User user, LocalDateTime loginTime, boolean successful, String failureReason) {
         try {
-            user.setRoles(new java.util.HashSet<>(roleRepository.findRolesByUserId(user.getId())));
-            
             UserLoginEvent event = new UserLoginEvent(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getName(),
-                user.getRoles().stream().map(role -> role.getName()).collect(Collectors.toList()),
+                userRoleCache.getRoleNames(user.getId()),
                 loginTime,
                 requestInfoService.getClientIpAddress(),
                 requestInfoService.getUserAgent(),
@@ -0,0 +1,40 @@
+package com.assignments.rbac.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the change feed: the {@code (last_updated_at, id)} of the last user change and the
+ * {@code (changed_at, id)} of the last role assignment change a consumer has seen. Encoded as an
+ * opaque URL-safe token so clients pass it back unchanged.
+ */
+public record ChangeFeedCursor(LocalDateTime usersUpdatedAt, long userId,
+                               LocalDateTime rolesChangedAt, long roleChangeId) {
+
+    public static final ChangeFeedCursor START = new ChangeFeedCursor(
+            LocalDateTime.of(1970, 1, 1, 0, 0), 0, LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, usersUpdatedAt.toString(), Long.toString(userId),
+                rolesChangedAt.toString(), Long.toString(roleChangeId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeFeedCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new ChangeFeedCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.assignments.rbac.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Count-min frequency sketch with {@code depth} rows of {@code width} counters.
+ *
+ * {@link #add} increments one counter per row with an atomic add and returns the smallest of
+ * them, which never undercounts the key and overcounts it by at most {@code e / width} of the
+ * total with probability {@code 1 - e^-depth}. Row indexes are derived from the two halves of
+ * one 64-bit hash, so the caller hashes the key once. {@link #halve} ages all counters for
+ * exponential decay; increments racing with it may be lost, which only lowers the estimates.
+ */
+public final class CountMinSketch {
+
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int depth;
+    private final int mask;
+    private final long[] counters;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > 16) {
+            throw new IllegalArgumentException("Count-min sketch depth must be between 1 and 16: " + depth);
+        }
+        if (width < 16 || width > (1 << 20) || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Count-min sketch width must be a power of two between 16 and 2^20: "
+                    + width);
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counters = new long[depth * width];
+    }
+
+    /** Counts one occurrence of the key with this hash and returns its new estimate. */
+    public long add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0, offset = 0; row < depth; row++, offset += mask + 1) {
+            long count = (long) COUNTERS.getAndAdd(counters, offset + ((h1 + row * h2) & mask), 1L) + 1;
+            estimate = Math.min(estimate, count);
+        }
+        return estimate;
+    }
+
+    public long estimate(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0, offset = 0; row < depth; row++, offset += mask + 1) {
+            estimate = Math.min(estimate, (long) COUNTERS.getOpaque(counters, offset + ((h1 + row * h2) & mask)));
+        }
+        return estimate;
+    }
+
+    public void halve() {
+        for (int i = 0; i < counters.length; i++) {
+            long count = (long) COUNTERS.getOpaque(counters, i);
+            if (count != 0) {
+                COUNTERS.setOpaque(counters, i, count >>> 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.assignments.rbac.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code k} most frequent keys of a stream: a {@link CountMinSketch} counts every key and a
+ * min-heap of size {@code k} keeps the keys with the highest estimates.
+ *
+ * {@link #add} only takes the heap's lock when a key that is not in the heap reaches the
+ * smallest count in it; keys already in the heap and the long tail below it stay on the lock-free
+ * path of one sketch update, a volatile read and a lookup in an immutable set. The heap's counts
+ * are re-read from the sketch whenever it is consulted, so they never drift from it.
+ * {@link #decay} halves every count, which gives the counts a half-life of one decay interval and
+ * lets keys that went quiet drop out of the top.
+ */
+public final class HeavyHitters {
+
+    public record Entry(String key, long count) {
+    }
+
+    private static final class Slot {
+        private final String key;
+        private final long hash;
+        private long count;
+
+        private Slot(String key, long hash, long count) {
+            this.key = key;
+            this.hash = hash;
+            this.count = count;
+        }
+    }
+
+    private final int k;
+    private final CountMinSketch sketch;
+    private final LongAdder total = new LongAdder();
+    private final PriorityQueue<Slot> heap = new PriorityQueue<>(Comparator.comparingLong(slot -> slot.count));
+    private volatile Set<String> members = Set.of();
+    private volatile long threshold = 1;
+
+    public HeavyHitters(int k, int depth, int width) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Number of heavy hitters to keep must be positive: " + k);
+        }
+        this.k = k;
+        this.sketch = new CountMinSketch(depth, width);
+    }
+
+    public void add(String key) {
+        if (key == null) {
+            return;
+        }
+        long hash = HyperLogLog.mix64(key.hashCode());
+        long count = sketch.add(hash);
+        total.increment();
+        if (count >= threshold && !members.contains(key)) {
+            offer(key, hash, count);
+        }
+    }
+
+    public long estimate(String key) {
+        return sketch.estimate(HyperLogLog.mix64(key.hashCode()));
+    }
+
+    /** Decayed number of keys added so far. */
+    public long total() {
+        return total.sum();
+    }
+
+    /** The heavy hitters, most frequent first. */
+    public synchronized List<Entry> top() {
+        refreshCounts();
+        List<Entry> top = new ArrayList<>(heap.size());
+        for (Slot slot : heap) {
+            top.add(new Entry(slot.key, slot.count));
+        }
+        top.sort(Comparator.comparingLong(Entry::count).reversed().thenComparing(Entry::key));
+        return top;
+    }
+
+    public synchronized void decay() {
+        sketch.halve();
+        total.add(-(total.sum() / 2));
+        refreshCounts();
+        heap.removeIf(slot -> slot.count == 0);
+        publish();
+    }
+
+    private synchronized void offer(String key, long hash, long count) {
+        if (members.contains(key)) {
+            return;
+        }
+        if (heap.size() == k) {
+            refreshCounts();
+            if (count <= heap.peek().count) {
+                threshold = heap.peek().count + 1;
+                return;
+            }
+            heap.poll();
+        }
+        heap.add(new Slot(key, hash, count));
+        publish();
+    }
+
+    private void refreshCounts() {
+        List<Slot> slots = new ArrayList<>(heap);
+        heap.clear();
+        for (Slot slot : slots) {
+            slot.count = sketch.estimate(slot.hash);
+            heap.add(slot);
+        }
+    }
+
+    private void publish() {
+        members = heap.stream().map(slot -> slot.key).collect(Collectors.toUnmodifiableSet());
+        threshold = heap.size() < k ? 1 : heap.peek().count + 1;
+    }
+}
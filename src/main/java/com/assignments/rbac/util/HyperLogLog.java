@@ -0,0 +1,120 @@
+package com.assignments.rbac.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * HyperLogLog distinct-count sketch with one byte per register.
+ *
+ * {@link #add} is lock-free: each register only ever grows, so a concurrent update is a CAS loop
+ * that gives up as soon as the register already holds a larger rank. With precision {@code p}
+ * the sketch uses {@code 2^p} bytes and has a standard error of about {@code 1.04 / sqrt(2^p)}.
+ */
+public final class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final VarHandle REGISTERS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between "
+                    + MIN_PRECISION + " and " + MAX_PRECISION + ": " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public void add(long value) {
+        addHash(mix64(value));
+    }
+
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // The guard bit caps the rank at 64 - precision + 1 even when the remaining bits are all zero.
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+
+        byte current;
+        do {
+            current = (byte) REGISTERS.getVolatile(registers, index);
+            if (current >= rank) {
+                return;
+            }
+        } while (!REGISTERS.compareAndSet(registers, index, current, rank));
+    }
+
+    /**
+     * Folds {@code other} into this sketch. Intended for private accumulators: registers are
+     * written without CAS, so it must not race with {@link #add} on this instance.
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision " + other.precision
+                    + " into " + precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            byte theirs = (byte) REGISTERS.getOpaque(other.registers, i);
+            if (theirs > registers[i]) {
+                registers[i] = theirs;
+            }
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < m; i++) {
+            byte register = (byte) REGISTERS.getOpaque(registers, i);
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty.
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (int i = 0; i < registers.length; i++) {
+            if ((byte) REGISTERS.getOpaque(registers, i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Murmur3 64-bit finalizer; spreads sequential ids across all hash bits. */
+    public static long mix64(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.assignments.rbac.util;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 64-bit id generator (snowflake layout).
+ *
+ * <pre>
+ * | 1 bit unused | 41 bits millis since EPOCH | 10 bits node id | 12 bits sequence |
+ * </pre>
+ *
+ * The timestamp and sequence live in a single {@link AtomicLong}, so callers never block:
+ * a thread either wins the CAS or retries with the fresh value. When more than 4096 ids are
+ * requested within one millisecond, or the wall clock moves backwards, the sequence carries
+ * into the timestamp so ids stay strictly increasing on a node.
+ */
+public final class SnowflakeIdGenerator {
+
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int STRING_LENGTH = 13;
+
+    private static volatile SnowflakeIdGenerator defaultInstance = new SnowflakeIdGenerator(deriveNodeId());
+
+    private final long nodeId;
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public static SnowflakeIdGenerator getDefault() {
+        return defaultInstance;
+    }
+
+    public static void setDefault(SnowflakeIdGenerator generator) {
+        defaultInstance = generator;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        while (true) {
+            long last = state.get();
+            long next = (now > (last >>> SEQUENCE_BITS)) ? now << SEQUENCE_BITS : last + 1;
+            if (state.compareAndSet(last, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Next id as a fixed-width Crockford base32 string, which sorts lexicographically in id order.
+     */
+    public String nextIdString() {
+        return toString(nextId());
+    }
+
+    public static String toString(long id) {
+        char[] chars = new char[STRING_LENGTH];
+        for (int i = STRING_LENGTH - 1; i >= 0; i--) {
+            chars[i] = CROCKFORD[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    public static long deriveNodeId() {
+        try {
+            String host = InetAddress.getLocalHost().getHostName();
+            return (host.hashCode() & Integer.MAX_VALUE) % (MAX_NODE_ID + 1);
+        } catch (Exception e) {
+            return ProcessHandle.current().pid() % (MAX_NODE_ID + 1);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.assignments.rbac.cache;
+
+import com.assignments.rbac.config.CacheConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheStatsEndpointTest {
+
+    private CacheManager cacheManager;
+    private CacheStatsEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        ObjectProvider<MeterRegistry> meterRegistry = beanFactory.getBeanProvider(MeterRegistry.class);
+        cacheManager = new CacheConfig().cacheManager(new MockEnvironment(), "maximumSize=100,expireAfterWrite=5m", 2000,
+                Set.of(), 0.8, new CacheConfig().cacheRefreshExecutor(1, 1), Set.of(), DataSize.ofMegabytes(1), 256,
+                new CacheInvalidationBroadcaster(null, 20, 500), meterRegistry);
+        endpoint = new CacheStatsEndpoint(cacheManager, meterRegistry);
+    }
+
+    @Test
+    void caches_ReportsHitRatioLoadsAndAges() {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_CACHE);
+        for (String email : new String[] {"a@example.com", "b@example.com"}) {
+            assertNull(cache.get(email));
+            cache.put(email, "profile");
+        }
+        for (int i = 0; i < 6; i++) {
+            cache.get("a@example.com");
+        }
+
+        Map<String, CacheStatsEndpoint.CacheReport> reports = endpoint.caches();
+        CacheStatsEndpoint.CacheReport report = reports.get(CacheConfig.USER_CACHE);
+
+        assertEquals(2, report.size());
+        assertEquals(6, report.hits());
+        assertEquals(2, report.misses());
+        assertEquals(0.75, report.hitRatio(), 1e-9);
+        assertEquals(2, report.loads());
+        assertEquals(2, report.topKeys().size());
+        assertTrue(report.topKeys().stream().allMatch(key -> key.ageSeconds() != null && key.ageSeconds() >= 0));
+        assertEquals(2, report.entryAges().sampled());
+    }
+
+    @Test
+    void cache_UnknownName_ReturnsNull() {
+        assertNull(endpoint.cache("missing"));
+        assertNotNull(endpoint.cache(CacheConfig.USER_CACHE));
+    }
+}
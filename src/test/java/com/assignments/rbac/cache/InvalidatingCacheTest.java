@@ -0,0 +1,238 @@
+package com.assignments.rbac.cache;
+
+import com.assignments.rbac.dto.events.CacheInvalidationEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidatingCacheTest {
+
+    private final List<CacheInvalidationEvent> sent = new ArrayList<>();
+    private final CacheInvalidationBroadcaster broadcaster =
+            new CacheInvalidationBroadcaster(sent::add, 60_000, 3);
+    private final InvalidatingCache cache =
+            new InvalidatingCache(new ConcurrentMapCache("users"), broadcaster, key -> key);
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.close();
+    }
+
+    @Test
+    void put_AfterMiss_StoresValue() {
+        assertNull(cache.get("a@example.com"));
+
+        cache.put("a@example.com", "fresh");
+
+        assertEquals("fresh", cache.get("a@example.com").get());
+    }
+
+    @Test
+    void put_InvalidatedSinceMiss_IsDropped() {
+        broadcaster.register(cache);
+        assertNull(cache.get("a@example.com"));
+
+        // Another node updates the user while this node is still loading the old row.
+        broadcaster.apply(new CacheInvalidationEvent("other-node", "users", false, List.of("a@example.com")));
+        cache.put("a@example.com", "stale");
+
+        assertNull(cache.get("a@example.com"));
+    }
+
+    @Test
+    void put_AfterBatchedLoad_DropsOnlyInvalidatedKeys() {
+        broadcaster.register(cache);
+        assertNull(cache.get("a@example.com"));
+        assertNull(cache.get("b@example.com"));
+
+        broadcaster.apply(new CacheInvalidationEvent("other-node", "users", false, List.of("b@example.com")));
+        cache.put("a@example.com", "fresh");
+        cache.put("b@example.com", "stale");
+
+        assertEquals("fresh", cache.get("a@example.com").get());
+        assertNull(cache.get("b@example.com"));
+    }
+
+    @Test
+    void put_ClearedSinceMiss_IsDropped() {
+        assertNull(cache.get("a@example.com"));
+
+        cache.clear();
+        cache.put("a@example.com", "stale");
+
+        assertNull(cache.get("a@example.com"));
+    }
+
+    @Test
+    void getWithLoader_InvalidatedWhileLoading_ReturnsValueWithoutKeepingIt() {
+        String value = cache.get("a@example.com", () -> {
+            cache.clear();
+            return "stale";
+        });
+
+        assertEquals("stale", value);
+        assertNull(cache.get("a@example.com"));
+    }
+
+    @Test
+    void evictions_AreCoalescedPerCache() {
+        cache.evict("a@example.com");
+        cache.evict("b@example.com");
+        cache.evict("a@example.com");
+
+        broadcaster.flush();
+
+        assertEquals(1, sent.size());
+        assertEquals("users", sent.get(0).getCacheName());
+        assertEquals(List.of("a@example.com", "b@example.com"), sent.get(0).getKeys());
+        assertEquals(broadcaster.getNodeId(), sent.get(0).getOriginNodeId());
+    }
+
+    @Test
+    void evictions_PastKeyLimit_AreSentAsClear() {
+        for (int i = 0; i < 4; i++) {
+            cache.evict("user" + i + "@example.com");
+        }
+
+        broadcaster.flush();
+
+        assertEquals(1, sent.size());
+        assertTrue(sent.get(0).isClear());
+        assertTrue(sent.get(0).getKeys().isEmpty());
+    }
+
+    @Test
+    void flush_FailedSend_IsRetriedMergedWithNewInvalidations() {
+        List<CacheInvalidationEvent> delivered = new ArrayList<>();
+        boolean[] brokerDown = {true};
+        CacheInvalidationBroadcaster flaky = new CacheInvalidationBroadcaster(event -> {
+            if (brokerDown[0]) {
+                throw new IllegalStateException("connection refused");
+            }
+            delivered.add(event);
+        }, 60_000, 10);
+        InvalidatingCache users = new InvalidatingCache(new ConcurrentMapCache("users"), flaky, key -> key);
+
+        users.evict("a@example.com");
+        flaky.flush();
+        users.evict("b@example.com");
+        brokerDown[0] = false;
+        flaky.flush();
+        flaky.close();
+
+        assertEquals(1, delivered.size());
+        assertEquals(List.of("a@example.com", "b@example.com"), delivered.get(0).getKeys());
+    }
+
+    @Test
+    void clearLocalCaches_ClearsWithoutBroadcasting() {
+        broadcaster.register(cache);
+        cache.put("a@example.com", "cached");
+
+        broadcaster.clearLocalCaches();
+        broadcaster.flush();
+
+        assertNull(cache.get("a@example.com"));
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    void apply_OwnMessage_IsIgnored() {
+        broadcaster.register(cache);
+        cache.put("a@example.com", "cached");
+
+        broadcaster.apply(new CacheInvalidationEvent(broadcaster.getNodeId(), "users", true, List.of()));
+
+        assertEquals("cached", cache.get("a@example.com").get());
+    }
+
+    @Test
+    void apply_RemoteInvalidation_IsNotBroadcastAgain() {
+        broadcaster.register(cache);
+        cache.put("a@example.com", "cached");
+
+        broadcaster.apply(new CacheInvalidationEvent("other-node", "users", false, List.of("a@example.com")));
+        broadcaster.flush();
+
+        assertNull(cache.get("a@example.com"));
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    void keyDecoder_MapsBroadcastKeysBackToCacheKeys() {
+        Cache byId = new InvalidatingCache(new ConcurrentMapCache("roles"), broadcaster, Long::valueOf);
+        broadcaster.register((InvalidatingCache) byId);
+        byId.put(42L, "roles");
+
+        broadcaster.apply(new CacheInvalidationEvent("other-node", "roles", false, List.of("42")));
+
+        assertNull(byId.get(42L));
+    }
+
+    @Test
+    void evictTag_EvictsOnlyTaggedEntriesAndBroadcastsTheTag() {
+        InvalidatingCache tagged = taggedCache();
+        tagged.put("a@example.com", Map.of("user:1", "role:7"));
+        tagged.put("b@example.com", Map.of("user:2", "role:8"));
+
+        tagged.evictTag("role:7");
+        broadcaster.flush();
+
+        assertNull(tagged.get("a@example.com"));
+        assertNotNull(tagged.get("b@example.com"));
+        assertEquals(1, sent.size());
+        assertEquals(List.of("role:7"), sent.get(0).getTags());
+        assertTrue(sent.get(0).getKeys().isEmpty());
+    }
+
+    @Test
+    void evictTag_LoadRunningMeanwhile_IsNotKept() {
+        InvalidatingCache tagged = taggedCache();
+
+        String value = tagged.get("a@example.com", () -> {
+            tagged.evictTag("role:7");
+            return "stale";
+        });
+
+        assertEquals("stale", value);
+        assertNull(tagged.get("a@example.com"));
+    }
+
+    @Test
+    void apply_RemoteTag_EvictsEntriesTaggedOnThisNode() {
+        InvalidatingCache tagged = taggedCache();
+        broadcaster.register(tagged);
+        tagged.put("a@example.com", Map.of("user:1", "role:7"));
+        tagged.put("b@example.com", Map.of("user:2", "role:8"));
+
+        broadcaster.apply(new CacheInvalidationEvent("other-node", "profiles", false, List.of(), List.of("user:2")));
+
+        assertNotNull(tagged.get("a@example.com"));
+        assertNull(tagged.get("b@example.com"));
+        assertEquals(1, tagged.taggedEntries());
+    }
+
+    @Test
+    void evictTag_UntaggedCache_ClearsIt() {
+        cache.put("a@example.com", "cached");
+
+        cache.evictTag("role:7");
+
+        assertNull(cache.get("a@example.com"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private InvalidatingCache taggedCache() {
+        return new InvalidatingCache(new ConcurrentMapCache("profiles"), broadcaster, key -> key,
+                value -> value instanceof Map<?, ?> tags
+                        ? List.of((String) tags.keySet().iterator().next(), (String) tags.values().iterator().next())
+                        : List.of());
+    }
+}
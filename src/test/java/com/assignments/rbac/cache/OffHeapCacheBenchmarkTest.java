@@ -0,0 +1,159 @@
+package com.assignments.rbac.cache;
+
+import com.assignments.rbac.dto.CurrentUserResponse;
+import com.assignments.rbac.dto.RoleResponse;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GC cost of holding N {@code CurrentUserResponse} entries in the on-heap Caffeine cache versus
+ * the {@link OffHeapCache}, at 1M, 5M and 10M entries. For each store it reports the heap live
+ * after a full collection, the pause of that full collection, and the collections and GC time
+ * spent during a read workload that also allocates request-like garbage.
+ *
+ * Sizes that do not fit the configured heap or direct memory are skipped, so give the fork room:
+ * {@code mvn test -Pbenchmark -Dtest=OffHeapCacheBenchmarkTest -DargLine="-Xmx16g -XX:MaxDirectMemorySize=12g"}.
+ * {@code -Dbenchmark.cache.entries=1000000} runs a single size.
+ */
+@Tag("benchmark")
+class OffHeapCacheBenchmarkTest {
+
+    private static final long ESTIMATED_HEAP_BYTES_PER_ENTRY = 800;
+    private static final long ESTIMATED_DIRECT_BYTES_PER_ENTRY = 1_100;
+    private static final int READS = 2_000_000;
+
+    private final List<RoleResponse> roles = List.of(role(1L, "USER"), role(2L, "ADMIN"));
+
+    @Test
+    void gcImpactOnHeapVersusOffHeap() {
+        int runs = 0;
+        for (String size : System.getProperty("benchmark.cache.entries", "1000000,5000000,10000000").split(",")) {
+            int entries = Integer.parseInt(size.trim());
+            runs += run("on-heap ", entries, ESTIMATED_HEAP_BYTES_PER_ENTRY * entries, 0,
+                    () -> new CaffeineCache("userCache", Caffeine.newBuilder().maximumSize(entries).build()));
+            runs += run("off-heap", entries, 0, ESTIMATED_DIRECT_BYTES_PER_ENTRY * entries,
+                    () -> new OffHeapCache("userCache", ESTIMATED_DIRECT_BYTES_PER_ENTRY * entries, 256, Duration.ZERO));
+        }
+        assertTrue(runs > 0, "No size fits this JVM; raise -Xmx and -XX:MaxDirectMemorySize");
+    }
+
+    private int run(String store, int entries, long heapNeeded, long directNeeded, Supplier<Cache> factory) {
+        if (heapNeeded + (64L << 20) > Runtime.getRuntime().maxMemory() || directNeeded > maxDirectMemory()) {
+            System.out.printf("%s %,11d entries: skipped, needs ~%,d MB heap and ~%,d MB direct memory%n",
+                    store, entries, heapNeeded >> 20, directNeeded >> 20);
+            return 0;
+        }
+        fullGc();
+        long baselineHeap = usedHeap();
+
+        Cache cache = factory.get();
+        long fillStart = System.nanoTime();
+        for (int i = 0; i < entries; i++) {
+            cache.put(email(i), user(i));
+        }
+        long fillNanos = System.nanoTime() - fillStart;
+
+        long liveHeap = fullGc() - baselineHeap;
+        long pauseStart = System.nanoTime();
+        System.gc();
+        long fullGcMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pauseStart);
+
+        long[] gcBefore = gcCountAndMillis();
+        long readStart = System.nanoTime();
+        long found = 0;
+        List<byte[]> garbage = new ArrayList<>();
+        for (int i = 0; i < READS; i++) {
+            Cache.ValueWrapper value = cache.get(email(ThreadLocalRandom.current().nextInt(entries)));
+            if (value != null) {
+                found++;
+            }
+            // Stand-in for the rest of a request's allocations.
+            garbage.add(new byte[256]);
+            if (garbage.size() == 1_000) {
+                garbage.clear();
+            }
+        }
+        long readNanos = System.nanoTime() - readStart;
+        long[] gcAfter = gcCountAndMillis();
+
+        String direct = cache instanceof OffHeapCache offHeap
+                ? String.format(", direct %,d MB", offHeap.allocatedBytes() >> 20) : "";
+        System.out.printf("%s %,11d entries: fill %,6d ms, live heap %,6d MB%s, full GC %,5d ms, "
+                        + "%,d reads at %,.0f ns/read with %d collections / %,d ms GC (%,d found)%n",
+                store, entries, TimeUnit.NANOSECONDS.toMillis(fillNanos), liveHeap >> 20, direct, fullGcMillis,
+                READS, (double) readNanos / READS, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1], found);
+
+        cache.clear();
+        return 1;
+    }
+
+    private CurrentUserResponse user(int i) {
+        CurrentUserResponse user = new CurrentUserResponse();
+        user.setId((long) i);
+        user.setName("User " + i);
+        user.setUsername("user" + i);
+        user.setEmail(email(i));
+        user.setRoles(new LinkedHashSet<>(i % 10 == 0 ? roles : roles.subList(0, 1)));
+        user.setCreatedBy("system");
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(i));
+        return user;
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@example.com";
+    }
+
+    private static RoleResponse role(Long id, String name) {
+        RoleResponse role = new RoleResponse();
+        role.setId(id);
+        role.setName(name);
+        role.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return role;
+    }
+
+    private static long fullGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return usedHeap();
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long[] gcCountAndMillis() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[] {count, millis};
+    }
+
+    private static long maxDirectMemory() {
+        String configured = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+                .getVMOption("MaxDirectMemorySize").getValue();
+        long bytes = Long.parseLong(configured);
+        return bytes > 0 ? bytes : Runtime.getRuntime().maxMemory();
+    }
+}
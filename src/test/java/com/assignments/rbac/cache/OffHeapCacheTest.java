@@ -0,0 +1,148 @@
+package com.assignments.rbac.cache;
+
+import com.assignments.rbac.dto.CurrentUserResponse;
+import com.assignments.rbac.dto.RoleResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void putAndGet_RoundTripsValuesAcrossKeyTypes() {
+        OffHeapCache cache = cache(1 << 20, 256, Duration.ZERO);
+        CurrentUserResponse user = new CurrentUserResponse();
+        user.setId(7L);
+        user.setEmail("a@example.com");
+        RoleResponse role = new RoleResponse();
+        role.setId(1L);
+        role.setName("ADMIN");
+        user.setRoles(Set.of(role));
+
+        cache.put("a@example.com", user);
+        cache.put(7L, Set.of(1L, 2L));
+        cache.put(new SimpleKey("a", 1), "composite");
+        cache.put("nothing", null);
+
+        assertEquals(user, cache.get("a@example.com", CurrentUserResponse.class));
+        assertEquals(Set.of(1L, 2L), cache.get(7L).get());
+        assertEquals("composite", cache.get(new SimpleKey("a", 1)).get());
+        assertNotNull(cache.get("nothing"));
+        assertNull(cache.get("nothing").get());
+        assertNull(cache.get("b@example.com"));
+        assertNull(cache.get("7"));
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    void put_ValueLargerThanAChunk_SpansChunksAndReplacesOldValue() {
+        OffHeapCache cache = cache(1 << 20, 64, Duration.ZERO);
+        String large = "x".repeat(5_000);
+
+        cache.put("key", "small");
+        cache.put("key", large);
+
+        assertEquals(large, cache.get("key").get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void put_WhenFull_EvictsLeastRecentlyUsed() {
+        // 16 segments of four 64-byte chunks; every entry fits one chunk.
+        OffHeapCache cache = cache(16 * 4 * 64, 64, Duration.ZERO);
+
+        cache.put("hot", "v");
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("k" + i, "v");
+            assertNotNull(cache.get("hot"), "hot key evicted after " + i + " puts");
+        }
+
+        assertTrue(cache.size() <= 64);
+        assertTrue(cache.evictionCount() >= 1_000 - 64);
+        assertEquals(16 * 4 * 64, cache.allocatedBytes());
+    }
+
+    @Test
+    void put_LargerThanASegment_IsRejectedAndDropsThePreviousValue() {
+        OffHeapCache cache = cache(16 * 4 * 64, 64, Duration.ZERO);
+        cache.put("key", "small");
+
+        cache.put("key", "x".repeat(1_000));
+
+        assertNull(cache.get("key"));
+        assertEquals(1, cache.rejectedCount());
+    }
+
+    @Test
+    void get_AfterTtl_Misses() {
+        OffHeapCache cache = cache(1 << 20, 256, Duration.ofMinutes(5));
+        cache.put("key", "value");
+
+        nanos.addAndGet(Duration.ofMinutes(4).toNanos());
+        assertEquals("value", cache.get("key").get());
+
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertNull(cache.get("key"));
+        assertEquals(1, cache.expiredCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictAndClear_RemoveEntriesAndFreeTheirChunks() {
+        OffHeapCache cache = cache(16 * 4 * 64, 64, Duration.ZERO);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        assertTrue(cache.evictIfPresent("a"));
+        assertFalse(cache.evictIfPresent("a"));
+        assertNull(cache.get("a"));
+        assertEquals("2", cache.get("b").get());
+
+        cache.clear();
+        assertNull(cache.get("b"));
+        assertEquals(0, cache.size());
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("k" + i, "v");
+        }
+        assertEquals(0, cache.rejectedCount());
+    }
+
+    @Test
+    void randomOperations_MatchAMap() {
+        OffHeapCache cache = cache(64L << 20, 64, Duration.ZERO);
+        Map<String, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            String key = "user" + random.nextInt(20_000) + "@example.com";
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    String value = "v".repeat(random.nextInt(200)) + i;
+                    cache.put(key, value);
+                    expected.put(key, value);
+                }
+                case 1 -> assertEquals(expected.remove(key) != null, cache.evictIfPresent(key));
+                default -> {
+                    String value = expected.get(key);
+                    assertEquals(value, value == null ? cache.get(key) : cache.get(key).get());
+                }
+            }
+        }
+        assertEquals(expected.size(), cache.size());
+        assertEquals(0, cache.evictionCount());
+    }
+
+    private OffHeapCache cache(long maxBytes, int chunkSize, Duration ttl) {
+        return new OffHeapCache("users", maxBytes, chunkSize, ttl, nanos::get);
+    }
+}
@@ -0,0 +1,116 @@
+package com.assignments.rbac.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshAheadCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final CacheInvalidationBroadcaster broadcaster = new CacheInvalidationBroadcaster(null, 20, 500);
+    private InvalidatingCache invalidating;
+    private RefreshAheadCache cache;
+
+    @BeforeEach
+    void setUp() {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .ticker(nanos::get)
+                .executor(Runnable::run)
+                .build();
+        invalidating = new InvalidatingCache(new CaffeineCache("users", nativeCache), broadcaster, key -> key);
+        cache = new RefreshAheadCache(invalidating, nativeCache.policy().expireAfterWrite().orElseThrow(), 0.8,
+                scheduled::add, meterRegistry);
+        cache.setReloader(key -> "reloaded");
+    }
+
+    @Test
+    void freshEntry_IsNotRefreshed() {
+        cache.get("a@example.com", () -> "v1");
+        advance(Duration.ofMinutes(7));
+
+        assertEquals("v1", cache.get("a@example.com", () -> "v2"));
+        assertTrue(scheduled.isEmpty());
+    }
+
+    @Test
+    void entryReadPastThreshold_ServesOldValueAndReloadsInBackground() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.setReloader(key -> "v" + loads.incrementAndGet());
+        cache.get("a@example.com", () -> "v" + loads.incrementAndGet());
+        advance(Duration.ofMinutes(9));
+
+        assertEquals("v1", cache.get("a@example.com", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get("a@example.com", () -> "v" + loads.incrementAndGet()));
+        assertEquals(1, scheduled.size());
+
+        scheduled.get(0).run();
+        advance(Duration.ofMinutes(5));
+
+        // The refreshed entry restarted its TTL; without the refresh it would have expired by now.
+        assertEquals("v2", cache.get("a@example.com", () -> "v" + loads.incrementAndGet()));
+        assertEquals(1, meterRegistry.get("cache.refreshes").tag("result", "success").counter().count());
+    }
+
+    @Test
+    void refresh_InvalidatedWhileLoading_DoesNotReinstateValue() {
+        cache.setReloader(key -> {
+            invalidating.evict(key);
+            return "stale";
+        });
+        cache.get("a@example.com", () -> "v1");
+        advance(Duration.ofMinutes(9));
+        cache.get("a@example.com", () -> "unused");
+
+        scheduled.get(0).run();
+
+        assertNull(cache.get("a@example.com"));
+    }
+
+    @Test
+    void withoutReloader_EntryIsNotRefreshed() {
+        cache.setReloader(null);
+        cache.get("a@example.com", () -> "v1");
+        advance(Duration.ofMinutes(9));
+
+        // The caller's loader is never replayed in the background.
+        assertEquals("v1", cache.get("a@example.com", () -> "v2"));
+        assertTrue(scheduled.isEmpty());
+    }
+
+    @Test
+    void saturatedExecutor_SkipsRefresh() {
+        cache = new RefreshAheadCache(invalidating, nativePolicy(), 0.8, task -> {
+            throw new RejectedExecutionException("full");
+        }, meterRegistry);
+        cache.setReloader(key -> "v2");
+        cache.get("a@example.com", () -> "v1");
+        advance(Duration.ofMinutes(9));
+
+        assertEquals("v1", cache.get("a@example.com", () -> "v2"));
+        assertEquals(1, meterRegistry.get("cache.refreshes").tag("result", "rejected").counter().count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private com.github.benmanes.caffeine.cache.Policy.FixedExpiration<Object, Object> nativePolicy() {
+        return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) invalidating.getNativeCache())
+                .policy().expireAfterWrite().orElseThrow();
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
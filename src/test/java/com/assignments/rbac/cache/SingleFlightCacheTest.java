@@ -0,0 +1,118 @@
+package com.assignments.rbac.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentMisses_ShareOneLoad() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("users"), 5_000, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        Future<String> leader = callers.submit(() -> cache.get("a@example.com", () -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return "profile";
+        }));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+        List<Future<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            waiters.add(callers.submit(() -> cache.get("a@example.com", () -> {
+                loads.incrementAndGet();
+                return "duplicate";
+            })));
+        }
+        awaitWaiters(5);
+        releaseLoad.countDown();
+
+        assertEquals("profile", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> waiter : waiters) {
+            assertEquals("profile", waiter.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(5, meterRegistry.get("cache.singleflight.waits").tag("outcome", "coalesced").timer().count());
+        assertEquals("profile", cache.get("a@example.com").get());
+        assertEquals(0, cache.inFlightCount());
+    }
+
+    @Test
+    void waiter_PastTimeout_LoadsItself() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("users"), 50, meterRegistry);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        Future<String> leader = callers.submit(() -> cache.get("a@example.com", () -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return "slow";
+        }));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+        assertEquals("fast", cache.get("a@example.com", () -> "fast"));
+
+        releaseLoad.countDown();
+        assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("cache.singleflight.waits").tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    void failedLoad_FailsWaitersAndIsNotCached() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("users"), 5_000, meterRegistry);
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        Future<String> leader = callers.submit(() -> cache.get("a@example.com", () -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+        Future<String> waiter = callers.submit(() -> cache.get("a@example.com", () -> "unused"));
+        awaitWaiters(1);
+        releaseLoad.countDown();
+
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception waiterFailure = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(Cache.ValueRetrievalException.class, leaderFailure.getCause());
+        assertInstanceOf(Cache.ValueRetrievalException.class, waiterFailure.getCause());
+        assertNull(cache.get("a@example.com"));
+        assertEquals(1, meterRegistry.get("cache.loads").tag("result", "failure").timer().count());
+    }
+
+    @Test
+    void hit_DoesNotRunLoader() {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("users"), 5_000, meterRegistry);
+        cache.put("a@example.com", "cached");
+
+        assertEquals("cached", cache.get("a@example.com", () -> fail("loader must not run")));
+    }
+
+    /** Waiters block inside the future; give them a moment to get there. */
+    private static void awaitWaiters(int count) throws InterruptedException {
+        Thread.sleep(100L + 20L * count);
+    }
+}
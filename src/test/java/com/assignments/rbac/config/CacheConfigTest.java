@@ -0,0 +1,130 @@
+package com.assignments.rbac.config;
+
+import com.assignments.rbac.cache.CacheInvalidationBroadcaster;
+import com.assignments.rbac.cache.InvalidatingCache;
+import com.assignments.rbac.cache.RefreshAheadCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadPoolExecutor refreshExecutor = new CacheConfig().cacheRefreshExecutor(1, 1);
+
+    @AfterEach
+    void tearDown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Test
+    void cacheManager_AppliesSpecPerCacheName() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.cache.specs.userCache", "maximumSize=42,expireAfterWrite=1m")
+                .withProperty("app.cache.specs.otherCache", "maximumSize=7,expireAfterAccess=30s");
+
+        CacheManager cacheManager = cacheManager(environment);
+
+        assertEquals(42, maximumSize(cacheManager, "userCache"));
+        assertEquals(7, maximumSize(cacheManager, "otherCache"));
+        assertTrue(nativeCache(cacheManager, "userCache").policy().expireAfterWrite().isPresent());
+        assertEquals(3, maximumSize(cacheManager, "unlistedCache"));
+        assertInstanceOf(InvalidatingCache.class, cacheManager.getCache("unlistedCache"));
+    }
+
+    @Test
+    void cacheManager_CreatesKnownCachesWithDefaultSpecWhenUnlisted() {
+        CacheManager cacheManager = cacheManager(new MockEnvironment());
+
+        assertTrue(cacheManager.getCacheNames().containsAll(
+                Set.of(CacheConfig.USER_CACHE, CacheConfig.USER_ROLES_CACHE, CacheConfig.ROLES_CACHE)));
+        assertEquals(3, maximumSize(cacheManager, CacheConfig.USER_CACHE));
+    }
+
+    @Test
+    void cacheManager_RecordsMetricsPerCache() {
+        CacheManager cacheManager = cacheManager(new MockEnvironment());
+        org.springframework.cache.Cache cache = cacheManager.getCache(CacheConfig.USER_CACHE);
+
+        assertNull(cache.get("a@example.com"));
+        cache.put("a@example.com", "profile");
+        assertNotNull(cache.get("a@example.com"));
+
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "userCache").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "userCache").tag("result", "miss").counter().count());
+        assertEquals(1, meterRegistry.get("cache.loads").tag("cache", "userCache").tag("result", "success").timer().count());
+        assertEquals(1, meterRegistry.get("cache.size").tag("cache", "userCache").gauge().value());
+    }
+
+    @Test
+    void cacheManager_WrapsRefreshAheadCachesWithWriteExpiry() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.cache.specs.userCache", "maximumSize=42,expireAfterWrite=1m")
+                .withProperty("app.cache.specs.otherCache", "maximumSize=7,expireAfterAccess=30s");
+
+        CacheManager cacheManager = new CacheConfig().cacheManager(environment, "maximumSize=3", 2000,
+                Set.of(CacheConfig.USER_CACHE, "otherCache"), 0.8, refreshExecutor, Set.of(), DataSize.ofMegabytes(1), 256,
+                localOnly(), meterRegistry());
+
+        assertInstanceOf(RefreshAheadCache.class, cacheManager.getCache(CacheConfig.USER_CACHE));
+        assertInstanceOf(InvalidatingCache.class, cacheManager.getCache("otherCache"));
+        assertInstanceOf(InvalidatingCache.class, cacheManager.getCache(CacheConfig.ROLES_CACHE));
+    }
+
+    @Test
+    void cacheManager_OffHeapTier_ServesEntriesTheHeapTierEvicted() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.cache.specs.userCache", "maximumSize=1,expireAfterWrite=5m");
+        CacheManager cacheManager = new CacheConfig().cacheManager(environment, "maximumSize=3", 2000, Set.of(), 0.8,
+                refreshExecutor, Set.of(CacheConfig.USER_CACHE), DataSize.ofMegabytes(1), 256, localOnly(), meterRegistry());
+        org.springframework.cache.Cache cache = cacheManager.getCache(CacheConfig.USER_CACHE);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("user" + i + "@example.com", "profile" + i);
+        }
+        nativeCache(cacheManager, CacheConfig.USER_CACHE).cleanUp();
+
+        assertTrue(nativeCache(cacheManager, CacheConfig.USER_CACHE).estimatedSize() <= 1);
+        assertEquals("profile42", cache.get("user42@example.com", String.class));
+        assertEquals(100, meterRegistry.get("cache.offheap.size").tag("cache", "userCache").gauge().value());
+
+        cache.evict("user42@example.com");
+        assertNull(cache.get("user42@example.com"));
+    }
+
+    private CacheManager cacheManager(MockEnvironment environment) {
+        return new CacheConfig().cacheManager(environment, "maximumSize=3", 2000, Set.of(), 0.8, refreshExecutor,
+                Set.of(), DataSize.ofMegabytes(1), 256, localOnly(), meterRegistry());
+    }
+
+    private ObjectProvider<MeterRegistry> meterRegistry() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        return beanFactory.getBeanProvider(MeterRegistry.class);
+    }
+
+    private static CacheInvalidationBroadcaster localOnly() {
+        return new CacheInvalidationBroadcaster(null, 20, 500);
+    }
+
+    private static long maximumSize(CacheManager cacheManager, String name) {
+        return nativeCache(cacheManager, name).policy().eviction().orElseThrow().getMaximum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String name) {
+        return (Cache<Object, Object>) cacheManager.getCache(name).getNativeCache();
+    }
+}
@@ -0,0 +1,37 @@
+package com.assignments.rbac.config;
+
+import com.assignments.rbac.util.SnowflakeIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdGeneratorConfigTest {
+
+    private final SnowflakeIdGenerator previousDefault = SnowflakeIdGenerator.getDefault();
+
+    @AfterEach
+    void tearDown() {
+        SnowflakeIdGenerator.setDefault(previousDefault);
+    }
+
+    @Test
+    void explicitNodeId_IsUsed() {
+        SnowflakeIdGenerator generator = new IdGeneratorConfig().snowflakeIdGenerator(17, true);
+
+        assertEquals(17, generator.getNodeId());
+        assertSame(generator, SnowflakeIdGenerator.getDefault());
+    }
+
+    @Test
+    void missingNodeId_FailsWhenRequired() {
+        assertThrows(IllegalStateException.class, () -> new IdGeneratorConfig().snowflakeIdGenerator(-1, true));
+    }
+
+    @Test
+    void missingNodeId_IsDerivedWhenNotRequired() {
+        SnowflakeIdGenerator generator = new IdGeneratorConfig().snowflakeIdGenerator(-1, false);
+
+        assertEquals(SnowflakeIdGenerator.deriveNodeId(), generator.getNodeId());
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.test.context.jdbc.Sql;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.containers.MySQLContainer;
@@ -33,6 +34,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Testcontainers
 @Transactional
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+// Fixtures are written straight through the repositories, so read stats from the database rather than the counters
+@TestPropertySource(properties = "app.stats.source=database")
 @Sql(executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD, statements = {
     "SET FOREIGN_KEY_CHECKS = 0",
     "TRUNCATE TABLE user_roles",
@@ -160,6 +163,10 @@ class AdminControllerIntegrationTest {
                 .andExpect(jsonPath("$.data").exists())
                 .andExpect(jsonPath("$.data.totalUsers").value(4)) // admin + 3 regular users
                 .andExpect(jsonPath("$.data.totalRoles").value(2)) // ADMIN + USER roles
+                .andExpect(jsonPath("$.data.activeUsers").value(0))
+                .andExpect(jsonPath("$.data.neverLoggedInUsers").value(4))
+                .andExpect(jsonPath("$.data.usersByRole.ADMIN").value(1))
+                .andExpect(jsonPath("$.data.usersByRole.USER").value(3))
                 .andExpect(jsonPath("$.error").doesNotExist());
     }
 
@@ -257,7 +264,50 @@ class AdminControllerIntegrationTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.totalUsers").value(4)) // Still 4 users
                 .andExpect(jsonPath("$.data.totalRoles").value(3)) // Now 3 roles
+                .andExpect(jsonPath("$.data.usersByRole.MANAGER").value(0))
                 .andExpect(jsonPath("$.error").doesNotExist());
     }
-}
 
+    // Test keyset pagination of the admin user listing
+    @Test
+    void listUsers_WithAdminToken_PagesThroughAllUsers() throws Exception {
+        String firstPage = mockMvc.perform(get("/api/admin/users")
+                .param("size", "3")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.content.length()").value(3))
+                .andExpect(jsonPath("$.data.content[0].roles").isArray())
+                .andExpect(jsonPath("$.data.hasMore").value(true))
+                .andExpect(jsonPath("$.data.nextCursor").isString())
+                .andReturn().getResponse().getContentAsString();
+
+        String nextCursor = objectMapper.readTree(firstPage).path("data").path("nextCursor").asText();
+
+        mockMvc.perform(get("/api/admin/users")
+                .param("size", "3")
+                .param("cursor", nextCursor)
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.hasMore").value(false))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+    }
+
+    // Test admin user listing with non-admin token
+    @Test
+    void listUsers_WithUserToken_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/admin/users")
+                .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+    }
+
+    // Test admin user listing with a malformed cursor
+    @Test
+    void listUsers_WithMalformedCursor_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/admin/users")
+                .param("cursor", "not-a-cursor")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+    }
+}
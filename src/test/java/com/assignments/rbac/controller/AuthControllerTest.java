@@ -7,6 +7,7 @@ import com.assignments.rbac.dto.UserRegistrationRequest;
 import com.assignments.rbac.dto.UserResponse;
 import com.assignments.rbac.exception.UserAlreadyExistsException;
 import com.assignments.rbac.exception.UserNotFoundException;
+import com.assignments.rbac.service.HotKeyTracker;
 import com.assignments.rbac.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +37,9 @@ class AuthControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private HotKeyTracker hotKeyTracker;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -0,0 +1,56 @@
+package com.assignments.rbac.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BrokerCircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final BrokerCircuitBreaker breaker = new BrokerCircuitBreaker(3, 10_000, clock::get);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertTrue(breaker.isClosed());
+
+        breaker.recordFailure();
+
+        assertEquals(BrokerCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void admitsSingleProbeAfterOpenDuration() {
+        openBreaker();
+        clock.addAndGet(10_000);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(BrokerCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void failedProbeReopensAndSuccessfulProbeCloses() {
+        openBreaker();
+        clock.addAndGet(10_000);
+        breaker.tryAcquire();
+
+        breaker.recordFailure();
+        assertEquals(BrokerCircuitBreaker.State.OPEN, breaker.getState());
+
+        clock.addAndGet(10_000);
+        breaker.tryAcquire();
+        breaker.recordSuccess();
+        assertTrue(breaker.isClosed());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+    }
+}
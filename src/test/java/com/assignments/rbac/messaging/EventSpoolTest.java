@@ -0,0 +1,91 @@
+package com.assignments.rbac.messaging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void drain_ReturnsEntriesInAppendOrder() throws Exception {
+        try (EventSpool spool = new EventSpool(directory, 4096)) {
+            for (int i = 0; i < 5; i++) {
+                spool.append(entry(i));
+            }
+
+            List<String> bodies = new ArrayList<>();
+            int drained = spool.drain(10, e -> bodies.add(new String(e.body(), StandardCharsets.UTF_8)));
+
+            assertEquals(5, drained);
+            assertEquals(List.of("event-0", "event-1", "event-2", "event-3", "event-4"), bodies);
+            assertFalse(spool.hasPending());
+        }
+    }
+
+    @Test
+    void drain_RollsAcrossSegments() throws Exception {
+        try (EventSpool spool = new EventSpool(directory, 128)) {
+            for (int i = 0; i < 50; i++) {
+                spool.append(entry(i));
+            }
+
+            List<String> bodies = new ArrayList<>();
+            spool.drain(100, e -> bodies.add(new String(e.body(), StandardCharsets.UTF_8)));
+
+            assertEquals(50, bodies.size());
+            assertEquals("event-49", bodies.get(49));
+        }
+    }
+
+    @Test
+    void drain_StopsAtFailureAndKeepsEntry() throws Exception {
+        try (EventSpool spool = new EventSpool(directory, 4096)) {
+            spool.append(entry(0));
+            spool.append(entry(1));
+
+            assertThrows(IllegalStateException.class, () -> spool.drain(10, e -> {
+                throw new IllegalStateException("broker down");
+            }));
+            assertEquals(2, spool.pendingCount());
+
+            List<String> bodies = new ArrayList<>();
+            spool.drain(10, e -> bodies.add(new String(e.body(), StandardCharsets.UTF_8)));
+            assertEquals(List.of("event-0", "event-1"), bodies);
+        }
+    }
+
+    @Test
+    void recover_ResumesFromCheckpointAfterRestart() throws Exception {
+        try (EventSpool spool = new EventSpool(directory, 256)) {
+            for (int i = 0; i < 20; i++) {
+                spool.append(entry(i));
+            }
+            spool.drain(7, e -> { });
+        }
+
+        try (EventSpool reopened = new EventSpool(directory, 256)) {
+            assertEquals(13, reopened.pendingCount());
+
+            List<String> bodies = new ArrayList<>();
+            reopened.drain(100, e -> bodies.add(new String(e.body(), StandardCharsets.UTF_8)));
+            assertEquals("event-7", bodies.get(0));
+            assertEquals("event-19", bodies.get(12));
+
+            reopened.append(entry(20));
+            assertEquals(1, reopened.pendingCount());
+        }
+    }
+
+    private EventSpool.Entry entry(int i) {
+        return new EventSpool.Entry("user.login", "com.example.Event", ("event-" + i).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,112 @@
+package com.assignments.rbac.messaging;
+
+import com.assignments.rbac.config.EventTopology;
+import com.assignments.rbac.config.RabbitMQConfig;
+import com.assignments.rbac.dto.events.UserLoginEvent;
+import com.assignments.rbac.dto.events.UserRegistrationEvent;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Publish throughput of each {@link EventTopology} against the in-memory stand-in, with the
+ * pre-deduplication layout (per-type queues plus a {@code user.*} catch-all) as the baseline.
+ * The stream layout is read by three independent consumers. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class EventTopologyBenchmarkTest {
+
+    private static final int PUBLISHERS = 4;
+    private static final int EVENTS_PER_PUBLISHER = 250_000;
+    private static final int STREAM_CONSUMERS = 3;
+
+    private final TopicExchange exchange = new TopicExchange(RabbitMQConfig.USER_EVENTS_EXCHANGE);
+
+    @Test
+    void publishThroughputPerTopology() throws Exception {
+        run("duplicated (baseline)", duplicatedLayout(), 1);
+        for (EventTopology topology : EventTopology.values()) {
+            run(topology.name(), topology.declarables(exchange),
+                    topology == EventTopology.STREAM_FANOUT ? STREAM_CONSUMERS : 1);
+        }
+    }
+
+    private void run(String name, Declarables declarables, int consumersPerQueue) throws Exception {
+        LongAdder consumed = new LongAdder();
+        try (InMemoryEventBus bus = new InMemoryEventBus(declarables.getDeclarablesByType(Queue.class),
+                declarables.getDeclarablesByType(Binding.class), 65_536, InMemoryEventBus.OverflowPolicy.DROP_HEAD,
+                500, null)) {
+            for (String queue : bus.queueNames()) {
+                for (int c = 0; c < consumersPerQueue; c++) {
+                    bus.subscribe(queue, events -> consumed.add(events.size()));
+                }
+            }
+
+            UserLoginEvent login = new UserLoginEvent(1L, "bench", "bench@test.com", "Bench", List.of("USER"),
+                    LocalDateTime.now(), "127.0.0.1", "benchmark", true, null);
+            UserRegistrationEvent registration = new UserRegistrationEvent(1L, "bench", "bench@test.com", "Bench",
+                    LocalDateTime.now(), "127.0.0.1", "benchmark");
+
+            long start = System.nanoTime();
+            Thread[] publishers = new Thread[PUBLISHERS];
+            for (int p = 0; p < PUBLISHERS; p++) {
+                publishers[p] = new Thread(() -> {
+                    for (int i = 0; i < EVENTS_PER_PUBLISHER; i++) {
+                        // roughly four logins per registration
+                        if (i % 5 == 0) {
+                            bus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE,
+                                    RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY, registration);
+                        } else {
+                            bus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE,
+                                    RabbitMQConfig.USER_LOGIN_ROUTING_KEY, login);
+                        }
+                    }
+                });
+                publishers[p].start();
+            }
+            for (Thread publisher : publishers) {
+                publisher.join();
+            }
+            long publishNanos = System.nanoTime() - start;
+
+            long published = (long) PUBLISHERS * EVENTS_PER_PUBLISHER;
+            long stored = bus.stats().stream().mapToLong(InMemoryEventBus.QueueStats::published).sum();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (System.nanoTime() < deadline) {
+                long dropped = bus.stats().stream().mapToLong(InMemoryEventBus.QueueStats::dropped).sum();
+                long delivered = bus.stats().stream().mapToLong(InMemoryEventBus.QueueStats::delivered).sum();
+                if (delivered + dropped >= stored) {
+                    break;
+                }
+                Thread.sleep(10);
+            }
+
+            System.out.printf("%-22s %,d events in %5d ms (%,10.0f events/s), %,d queue copies, %,d consumer deliveries%n",
+                    name, published, TimeUnit.NANOSECONDS.toMillis(publishNanos),
+                    published / (publishNanos / 1e9), stored, consumed.sum());
+            if (!name.startsWith("duplicated")) {
+                assertEquals(published, stored);
+            }
+        }
+    }
+
+    private Declarables duplicatedLayout() {
+        Declarables perType = EventTopology.PER_TYPE.declarables(exchange);
+        Declarables consolidated = EventTopology.CONSOLIDATED.declarables(exchange);
+        List<Declarable> all = new ArrayList<>(perType.getDeclarables());
+        all.addAll(consolidated.getDeclarables());
+        return new Declarables(all);
+    }
+}
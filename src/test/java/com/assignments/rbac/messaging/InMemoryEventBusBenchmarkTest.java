@@ -0,0 +1,85 @@
+package com.assignments.rbac.messaging;
+
+import com.assignments.rbac.config.RabbitMQConfig;
+import com.assignments.rbac.dto.events.UserLoginEvent;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Single-machine throughput and latency of the in-memory event pipeline.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class InMemoryEventBusBenchmarkTest {
+
+    private static final int PUBLISHERS = 4;
+    private static final int EVENTS_PER_PUBLISHER = 250_000;
+
+    @Test
+    void publishThroughputAndDeliveryLatency() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TopicExchange exchange = new TopicExchange(RabbitMQConfig.USER_EVENTS_EXCHANGE);
+        Queue loginQueue = QueueBuilder.durable(RabbitMQConfig.USER_LOGIN_QUEUE).build();
+        Queue eventsQueue = QueueBuilder.durable(RabbitMQConfig.USER_EVENTS_QUEUE).build();
+        LongAdder consumed = new LongAdder();
+
+        try (InMemoryEventBus bus = new InMemoryEventBus(List.of(loginQueue, eventsQueue),
+                List.of(BindingBuilder.bind(loginQueue).to(exchange).with(RabbitMQConfig.USER_LOGIN_ROUTING_KEY),
+                        BindingBuilder.bind(eventsQueue).to(exchange).with("user.*")),
+                65_536, InMemoryEventBus.OverflowPolicy.DROP_HEAD, 500, registry)) {
+            bus.subscribe(RabbitMQConfig.USER_LOGIN_QUEUE, events -> consumed.add(events.size()));
+            bus.subscribe(RabbitMQConfig.USER_EVENTS_QUEUE, events -> consumed.add(events.size()));
+
+            UserLoginEvent event = new UserLoginEvent(1L, "bench", "bench@test.com", "Bench", List.of("USER"),
+                    LocalDateTime.now(), "127.0.0.1", "benchmark", true, null);
+
+            long start = System.nanoTime();
+            Thread[] publishers = new Thread[PUBLISHERS];
+            for (int p = 0; p < PUBLISHERS; p++) {
+                publishers[p] = new Thread(() -> {
+                    for (int i = 0; i < EVENTS_PER_PUBLISHER; i++) {
+                        bus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE, RabbitMQConfig.USER_LOGIN_ROUTING_KEY, event);
+                    }
+                });
+                publishers[p].start();
+            }
+            for (Thread publisher : publishers) {
+                publisher.join();
+            }
+            long publishNanos = System.nanoTime() - start;
+
+            long published = (long) PUBLISHERS * EVENTS_PER_PUBLISHER;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            long dropped = 0;
+            while (System.nanoTime() < deadline) {
+                dropped = bus.stats().stream().mapToLong(InMemoryEventBus.QueueStats::dropped).sum();
+                if (consumed.sum() + dropped >= published * 2) {
+                    break;
+                }
+                Thread.sleep(10);
+            }
+
+            System.out.printf("in-memory bus: %,d events published in %d ms (%,.0f events/s), %,d deliveries, %,d dropped%n",
+                    published, TimeUnit.NANOSECONDS.toMillis(publishNanos),
+                    published / (publishNanos / 1e9), consumed.sum(), dropped);
+            for (Timer timer : registry.find("events.inmemory.latency").timers()) {
+                System.out.printf("  %s latency: mean %.1f us, max %.1f us%n", timer.getId().getTag("queue"),
+                        timer.mean(TimeUnit.MICROSECONDS), timer.max(TimeUnit.MICROSECONDS));
+            }
+            assertTrue(consumed.sum() > 0);
+        }
+    }
+}
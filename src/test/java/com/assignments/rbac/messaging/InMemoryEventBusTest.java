@@ -0,0 +1,148 @@
+package com.assignments.rbac.messaging;
+
+import com.assignments.rbac.config.EventTopology;
+import com.assignments.rbac.config.RabbitMQConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryEventBusTest {
+
+    private final TopicExchange exchange = new TopicExchange(RabbitMQConfig.USER_EVENTS_EXCHANGE);
+    private final Queue eventsQueue = QueueBuilder.durable(RabbitMQConfig.USER_EVENTS_QUEUE).build();
+    private final Queue loginQueue = QueueBuilder.durable(RabbitMQConfig.USER_LOGIN_QUEUE).build();
+    private final Queue registrationQueue = QueueBuilder.durable(RabbitMQConfig.USER_REGISTRATION_QUEUE).build();
+
+    private InMemoryEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        if (bus != null) {
+            bus.close();
+        }
+    }
+
+    @Test
+    void topicMatcher_FollowsAmqpSemantics() {
+        assertTrue(TopicMatcher.matches("user.*", "user.login"));
+        assertFalse(TopicMatcher.matches("user.*", "user.login.failed"));
+        assertFalse(TopicMatcher.matches("user.*", "user"));
+        assertTrue(TopicMatcher.matches("user.#", "user"));
+        assertTrue(TopicMatcher.matches("user.#", "user.login.failed"));
+        assertTrue(TopicMatcher.matches("#.failed", "user.login.failed"));
+        assertFalse(TopicMatcher.matches("user.registration", "user.login"));
+    }
+
+    @Test
+    void publish_RoutesLikeRabbitMQConfig() throws Exception {
+        bus = newBus(1000, InMemoryEventBus.OverflowPolicy.DROP_HEAD);
+        List<Object> login = new CopyOnWriteArrayList<>();
+        List<Object> all = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(3);
+        bus.subscribe(RabbitMQConfig.USER_LOGIN_QUEUE, events -> {
+            login.addAll(events);
+            events.forEach(e -> delivered.countDown());
+        });
+        bus.subscribe(RabbitMQConfig.USER_EVENTS_QUEUE, events -> {
+            all.addAll(events);
+            events.forEach(e -> delivered.countDown());
+        });
+
+        bus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE, RabbitMQConfig.USER_LOGIN_ROUTING_KEY, "login-1");
+        bus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE, RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY, "registration-1");
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("login-1"), login);
+        assertEquals(List.of("login-1", "registration-1"), all);
+    }
+
+    @Test
+    void publish_DropsOldestWhenQueueIsFull() {
+        bus = newBus(2, InMemoryEventBus.OverflowPolicy.DROP_HEAD);
+
+        for (int i = 0; i < 5; i++) {
+            bus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE, RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY, "event-" + i);
+        }
+
+        InMemoryEventBus.QueueStats stats = stats(RabbitMQConfig.USER_REGISTRATION_QUEUE);
+        assertEquals(2, stats.depth());
+        assertEquals(3, stats.dropped());
+    }
+
+    @Test
+    void publish_RejectsWhenQueueIsFullAndPolicyRejects() {
+        bus = newBus(1, InMemoryEventBus.OverflowPolicy.REJECT_PUBLISH);
+
+        bus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE, RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY, "event-0");
+
+        assertThrows(IllegalStateException.class, () -> bus.publish(
+                RabbitMQConfig.USER_EVENTS_EXCHANGE, RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY, "event-1"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EventTopology.class)
+    void topology_StoresEachEventOnce(EventTopology topology) {
+        Declarables declarables = topology.declarables(exchange);
+        bus = new InMemoryEventBus(declarables.getDeclarablesByType(Queue.class),
+                declarables.getDeclarablesByType(Binding.class), 100, InMemoryEventBus.OverflowPolicy.DROP_HEAD, 50, null);
+
+        bus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE, RabbitMQConfig.USER_LOGIN_ROUTING_KEY, "login-1");
+        bus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE, RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY, "registration-1");
+
+        assertEquals(2, bus.stats().stream().mapToLong(InMemoryEventBus.QueueStats::published).sum());
+        long expectedOnLoginQueue = topology == EventTopology.PER_TYPE ? 1 : 2;
+        assertEquals(expectedOnLoginQueue, stats(topology.queueFor(RabbitMQConfig.USER_LOGIN_ROUTING_KEY)).published());
+    }
+
+    @Test
+    void streamTopology_DeliversEveryEventToEveryConsumer() throws Exception {
+        Declarables declarables = EventTopology.STREAM_FANOUT.declarables(exchange);
+        bus = new InMemoryEventBus(declarables.getDeclarablesByType(Queue.class),
+                declarables.getDeclarablesByType(Binding.class), 100, InMemoryEventBus.OverflowPolicy.DROP_HEAD, 50, null);
+        CountDownLatch delivered = new CountDownLatch(4);
+        List<Object> first = new CopyOnWriteArrayList<>();
+        List<Object> second = new CopyOnWriteArrayList<>();
+        bus.subscribe(RabbitMQConfig.USER_EVENTS_STREAM, events -> {
+            first.addAll(events);
+            events.forEach(e -> delivered.countDown());
+        });
+        bus.subscribe(RabbitMQConfig.USER_EVENTS_STREAM, events -> {
+            second.addAll(events);
+            events.forEach(e -> delivered.countDown());
+        });
+
+        bus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE, RabbitMQConfig.USER_LOGIN_ROUTING_KEY, "login-1");
+        bus.publish(RabbitMQConfig.USER_EVENTS_EXCHANGE, RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY, "registration-1");
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("login-1", "registration-1"), first);
+        assertEquals(first, second);
+    }
+
+    private InMemoryEventBus newBus(int capacity, InMemoryEventBus.OverflowPolicy policy) {
+        List<Binding> bindings = List.of(
+                BindingBuilder.bind(registrationQueue).to(exchange).with(RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY),
+                BindingBuilder.bind(loginQueue).to(exchange).with(RabbitMQConfig.USER_LOGIN_ROUTING_KEY),
+                BindingBuilder.bind(eventsQueue).to(exchange).with("user.*"));
+        return new InMemoryEventBus(List.of(eventsQueue, loginQueue, registrationQueue), bindings,
+                capacity, policy, 50, null);
+    }
+
+    private InMemoryEventBus.QueueStats stats(String queue) {
+        return bus.stats().stream().filter(s -> s.name().equals(queue)).findFirst().orElseThrow();
+    }
+}
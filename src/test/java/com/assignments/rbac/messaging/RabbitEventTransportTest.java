@@ -0,0 +1,140 @@
+package com.assignments.rbac.messaging;
+
+import com.assignments.rbac.config.RabbitMQConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RabbitEventTransportTest {
+
+    @TempDir
+    Path directory;
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final BrokerCircuitBreaker circuitBreaker = new BrokerCircuitBreaker(3, 30_000);
+    private EventSpool spool;
+    private RabbitEventTransport transport;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        spool = new EventSpool(directory, 4096);
+        transport = new RabbitEventTransport(rabbitTemplate, circuitBreaker, spool, 100);
+        when(rabbitTemplate.getMessageConverter()).thenReturn(new SimpleMessageConverter());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        spool.close();
+    }
+
+    @Test
+    void send_Confirmed_IsNotSpooled() throws Exception {
+        doAnswer(invocation -> confirm(invocation.getArgument(3), true))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        transport.send(RabbitMQConfig.USER_LOGIN_ROUTING_KEY, Map.of("userId", 1));
+
+        assertFalse(spool.hasPending());
+    }
+
+    @Test
+    void send_Nacked_IsSpooled() throws Exception {
+        doAnswer(invocation -> confirm(invocation.getArgument(3), false))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        transport.send(RabbitMQConfig.USER_LOGIN_ROUTING_KEY, "login");
+
+        assertEquals(1, spool.pendingCount());
+    }
+
+    @Test
+    void send_DoesNotWaitForConfirm() throws Exception {
+        CorrelationData[] correlation = new CorrelationData[1];
+        doAnswer(invocation -> correlation[0] = invocation.getArgument(3))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        transport.send(RabbitMQConfig.USER_LOGIN_ROUTING_KEY, "login");
+        assertFalse(spool.hasPending());
+
+        confirm(correlation[0], false);
+        assertEquals(1, spool.pendingCount());
+    }
+
+    @Test
+    void send_WithoutConfirm_IsSpooledAfterTimeout() throws Exception {
+        // The bytes reach the socket but the broker never confirms them.
+        transport.send(RabbitMQConfig.USER_LOGIN_ROUTING_KEY, "login");
+
+        for (int i = 0; i < 100 && !spool.hasPending(); i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, spool.pendingCount());
+    }
+
+    @Test
+    void send_Returned_IsDroppedWithoutTrippingBreaker() throws Exception {
+        doAnswer(invocation -> returnAndConfirm(invocation.getArgument(3)))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        for (int i = 0; i < 5; i++) {
+            transport.send("user.unbound", "event" + i);
+        }
+
+        assertFalse(spool.hasPending());
+        assertTrue(circuitBreaker.isClosed());
+    }
+
+    @Test
+    void replay_ReturnedEvent_DoesNotBlockLaterEvents() throws Exception {
+        spool.append(new EventSpool.Entry("user.unbound", null, "unroutable".getBytes()));
+        spool.append(new EventSpool.Entry(RabbitMQConfig.USER_LOGIN_ROUTING_KEY, null, "login".getBytes()));
+        doAnswer(invocation -> returnAndConfirm(invocation.getArgument(3)))
+                .doAnswer(invocation -> confirm(invocation.getArgument(3), true))
+                .when(rabbitTemplate).send(eq(RabbitMQConfig.USER_EVENTS_EXCHANGE), anyString(), any(Message.class),
+                        any(CorrelationData.class));
+
+        assertEquals(2, transport.replaySpooledEvents(10));
+
+        assertFalse(spool.hasPending());
+    }
+
+    @Test
+    void replay_KeepsEventsUntilConfirmed() throws Exception {
+        spool.append(new EventSpool.Entry(RabbitMQConfig.USER_LOGIN_ROUTING_KEY, null, "first".getBytes()));
+        spool.append(new EventSpool.Entry(RabbitMQConfig.USER_LOGIN_ROUTING_KEY, null, "second".getBytes()));
+        doAnswer(invocation -> confirm(invocation.getArgument(3), true))
+                .doAnswer(invocation -> null)
+                .when(rabbitTemplate).send(eq(RabbitMQConfig.USER_EVENTS_EXCHANGE), anyString(), any(Message.class),
+                        any(CorrelationData.class));
+
+        assertThrows(Exception.class, () -> transport.replaySpooledEvents(10));
+
+        assertEquals(1, spool.pendingCount());
+    }
+
+    private static Object returnAndConfirm(CorrelationData correlation) {
+        correlation.setReturned(new ReturnedMessage(new Message(new byte[0]), 312, "NO_ROUTE",
+                RabbitMQConfig.USER_EVENTS_EXCHANGE, "user.unbound"));
+        return confirm(correlation, true);
+    }
+
+    private static Object confirm(CorrelationData correlation, boolean ack) {
+        correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "rejected"));
+        return null;
+    }
+}
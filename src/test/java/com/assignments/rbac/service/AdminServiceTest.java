@@ -0,0 +1,224 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.dto.AdminStatsResponse;
+import com.assignments.rbac.dto.AdminUserSummary;
+import com.assignments.rbac.dto.CursorPageResponse;
+import com.assignments.rbac.dto.RoleResponse;
+import com.assignments.rbac.entity.User;
+import com.assignments.rbac.repository.RoleRepository;
+import com.assignments.rbac.repository.RoleUserCountView;
+import com.assignments.rbac.repository.UserLoginHistoryRepository;
+import com.assignments.rbac.repository.UserRepository;
+import com.assignments.rbac.repository.UserStatsView;
+import com.assignments.rbac.util.KeysetCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private UserRoleCache userRoleCache;
+
+    @Mock
+    private UserLoginHistoryRepository loginHistoryRepository;
+
+    @Mock
+    private StatsCounters statsCounters;
+
+    @Mock
+    private LoginAnalytics loginAnalytics;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @Spy
+    private StatsSectionExecutor statsSections = new StatsSectionExecutor(3, 8, 500, new SimpleMeterRegistry());
+
+    @InjectMocks
+    private AdminService adminService;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Test
+    void getAdminStats_UsesDatabaseAggregates() {
+        UserStatsView userStats = mock(UserStatsView.class);
+        when(userStats.getTotalUsers()).thenReturn(4L);
+        when(userStats.getActiveUsers()).thenReturn(1L);
+        when(userStats.getNeverLoggedIn()).thenReturn(2L);
+        when(userRepository.aggregateUserStats(any(LocalDateTime.class))).thenReturn(userStats);
+        RoleUserCountView admins = roleCount("ADMIN", 1L);
+        RoleUserCountView users = roleCount("USER", 3L);
+        RoleUserCountView managers = roleCount("MANAGER", 0L);
+        when(roleRepository.countUsersPerRole()).thenReturn(List.of(admins, users, managers));
+        when(loginHistoryRepository.countBySuccessfulTrueAndLoginAtGreaterThanEqual(any())).thenReturn(7L);
+
+        AdminStatsResponse stats = adminService.getAdminStats();
+
+        assertEquals(4L, stats.getTotalUsers());
+        assertEquals(3L, stats.getTotalRoles());
+        assertEquals(1L, stats.getActiveUsers());
+        assertEquals(2L, stats.getNeverLoggedInUsers());
+        assertEquals(Map.of("ADMIN", 1L, "USER", 3L, "MANAGER", 0L), stats.getUsersByRole());
+        assertEquals(7L, stats.getLoginsLast24h());
+        assertFalse(stats.getPartial());
+        assertTrue(stats.getMissingSections().isEmpty());
+        verify(userRepository, never()).findAll();
+        verify(roleRepository, never()).findRolesByUserId(any());
+    }
+
+    @Test
+    void getAdminStats_SlowSection_ReturnsPartialResponse() {
+        UserStatsView userStats = mock(UserStatsView.class);
+        when(userStats.getTotalUsers()).thenReturn(4L);
+        when(userRepository.aggregateUserStats(any(LocalDateTime.class))).thenReturn(userStats);
+        RoleUserCountView users = roleCount("USER", 3L);
+        when(roleRepository.countUsersPerRole()).thenReturn(List.of(users));
+        when(loginHistoryRepository.countBySuccessfulTrueAndLoginAtGreaterThanEqual(any())).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return 7L;
+        });
+
+        long start = System.nanoTime();
+        AdminStatsResponse stats = adminService.getAdminStats();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(stats.getPartial());
+        assertEquals(List.of("logins"), stats.getMissingSections());
+        assertNull(stats.getLoginsLast24h());
+        assertEquals(4L, stats.getTotalUsers());
+        assertEquals(Map.of("USER", 3L), stats.getUsersByRole());
+        assertTrue(elapsedMs < 1_500, "stats waited " + elapsedMs + " ms for the slow section");
+    }
+
+    @Test
+    void getAdminStats_FailedSection_ReturnsPartialResponse() {
+        UserStatsView userStats = mock(UserStatsView.class);
+        when(userRepository.aggregateUserStats(any(LocalDateTime.class))).thenReturn(userStats);
+        when(roleRepository.countUsersPerRole()).thenThrow(new IllegalStateException("boom"));
+        when(loginHistoryRepository.countBySuccessfulTrueAndLoginAtGreaterThanEqual(any())).thenReturn(1L);
+
+        AdminStatsResponse stats = adminService.getAdminStats();
+
+        assertTrue(stats.getPartial());
+        assertEquals(List.of("roles"), stats.getMissingSections());
+        assertNull(stats.getUsersByRole());
+        assertNull(stats.getTotalRoles());
+        assertEquals(1L, stats.getLoginsLast24h());
+    }
+
+    @Test
+    void getAdminStats_CountersInitialized_SkipsDatabase() {
+        when(statsCounters.isInitialized()).thenReturn(true);
+        when(statsCounters.snapshot(any())).thenReturn(
+                new StatsCounters.Snapshot(10L, 2L, 3L, 4L, Map.of("USER", 9L), 25L));
+
+        AdminStatsResponse stats = adminService.getAdminStats();
+
+        assertEquals(10L, stats.getTotalUsers());
+        assertEquals(3L, stats.getActiveUsers());
+        assertEquals(25L, stats.getLoginsLast24h());
+        verifyNoInteractions(userRepository, roleRepository, loginHistoryRepository);
+    }
+
+    @Test
+    void listUsers_FirstPage_LoadsRolesWithOneQueryAndReturnsCursor() {
+        User newest = user(3L, now);
+        User middle = user(2L, now.minusMinutes(1));
+        User oldest = user(1L, now.minusMinutes(2));
+        when(userRepository.findFirstUsersPage(any(Pageable.class))).thenReturn(List.of(newest, middle, oldest));
+        RoleResponse adminResponse = new RoleResponse();
+        adminResponse.setName("ADMIN");
+        when(userRoleCache.getRoles(anyCollection())).thenReturn(Map.of(3L, Set.of(adminResponse)));
+
+        CursorPageResponse<AdminUserSummary> page = adminService.listUsers(null, 2);
+
+        assertEquals(2, page.getSize());
+        assertTrue(page.isHasMore());
+        assertEquals(List.of(3L, 2L), page.getContent().stream().map(AdminUserSummary::getUserId).toList());
+        assertEquals(1, page.getContent().get(0).getRoles().size());
+        assertTrue(page.getContent().get(1).getRoles().isEmpty());
+        assertEquals(new KeysetCursor(middle.getCreatedAt(), 2L), KeysetCursor.decode(page.getNextCursor()));
+        verify(userRoleCache, times(1)).getRoles(List.of(3L, 2L));
+        verify(roleRepository, never()).findRolesByUserId(any());
+    }
+
+    @Test
+    void listUsers_WithCursor_ContinuesAfterPosition() {
+        KeysetCursor cursor = new KeysetCursor(now, 2L);
+        when(userRepository.findUsersPageAfter(eq(now), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(user(1L, now.minusMinutes(2))));
+
+        CursorPageResponse<AdminUserSummary> page = adminService.listUsers(cursor.encode(), 2);
+
+        assertEquals(1, page.getSize());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        verify(userRepository, never()).findFirstUsersPage(any());
+    }
+
+    @Test
+    void listUsers_MalformedCursor_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> adminService.listUsers("not-a-cursor", 20));
+    }
+
+    @Test
+    void listUsers_SizeOutOfRange_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> adminService.listUsers(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> adminService.listUsers(null, 101));
+    }
+
+    @Test
+    void searchUsers_RejectsBlankQueryAndBadLimit() {
+        assertThrows(IllegalArgumentException.class, () -> adminService.searchUsers("  ", 20));
+        assertThrows(IllegalArgumentException.class, () -> adminService.searchUsers("ali", 0));
+        assertThrows(IllegalArgumentException.class, () -> adminService.searchUsers("ali", 101));
+        verifyNoInteractions(userSearchIndex);
+    }
+
+    @Test
+    void getLoginAnalytics_RejectsOutOfRangeMinutes() {
+        assertThrows(IllegalArgumentException.class, () -> adminService.getLoginAnalytics(0));
+        assertThrows(IllegalArgumentException.class, () -> adminService.getLoginAnalytics(24 * 60 + 1));
+        verifyNoInteractions(loginAnalytics);
+    }
+
+    private User user(Long id, LocalDateTime createdAt) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@test.com");
+        user.setCreatedAt(createdAt);
+        return user;
+    }
+
+    private RoleUserCountView roleCount(String roleName, Long userCount) {
+        RoleUserCountView view = mock(RoleUserCountView.class);
+        when(view.getRoleName()).thenReturn(roleName);
+        when(view.getUserCount()).thenReturn(userCount);
+        return view;
+    }
+}
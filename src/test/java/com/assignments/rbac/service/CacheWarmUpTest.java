@@ -0,0 +1,134 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.config.CacheConfig;
+import com.assignments.rbac.dto.CurrentUserResponse;
+import com.assignments.rbac.dto.RoleResponse;
+import com.assignments.rbac.entity.User;
+import com.assignments.rbac.mapper.UserMapper;
+import com.assignments.rbac.repository.RecentUsersDao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmUpTest {
+
+    @Mock
+    private RecentUsersDao recentUsersDao;
+
+    @Mock
+    private UserRoleCache userRoleCache;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.USER_CACHE);
+    private Cache userCache;
+
+    @BeforeEach
+    void setUp() {
+        when(meterRegistryProvider.getIfAvailable(any())).thenReturn(meterRegistry);
+        userCache = cacheManager.getCache(CacheConfig.USER_CACHE);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void warmUp_CachesRecentUsersWithRolesLoadedPerBatch() {
+        List<User> users = List.of(user(1L), user(2L), user(3L));
+        doAnswer(invocation -> {
+            users.forEach(invocation.<Consumer<User>>getArgument(1));
+            return null;
+        }).when(recentUsersDao).streamRecentlyActiveUsers(eq(1000), any());
+        when(userRoleCache.getRoles(anyCollection())).thenAnswer(invocation -> {
+            Map<Long, Set<RoleResponse>> roles = new HashMap<>();
+            for (Long userId : invocation.<Collection<Long>>getArgument(0)) {
+                roles.put(userId, new LinkedHashSet<>(List.of(role(userId * 10))));
+            }
+            return roles;
+        });
+        when(userMapper.toCurrentUserResponse(any(User.class), anyList())).thenAnswer(invocation -> {
+            CurrentUserResponse response = new CurrentUserResponse();
+            response.setEmail(invocation.<User>getArgument(0).getEmail());
+            response.setRoles(new LinkedHashSet<>(invocation.<List<RoleResponse>>getArgument(1)));
+            return response;
+        });
+
+        assertEquals(3, warmUp(2).warmUp());
+
+        verify(userRoleCache, times(2)).getRoles(anyCollection());
+        CurrentUserResponse cached = userCache.get("user3@example.com", CurrentUserResponse.class);
+        assertNotNull(cached);
+        assertEquals(30L, cached.getRoles().iterator().next().getId());
+        assertEquals(3.0, meterRegistry.get("cache.warmup.users").gauge().value());
+        assertEquals(1, meterRegistry.get("cache.warmup").timer().count());
+    }
+
+    @Test
+    void warmUp_KeepsEntriesAlreadyCached() {
+        CurrentUserResponse live = new CurrentUserResponse();
+        userCache.put("user1@example.com", live);
+        doAnswer(invocation -> {
+            invocation.<Consumer<User>>getArgument(1).accept(user(1L));
+            return null;
+        }).when(recentUsersDao).streamRecentlyActiveUsers(eq(1000), any());
+        when(userRoleCache.getRoles(anyCollection())).thenReturn(Map.of());
+
+        assertEquals(0, warmUp(2).warmUp());
+
+        assertSame(live, userCache.get("user1@example.com", CurrentUserResponse.class));
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    void warmUpOnStartup_DatabaseFailure_DoesNotFailStartup() {
+        doThrow(new IllegalStateException("database unavailable"))
+                .when(recentUsersDao).streamRecentlyActiveUsers(anyInt(), any());
+
+        assertDoesNotThrow(() -> warmUp(2).warmUpOnStartup());
+        assertEquals(0.0, meterRegistry.get("cache.warmup.users").gauge().value());
+    }
+
+    private CacheWarmUp warmUp(int batchSize) {
+        return new CacheWarmUp(recentUsersDao, userRoleCache, userMapper, cacheManager,
+                true, 1000, batchSize, 2, 5000, meterRegistryProvider);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+
+    private static RoleResponse role(Long id) {
+        RoleResponse role = new RoleResponse();
+        role.setId(id);
+        return role;
+    }
+}
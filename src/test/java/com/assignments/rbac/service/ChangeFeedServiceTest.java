@@ -0,0 +1,92 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.dto.ChangeFeedResponse;
+import com.assignments.rbac.dto.RoleAssignmentChange;
+import com.assignments.rbac.dto.UserChange;
+import com.assignments.rbac.repository.ChangeFeedDao;
+import com.assignments.rbac.util.ChangeFeedCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+
+    @Mock
+    private ChangeFeedDao changeFeedDao;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private ChangeFeedService service() {
+        return new ChangeFeedService(changeFeedDao, 5000);
+    }
+
+    @Test
+    void firstCall_StartsFromBeginningAndAdvancesCursor() {
+        when(changeFeedDao.findUserChanges(eq(ChangeFeedCursor.START.usersUpdatedAt()), eq(0L), any(), eq(3)))
+                .thenReturn(List.of(userChange(1L, now), userChange(2L, now.plusSeconds(1)),
+                        userChange(3L, now.plusSeconds(2))));
+        when(changeFeedDao.findRoleChanges(any(), anyLong(), any(), eq(3)))
+                .thenReturn(List.of(roleChange(10L, now)));
+
+        ChangeFeedResponse response = service().getChanges(null, 2);
+
+        assertTrue(response.isHasMore());
+        assertEquals(List.of(1L, 2L), response.getUsers().stream().map(UserChange::getId).toList());
+        assertEquals(1, response.getRoleAssignments().size());
+
+        ChangeFeedCursor next = ChangeFeedCursor.decode(response.getNextCursor());
+        assertEquals(new ChangeFeedCursor(now.plusSeconds(1), 2L, now, 10L), next);
+    }
+
+    @Test
+    void nothingNew_ReturnsSameCursor() {
+        ChangeFeedCursor cursor = new ChangeFeedCursor(now, 5L, now.minusHours(1), 7L);
+        when(changeFeedDao.findUserChanges(eq(now), eq(5L), any(), anyInt())).thenReturn(List.of());
+        when(changeFeedDao.findRoleChanges(eq(now.minusHours(1)), eq(7L), any(), anyInt())).thenReturn(List.of());
+
+        ChangeFeedResponse response = service().getChanges(cursor.encode(), 100);
+
+        assertFalse(response.isHasMore());
+        assertEquals(cursor, ChangeFeedCursor.decode(response.getNextCursor()));
+    }
+
+    @Test
+    void changesInsideSettleWindow_AreHeldBack() {
+        when(changeFeedDao.findUserChanges(any(), anyLong(), any(), anyInt())).thenReturn(List.of());
+        when(changeFeedDao.findRoleChanges(any(), anyLong(), any(), anyInt())).thenReturn(List.of());
+
+        LocalDateTime before = LocalDateTime.now();
+        service().getChanges(null, 10);
+
+        verify(changeFeedDao).findUserChanges(any(), anyLong(),
+                argThat(until -> !until.isAfter(before.minusSeconds(4))), anyInt());
+    }
+
+    @Test
+    void invalidInput_IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service().getChanges("not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> service().getChanges(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service().getChanges(null, 501));
+        verifyNoInteractions(changeFeedDao);
+    }
+
+    private UserChange userChange(Long id, LocalDateTime updatedAt) {
+        return new UserChange(id, "user" + id, "user" + id + "@example.com", "User " + id, false, updatedAt);
+    }
+
+    private RoleAssignmentChange roleChange(Long id, LocalDateTime changedAt) {
+        return new RoleAssignmentChange(id, 1L, 2L, "USER", "ASSIGNED", changedAt, "admin@rbac.com");
+    }
+}
@@ -0,0 +1,66 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.config.RabbitMQConfig;
+import com.assignments.rbac.dto.events.UserLoginEvent;
+import com.assignments.rbac.messaging.EventTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EventPublisherServiceTest {
+
+    private final EventTransport eventTransport = mock(EventTransport.class);
+    private final EventPublisherService eventPublisherService = new EventPublisherService(eventTransport);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publish_InsideTransaction_WaitsForCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+
+        eventPublisherService.publishUserLoginEvent(loginEvent(true));
+        verify(eventTransport, never()).send(any(), any());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        verify(eventTransport).send(eq(RabbitMQConfig.USER_LOGIN_ROUTING_KEY), any(UserLoginEvent.class));
+    }
+
+    @Test
+    void publish_RolledBack_OnlySendsFailedLogins() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+
+        eventPublisherService.publishUserLoginEvent(loginEvent(true));
+        eventPublisherService.publishUserLoginEvent(loginEvent(false));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(eventTransport, times(1)).send(eq(RabbitMQConfig.USER_LOGIN_ROUTING_KEY),
+                argThat(event -> !((UserLoginEvent) event).isLoginSuccessful()));
+    }
+
+    @Test
+    void publish_WithoutTransaction_SendsImmediately() throws Exception {
+        eventPublisherService.publishUserLoginEvent(loginEvent(true));
+
+        verify(eventTransport).send(eq(RabbitMQConfig.USER_LOGIN_ROUTING_KEY), any(UserLoginEvent.class));
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private static UserLoginEvent loginEvent(boolean successful) {
+        return new UserLoginEvent(1L, "jane", "jane@test.com", "Jane", null, LocalDateTime.now(),
+                "127.0.0.1", "test", successful, successful ? null : "Invalid credentials");
+    }
+}
@@ -0,0 +1,80 @@
+package com.assignments.rbac.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAnalyticsTest {
+
+    private final LoginAnalytics analytics = new LoginAnalytics(11);
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 15, 12, 0, 30);
+
+    @Test
+    void repeatedLogins_CountDistinctUsers() {
+        for (int i = 0; i < 3; i++) {
+            analytics.recordSuccess(1L, now.minusMinutes(i));
+            analytics.recordSuccess(2L, now.minusMinutes(i));
+        }
+        analytics.recordFailure(now);
+
+        LoginAnalytics.Snapshot snapshot = analytics.snapshot(now, 5);
+        assertEquals(2, snapshot.dailyActiveUsers());
+        assertEquals(2, snapshot.weeklyActiveUsers());
+        assertEquals(2, snapshot.monthlyActiveUsers());
+        assertEquals(6, snapshot.successfulLast24h());
+        assertEquals(1, snapshot.failedLast24h());
+    }
+
+    @Test
+    void windows_DropOlderLogins() {
+        analytics.recordSuccess(1L, now);
+        analytics.recordSuccess(2L, now.minusDays(2));
+        analytics.recordSuccess(3L, now.minusDays(10));
+        analytics.recordSuccess(4L, now.minusDays(40));
+
+        LoginAnalytics.Snapshot snapshot = analytics.snapshot(now, 1);
+        assertEquals(1, snapshot.dailyActiveUsers());
+        assertEquals(2, snapshot.weeklyActiveUsers());
+        assertEquals(3, snapshot.monthlyActiveUsers());
+        assertEquals(1, snapshot.successfulLast24h());
+    }
+
+    @Test
+    void recycledSlot_ForgetsPreviousPeriod() {
+        analytics.recordSuccess(1L, now.minusDays(1));
+        analytics.recordSuccess(2L, now);
+
+        LoginAnalytics.Snapshot snapshot = analytics.snapshot(now, 1);
+        assertEquals(1, snapshot.dailyActiveUsers());
+        assertEquals(1, snapshot.successfulLast24h());
+    }
+
+    @Test
+    void lateTimestamp_ForRecycledSlot_IsIgnored() {
+        analytics.recordSuccess(1L, now);
+        analytics.recordSuccess(2L, now.minusDays(1));
+
+        assertEquals(1, analytics.snapshot(now, 1).dailyActiveUsers());
+    }
+
+    @Test
+    void series_HasOnePointPerMinuteEndingNow() {
+        analytics.recordSuccess(1L, now.minusMinutes(2));
+        analytics.recordSuccess(2L, now.minusMinutes(2));
+        analytics.recordFailure(now);
+
+        LoginAnalytics.Snapshot snapshot = analytics.snapshot(now, 3);
+        assertEquals(3, snapshot.series().size());
+        assertEquals(LocalDateTime.of(2025, 6, 15, 11, 58), snapshot.series().get(0).minute());
+        assertEquals(2, snapshot.series().get(0).successful());
+        assertEquals(0, snapshot.series().get(1).successful());
+        assertEquals(1, snapshot.series().get(2).failed());
+    }
+
+    @Test
+    void invalidPrecision_IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LoginAnalytics(20));
+    }
+}
@@ -0,0 +1,97 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.dto.events.UserLoginEvent;
+import com.assignments.rbac.entity.User;
+import com.assignments.rbac.entity.UserLoginHistory;
+import com.assignments.rbac.exception.UserNotFoundException;
+import com.assignments.rbac.mapper.LoginHistoryMapper;
+import com.assignments.rbac.repository.UserLoginHistoryBatchWriter;
+import com.assignments.rbac.repository.UserLoginHistoryRepository;
+import com.assignments.rbac.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginHistoryServiceTest {
+
+    @Mock
+    private UserLoginHistoryRepository loginHistoryRepository;
+
+    @Mock
+    private UserLoginHistoryBatchWriter loginHistoryBatchWriter;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LoginHistoryMapper loginHistoryMapper;
+
+    @InjectMocks
+    private LoginHistoryService loginHistoryService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordLoginEvents_WritesOneRowPerEventInASingleBatch() {
+        LocalDateTime loginAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+        UserLoginEvent success = new UserLoginEvent(1L, "john", "john@example.com", "John",
+                List.of("USER"), loginAt, "10.0.0.1", "curl/8.0", true, null);
+        UserLoginEvent failure = new UserLoginEvent(null, null, "john@example.com", null,
+                null, loginAt, "10.0.0.2", "x".repeat(300), false, "Invalid credentials");
+        User john = new User();
+        john.setId(1L);
+        john.setEmail("john@example.com");
+        when(userRepository.findByEmailIn(anyCollection())).thenReturn(List.of(john));
+        when(loginHistoryBatchWriter.insertAll(any())).thenReturn(2);
+
+        int inserted = loginHistoryService.recordLoginEvents(List.of(success, failure));
+
+        assertEquals(2, inserted);
+        ArgumentCaptor<List<UserLoginHistory>> rows = ArgumentCaptor.forClass(List.class);
+        verify(loginHistoryBatchWriter).insertAll(rows.capture());
+        assertEquals(2, rows.getValue().size());
+
+        UserLoginHistory first = rows.getValue().get(0);
+        assertNotNull(first.getId());
+        assertEquals(success.getEventId(), first.getEventId());
+        assertEquals(1L, first.getUserId());
+        assertTrue(first.isSuccessful());
+
+        UserLoginHistory second = rows.getValue().get(1);
+        assertEquals(1L, second.getUserId());
+        assertFalse(second.isSuccessful());
+        assertEquals("Invalid credentials", second.getFailureReason());
+        assertEquals(255, second.getUserAgent().length());
+    }
+
+    @Test
+    void recordLoginEvents_EmptyBatch_DoesNothing() {
+        assertEquals(0, loginHistoryService.recordLoginEvents(List.of()));
+
+        verifyNoInteractions(loginHistoryBatchWriter, userRepository);
+    }
+
+    @Test
+    void getLoginHistory_UnknownUser_ThrowsException() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> loginHistoryService.getLoginHistory(99L, 0, 20));
+        verifyNoInteractions(loginHistoryRepository);
+    }
+
+    @Test
+    void getLoginHistory_PageSizeTooLarge_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> loginHistoryService.getLoginHistory(1L, 0, 1000));
+    }
+}
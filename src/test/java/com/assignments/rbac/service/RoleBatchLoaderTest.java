@@ -0,0 +1,107 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.repository.RoleRepository;
+import com.assignments.rbac.repository.UserRoleView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoleBatchLoaderTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    private RoleBatchLoader loader;
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentLookups_EachRunTheirOwnQuery() throws Exception {
+        // Results are never shared: each caller's transaction has its own snapshot.
+        when(roleRepository.findRolesByUserIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> role(id, "ROLE_" + id)).toList();
+        });
+        loader = new RoleBatchLoader(roleRepository);
+
+        List<Future<List<String>>> lookups = new ArrayList<>();
+        for (long userId = 1; userId <= 6; userId++) {
+            long id = userId;
+            lookups.add(callers.submit(() -> loader.loadRoleNames(id)));
+        }
+
+        for (int i = 0; i < lookups.size(); i++) {
+            assertEquals(List.of("ROLE_" + (i + 1)), lookups.get(i).get(5, TimeUnit.SECONDS));
+        }
+        verify(roleRepository, times(6)).findRolesByUserIds(anyCollection());
+    }
+
+    @Test
+    void loadAll_GroupsRolesByUser() {
+        UserRoleView admin = role(1L, "ADMIN");
+        UserRoleView user = role(1L, "USER");
+        UserRoleView other = role(2L, "USER");
+        when(roleRepository.findRolesByUserIds(anyCollection())).thenReturn(List.of(admin, user, other));
+        loader = new RoleBatchLoader(roleRepository);
+
+        Map<Long, List<UserRoleView>> roles = loader.loadAll(List.of(1L, 2L, 3L));
+
+        assertEquals(List.of(admin, user), roles.get(1L));
+        assertEquals(List.of(other), roles.get(2L));
+        assertNull(roles.get(3L));
+        verify(roleRepository, times(1)).findRolesByUserIds(any());
+    }
+
+    @Test
+    void loadAll_EmptyInput_SkipsQuery() {
+        loader = new RoleBatchLoader(roleRepository);
+
+        assertTrue(loader.loadAll(List.of()).isEmpty());
+        verifyNoInteractions(roleRepository);
+    }
+
+    @Test
+    void load_QueriesOnCallersThread() {
+        Thread caller = Thread.currentThread();
+        List<Thread> queryThreads = new ArrayList<>();
+        when(roleRepository.findRolesByUserIds(anyCollection())).thenAnswer(invocation -> {
+            queryThreads.add(Thread.currentThread());
+            return List.of();
+        });
+        loader = new RoleBatchLoader(roleRepository);
+
+        assertEquals(List.of(), loader.load(7L));
+        // The caller's own connection runs the query; no second connection is needed.
+        assertEquals(List.of(caller), queryThreads);
+        verify(roleRepository).findRolesByUserIds(Set.of(7L));
+    }
+
+    private static UserRoleView role(Long userId, String name) {
+        UserRoleView view = mock(UserRoleView.class, withSettings().stubOnly());
+        lenient().when(view.getUserId()).thenReturn(userId);
+        lenient().when(view.getName()).thenReturn(name);
+        return view;
+    }
+}
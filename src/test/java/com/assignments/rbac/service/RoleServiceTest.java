@@ -6,12 +6,14 @@ import com.assignments.rbac.dto.RoleResponse;
 import com.assignments.rbac.dto.UserResponse;
 import com.assignments.rbac.entity.Role;
 import com.assignments.rbac.entity.User;
+import com.assignments.rbac.entity.UserRoleChange;
 import com.assignments.rbac.exception.UserAlreadyExistsException;
 import com.assignments.rbac.exception.UserNotFoundException;
 import com.assignments.rbac.mapper.RoleMapper;
 import com.assignments.rbac.mapper.UserMapper;
 import com.assignments.rbac.repository.RoleRepository;
 import com.assignments.rbac.repository.UserRepository;
+import com.assignments.rbac.repository.UserRoleChangeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +22,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -40,9 +43,18 @@ class RoleServiceTest {
     @Mock
     private RoleMapper roleMapper;
 
+    @Mock
+    private UserRoleCache userRoleCache;
+
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private StatsCounters statsCounters;
+
+    @Mock
+    private UserRoleChangeRepository userRoleChangeRepository;
+
     @InjectMocks
     private RoleService roleService;
 
@@ -113,6 +125,59 @@ class RoleServiceTest {
         verify(roleRepository, never()).save(any(Role.class));
     }
 
+    @Test
+    void updateRole_Success() {
+        RoleRequest rename = new RoleRequest();
+        rename.setName("SUPERVISOR");
+        rename.setDescription("Supervisor role");
+        when(roleRepository.findById(1L)).thenReturn(Optional.of(role));
+        when(roleRepository.existsByName("SUPERVISOR")).thenReturn(false);
+        when(roleRepository.save(role)).thenReturn(role);
+        when(roleMapper.toResponse(role)).thenReturn(roleResponse);
+
+        RoleResponse result = roleService.updateRole(1L, rename);
+
+        assertSame(roleResponse, result);
+        assertEquals("SUPERVISOR", role.getName());
+        assertEquals("Supervisor role", role.getDescription());
+        verify(statsCounters).roleRenamed("MANAGER", "SUPERVISOR");
+        verify(userRoleCache).evictRole(1L);
+    }
+
+    @Test
+    void updateRole_ProtectedRole_CannotBeRenamed() {
+        role.setName("ADMIN");
+        when(roleRepository.findById(1L)).thenReturn(Optional.of(role));
+
+        assertThrows(IllegalArgumentException.class, () -> roleService.updateRole(1L, roleRequest));
+
+        assertEquals("ADMIN", role.getName());
+        verify(roleRepository, never()).save(any(Role.class));
+    }
+
+    @Test
+    void updateRole_NameTaken() {
+        RoleRequest rename = new RoleRequest();
+        rename.setName("ADMIN");
+        when(roleRepository.findById(1L)).thenReturn(Optional.of(role));
+        when(roleRepository.existsByName("ADMIN")).thenReturn(true);
+
+        assertThrows(UserAlreadyExistsException.class, () -> roleService.updateRole(1L, rename));
+
+        verify(roleRepository, never()).save(any(Role.class));
+        verify(userRoleCache, never()).evictRole(anyLong());
+    }
+
+    @Test
+    void updateRole_RoleNotFound() {
+        when(roleRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        UserNotFoundException exception = assertThrows(UserNotFoundException.class,
+                () -> roleService.updateRole(9L, roleRequest));
+
+        assertEquals("Role not found with id: 9", exception.getMessage());
+    }
+
     @Test
     void assignRolesToUser_Success() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
@@ -128,6 +193,13 @@ class RoleServiceTest {
         verify(userRepository).findById(1L);
         verify(roleRepository).findByIdIn(Set.of(1L));
         verify(userRepository).save(any(User.class));
+        verify(statsCounters).rolesAssigned(List.of(role.getName()));
+        verify(userRoleCache).evict(1L);
+        verify(userRoleChangeRepository).saveAll(argThat((Iterable<UserRoleChange> changes) -> {
+            UserRoleChange change = changes.iterator().next();
+            return change.getUserId().equals(1L) && change.getRoleName().equals(role.getName())
+                    && change.getChangeType() == UserRoleChange.ChangeType.ASSIGNED;
+        }));
     }
 
     @Test
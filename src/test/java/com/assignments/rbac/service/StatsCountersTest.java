@@ -0,0 +1,120 @@
+package com.assignments.rbac.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsCountersTest {
+
+    private final StatsCounters counters = new StatsCounters();
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Test
+    void registrationAndFirstLogin_UpdateCounters() {
+        counters.userRegistered();
+        counters.userRegistered();
+        counters.userLoggedIn(null, now);
+
+        StatsCounters.Snapshot snapshot = counters.snapshot(now);
+        assertEquals(2, snapshot.totalUsers());
+        assertEquals(1, snapshot.neverLoggedIn());
+        assertEquals(1, snapshot.activeUsers());
+        assertEquals(1, snapshot.loginsLast24h());
+    }
+
+    @Test
+    void repeatedLogin_CountsUserOnceButEveryLogin() {
+        counters.userLoggedIn(null, now.minusHours(2));
+        counters.userLoggedIn(now.minusHours(2), now.minusHours(1));
+        counters.userLoggedIn(now.minusHours(1), now);
+
+        StatsCounters.Snapshot snapshot = counters.snapshot(now);
+        assertEquals(1, snapshot.activeUsers());
+        assertEquals(3, snapshot.loginsLast24h());
+    }
+
+    @Test
+    void concurrentLogin_CountsLoginWithoutMovingUser() {
+        counters.userLoggedIn(null, now.minusMinutes(1));
+        counters.loginCounted(now.minusMinutes(1));
+
+        StatsCounters.Snapshot snapshot = counters.snapshot(now);
+        assertEquals(1, snapshot.activeUsers());
+        assertEquals(2, snapshot.loginsLast24h());
+    }
+
+    @Test
+    void updates_AdvanceVersion() {
+        long initial = counters.version();
+        counters.userRegistered();
+        counters.roleCreated("MANAGER");
+
+        assertEquals(initial + 2, counters.version());
+    }
+
+    @Test
+    void activeUsers_ExpireAfterWindow() {
+        counters.userLoggedIn(null, now);
+
+        assertEquals(1, counters.snapshot(now.plusHours(23)).activeUsers());
+        assertEquals(0, counters.snapshot(now.plusHours(24)).activeUsers());
+    }
+
+    @Test
+    void loginAfterInactivity_DoesNotDecrementExpiredBucket() {
+        counters.userLoggedIn(null, now.minusDays(2));
+        counters.userLoggedIn(now.minusDays(2), now);
+
+        assertEquals(1, counters.snapshot(now).activeUsers());
+    }
+
+    @Test
+    void roles_AreCountedPerName() {
+        counters.roleCreated("MANAGER");
+        counters.rolesAssigned(List.of("MANAGER", "USER"));
+        counters.rolesAssigned(List.of("USER"));
+
+        StatsCounters.Snapshot snapshot = counters.snapshot(now);
+        assertEquals(1, snapshot.totalRoles());
+        assertEquals(Map.of("MANAGER", 1L, "USER", 2L), snapshot.usersByRole());
+    }
+
+    @Test
+    void roleRenamed_MovesCountToNewName() {
+        counters.rolesAssigned(List.of("MANAGER", "MANAGER"));
+
+        counters.roleRenamed("MANAGER", "SUPERVISOR");
+
+        assertEquals(Map.of("SUPERVISOR", 2L), counters.snapshot(now).usersByRole());
+    }
+
+    @Test
+    void reconcile_ReplacesValuesButKeepsConcurrentUpdates() {
+        counters.userRegistered();
+        counters.rolesAssigned(List.of("OBSOLETE"));
+        assertFalse(counters.isInitialized());
+
+        StatsCounters.Marks marks = counters.beginReconcile();
+        // committed while the database was being read
+        counters.userRegistered();
+        counters.userLoggedIn(null, now);
+        counters.completeReconcile(marks,
+                new StatsCounters.Baseline(100, 3, 40, Map.of("USER", 90L, "ADMIN", 1L)),
+                Map.of(now.minusHours(3), 5L),
+                Map.of(now.minusHours(3), 8L),
+                now.minusMinutes(2));
+
+        StatsCounters.Snapshot snapshot = counters.snapshot(now);
+        assertTrue(counters.isInitialized());
+        assertEquals(101, snapshot.totalUsers());
+        assertEquals(3, snapshot.totalRoles());
+        assertEquals(40, snapshot.neverLoggedIn());
+        assertEquals(Map.of("USER", 90L, "ADMIN", 1L), snapshot.usersByRole());
+        assertEquals(6, snapshot.activeUsers());
+        assertEquals(9, snapshot.loginsLast24h());
+    }
+}
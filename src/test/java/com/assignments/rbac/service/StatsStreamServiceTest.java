@@ -0,0 +1,82 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.dto.AdminStatsDelta;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatsStreamServiceTest {
+
+    @Mock
+    private StatsCounters statsCounters;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private StatsStreamService newService() {
+        return new StatsStreamService(statsCounters, new ObjectMapper().findAndRegisterModules(), 60_000, 15_000, 1_000);
+    }
+
+    @Test
+    void diff_ContainsOnlyChangedFields() {
+        StatsCounters.Snapshot previous = new StatsCounters.Snapshot(10, 3, 4, 2, Map.of("USER", 10L, "ADMIN", 1L), 20);
+        StatsCounters.Snapshot current = new StatsCounters.Snapshot(11, 3, 4, 3, Map.of("USER", 11L, "ADMIN", 1L), 20);
+
+        AdminStatsDelta delta = StatsStreamService.diff(previous, current, now);
+
+        assertEquals(11L, delta.getTotalUsers());
+        assertEquals(3L, delta.getNeverLoggedInUsers());
+        assertEquals(Map.of("USER", 11L), delta.getUsersByRole());
+        assertNull(delta.getTotalRoles());
+        assertNull(delta.getActiveUsers());
+        assertNull(delta.getLoginsLast24h());
+        assertEquals(now, delta.getGeneratedAt());
+    }
+
+    @Test
+    void diff_ReportsRemovedRoleAsZero() {
+        StatsCounters.Snapshot previous = new StatsCounters.Snapshot(1, 2, 0, 1, Map.of("USER", 1L, "TEMP", 1L), 0);
+        StatsCounters.Snapshot current = new StatsCounters.Snapshot(1, 2, 0, 1, Map.of("USER", 1L), 0);
+
+        assertEquals(Map.of("TEMP", 0L), StatsStreamService.diff(previous, current, now).getUsersByRole());
+    }
+
+    @Test
+    void diff_ReturnsNullWhenUnchanged() {
+        StatsCounters.Snapshot snapshot = new StatsCounters.Snapshot(1, 2, 0, 1, Map.of("USER", 1L), 0);
+
+        assertNull(StatsStreamService.diff(snapshot, snapshot, now));
+    }
+
+    @Test
+    void broadcast_WithoutSubscribers_DoesNotReadCounters() {
+        newService().broadcast();
+
+        verifyNoInteractions(statsCounters);
+    }
+
+    @Test
+    void broadcast_ComputesSnapshotOncePerChange() {
+        StatsStreamService service = newService();
+        service.subscribe();
+        service.subscribe();
+        when(statsCounters.isInitialized()).thenReturn(true);
+        when(statsCounters.version()).thenReturn(5L);
+        when(statsCounters.snapshot(any())).thenReturn(new StatsCounters.Snapshot(1, 1, 0, 1, Map.of(), 0));
+
+        service.broadcast();
+        service.broadcast();
+
+        verify(statsCounters, times(1)).snapshot(any());
+        assertEquals(2, service.subscriberCount());
+    }
+}
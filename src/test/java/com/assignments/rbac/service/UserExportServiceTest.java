@@ -0,0 +1,104 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.dto.UserExportRow;
+import com.assignments.rbac.repository.UserExportDao;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    @Mock
+    private UserExportDao userExportDao;
+
+    // Mirrors Spring Boot's defaults: java.time values as ISO strings
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportService(userExportDao, objectMapper);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+        List<UserExportRow> rows = List.of(
+                new UserExportRow(1L, "Admin User", "admin", "admin@test.com", List.of("ADMIN", "USER"),
+                        createdAt, "system", createdAt.plusDays(1)),
+                new UserExportRow(2L, "Doe, \"Jane\"", "jane", "jane@test.com", List.of(),
+                        createdAt, null, null));
+        lenient().doAnswer(invocation -> {
+            Consumer<UserExportRow> consumer = invocation.getArgument(0);
+            rows.forEach(consumer);
+            return null;
+        }).when(userExportDao).streamUsersWithRoles(any());
+    }
+
+    @Test
+    void export_Ndjson_WritesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = userExportService.export(ExportFormat.NDJSON, out);
+
+        assertEquals(2, exported);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("admin", first.get("username").asText());
+        assertEquals("ADMIN", first.get("roles").get(0).asText());
+        assertEquals("2025-01-02T03:04:05", first.get("createdAt").asText());
+        assertEquals("Doe, \"Jane\"", objectMapper.readTree(lines[1]).get("name").asText());
+    }
+
+    @Test
+    void export_Csv_WritesHeaderAndEscapesFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userExportService.export(ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,name,username,email,roles,createdAt,createdBy,lastLoginAt", lines[0]);
+        assertEquals("1,Admin User,admin,admin@test.com,ADMIN;USER,2025-01-02T03:04:05,system,2025-01-03T03:04:05", lines[1]);
+        assertEquals("2,\"Doe, \"\"Jane\"\"\",jane,jane@test.com,,2025-01-02T03:04:05,,", lines[2]);
+    }
+
+    @Test
+    void writeCsvField_NeutralisesFormulas() throws Exception {
+        StringWriter writer = new StringWriter();
+
+        UserExportService.writeCsvField(writer, "=HYPERLINK(\"http://evil\",\"x\")");
+        writer.write('|');
+        UserExportService.writeCsvField(writer, "@SUM(A1)");
+        writer.write('|');
+        UserExportService.writeCsvField(writer, "-1+2");
+        writer.write('|');
+        UserExportService.writeCsvField(writer, "Jane-Doe");
+
+        assertEquals("\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\"|'@SUM(A1)|'-1+2|Jane-Doe", writer.toString());
+    }
+
+    @Test
+    void exportFormat_RejectsUnknownFormat() {
+        assertEquals(ExportFormat.CSV, ExportFormat.from("csv"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.from("xml"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.config.CacheConfig;
+import com.assignments.rbac.dto.RoleResponse;
+import com.assignments.rbac.entity.Role;
+import com.assignments.rbac.mapper.RoleMapper;
+import com.assignments.rbac.repository.RoleRepository;
+import com.assignments.rbac.repository.UserRoleView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserRoleCacheTest {
+
+    @Mock
+    private RoleBatchLoader roleBatchLoader;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private RoleMapper roleMapper;
+
+    private UserRoleCache userRoleCache;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager =
+                new ConcurrentMapCacheManager(CacheConfig.USER_ROLES_CACHE, CacheConfig.ROLES_CACHE);
+        userRoleCache = new UserRoleCache(cacheManager, roleBatchLoader, roleRepository, roleMapper);
+    }
+
+    @Test
+    void getRoles_SecondLookup_IsServedFromCache() {
+        UserRoleView admin = roleView(1L, 10L);
+        when(roleBatchLoader.load(1L)).thenReturn(List.of(admin));
+        when(roleMapper.toResponse(admin)).thenReturn(role(10L, "ADMIN"));
+
+        assertEquals(List.of("ADMIN"), userRoleCache.getRoleNames(1L));
+        assertEquals(List.of("ADMIN"), userRoleCache.getRoleNames(1L));
+        assertEquals(Set.of(10L), userRoleCache.getRoleIds(1L));
+
+        verify(roleBatchLoader, times(1)).load(1L);
+        verifyNoInteractions(roleRepository);
+    }
+
+    @Test
+    void getRoleIds_ForManyUsers_LoadsOnlyMissesInOneQuery() {
+        UserRoleView cachedRole = roleView(1L, 10L);
+        when(roleBatchLoader.load(1L)).thenReturn(List.of(cachedRole));
+        when(roleMapper.toResponse(any(UserRoleView.class))).thenReturn(role(10L, "ADMIN"));
+        userRoleCache.getRoleIds(1L);
+        UserRoleView loadedRole = roleView(2L, 10L);
+        when(roleBatchLoader.loadAll(List.of(2L, 3L))).thenReturn(Map.of(2L, List.of(loadedRole)));
+
+        Map<Long, Set<Long>> roleIds = userRoleCache.getRoleIds(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of(1L, Set.of(10L), 2L, Set.of(10L), 3L, Set.of()), roleIds);
+        verify(roleBatchLoader, times(1)).loadAll(any());
+        assertEquals(Set.of(), userRoleCache.getRoleIds(3L));
+        verify(roleBatchLoader, times(1)).load(any());
+    }
+
+    @Test
+    void getRoles_MissingRoleDetails_AreLoadedByIdSkippingDeletedRoles() {
+        List<UserRoleView> held = List.of(roleView(1L, 10L), roleView(1L, 11L));
+        when(roleBatchLoader.loadAll(List.of(1L))).thenReturn(Map.of(1L, held));
+        when(roleMapper.toResponse(any(UserRoleView.class))).thenReturn(role(10L, "ADMIN"));
+        userRoleCache.getRoleIds(List.of(1L));
+        userRoleCache.evictRole(11L);
+        Role deleted = new Role();
+        deleted.setId(11L);
+        deleted.setIsDeleted(true);
+        when(roleRepository.findByIdIn(Set.of(11L))).thenReturn(Set.of(deleted));
+
+        Map<Long, Set<RoleResponse>> roles = userRoleCache.getRoles(List.of(1L));
+
+        assertEquals(1, roles.get(1L).size());
+        verify(roleRepository).findByIdIn(Set.of(11L));
+    }
+
+    @Test
+    void evict_OutsideTransaction_DropsCachedRolesImmediately() {
+        when(roleBatchLoader.load(1L)).thenReturn(List.of());
+        userRoleCache.getRoleIds(1L);
+
+        userRoleCache.evict(1L);
+        userRoleCache.getRoleIds(1L);
+
+        verify(roleBatchLoader, times(2)).load(1L);
+    }
+
+    private static UserRoleView roleView(Long userId, Long roleId) {
+        UserRoleView view = mock(UserRoleView.class, withSettings().stubOnly());
+        lenient().when(view.getUserId()).thenReturn(userId);
+        lenient().when(view.getId()).thenReturn(roleId);
+        return view;
+    }
+
+    private static RoleResponse role(Long id, String name) {
+        RoleResponse role = new RoleResponse();
+        role.setId(id);
+        role.setName(name);
+        return role;
+    }
+}
@@ -0,0 +1,87 @@
+package com.assignments.rbac.service;
+
+import com.assignments.rbac.dto.UserSearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex(null, false);
+        index.rebuild(sink -> List.of(
+                new UserSearchResult(1L, "alice", "alice@example.com", "Alice Johnson"),
+                new UserSearchResult(2L, "bob", "bob@example.com", "Bob Malice"),
+                new UserSearchResult(3L, "carol", "carol.j@test.org", "Carol Jones")
+        ).forEach(sink));
+    }
+
+    @Test
+    void shortQuery_MatchesFieldPrefixesOnly() {
+        assertEquals(List.of(1L), ids(index.search("a", 10)));
+        assertEquals(List.of(3L), ids(index.search("CA", 10)));
+        assertTrue(index.search("li", 10).isEmpty());
+    }
+
+    @Test
+    void longerQuery_MatchesInfix() {
+        assertEquals(List.of(1L, 2L), ids(index.search("alice", 10)));
+        assertEquals(List.of(3L), ids(index.search("test.org", 10)));
+        assertEquals(List.of(3L), ids(index.search("jon", 10)));
+        assertTrue(index.search("jo", 10).isEmpty());
+    }
+
+    @Test
+    void results_AreRankedExactThenPrefixThenInfix() {
+        index.add(new UserSearchResult(4L, "alice2", "a2@example.com", "Second Alice"));
+
+        // exact username match, then prefix match, then the infix matches newest first
+        assertEquals(List.of(1L, 4L, 2L), ids(index.search("Alice", 10)));
+        assertEquals(List.of(1L), ids(index.search("alice", 1)));
+        assertEquals(List.of(4L, 1L), ids(index.search("ali", 2)));
+    }
+
+    @Test
+    void unknownTrigram_ReturnsNothing() {
+        assertTrue(index.search("zzz", 10).isEmpty());
+        assertTrue(index.search("   ", 10).isEmpty());
+    }
+
+    @Test
+    void registrationsDuringBuild_AreAppliedOnceAfterBuild() {
+        UserSearchIndex building = new UserSearchIndex(null, false);
+        building.add(new UserSearchResult(5L, "dave", "dave@example.com", "Dave"));
+        building.add(new UserSearchResult(6L, "erin", "erin@example.com", "Erin"));
+        assertFalse(building.isReady());
+        assertTrue(building.search("dave", 10).isEmpty());
+
+        building.rebuild(sink -> sink.accept(new UserSearchResult(5L, "dave", "dave@example.com", "Dave")));
+
+        assertTrue(building.isReady());
+        assertEquals(List.of(5L), ids(building.search("dave", 10)));
+        assertEquals(List.of(6L), ids(building.search("erin", 10)));
+    }
+
+    @Test
+    void registrationCommittedDuringBuild_IsIndexedOnceWhenAlsoStreamed() {
+        UserSearchIndex building = new UserSearchIndex(null, false);
+        UserSearchResult frank = new UserSearchResult(7L, "frank", "frank@example.com", "Frank");
+
+        building.rebuild(sink -> {
+            sink.accept(frank);
+            building.add(frank);
+        });
+
+        assertEquals(List.of(7L), ids(building.search("frank", 10)));
+    }
+
+    private static List<Long> ids(List<UserSearchResult> results) {
+        return results.stream().map(UserSearchResult::getId).toList();
+    }
+}
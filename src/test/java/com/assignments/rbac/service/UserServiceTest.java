@@ -10,7 +10,6 @@ import com.assignments.rbac.exception.UserAlreadyExistsException;
 import com.assignments.rbac.exception.UserNotFoundException;
 import com.assignments.rbac.mapper.UserMapper;
 import com.assignments.rbac.repository.UserRepository;
-import com.assignments.rbac.repository.RoleRepository;
 import com.assignments.rbac.security.JwtUtils;
 import com.assignments.rbac.service.EventPublisherService;
 import com.assignments.rbac.service.RequestInfoService;
@@ -29,6 +28,7 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,7 +44,7 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private RoleRepository roleRepository;
+    private UserRoleCache userRoleCache;
 
     @Mock
     private UserMapper userMapper;
@@ -64,6 +64,15 @@ class UserServiceTest {
     @Mock
     private RequestInfoService requestInfoService;
 
+    @Mock
+    private StatsCounters statsCounters;
+
+    @Mock
+    private LoginAnalytics loginAnalytics;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
     @InjectMocks
     private UserService userService;
 
@@ -127,6 +136,7 @@ class UserServiceTest {
         verify(userRepository).existsByEmail("harsh@test.com");
         verify(passwordEncoder).encode("password123");
         verify(userRepository).save(any(User.class));
+        verify(statsCounters).userRegistered();
     }
 
     @Test
@@ -162,6 +172,8 @@ class UserServiceTest {
                 .thenReturn(authentication);
         when(jwtUtils.generateJwtToken(authentication)).thenReturn("jwt-token");
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.updateLastLoginAtIfUnchanged(eq(user.getId()), isNull(), any(LocalDateTime.class)))
+                .thenReturn(1);
         when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
 
         LoginResponse result = userService.loginUser(loginRequest);
@@ -174,6 +186,27 @@ class UserServiceTest {
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(jwtUtils).generateJwtToken(authentication);
         verify(userRepository).findByEmail("harsh@test.com");
+        verify(statsCounters).userLoggedIn(isNull(), any(LocalDateTime.class));
+        // Written by the conditional update only; a dirty entity would be flushed again at commit.
+        assertNull(user.getLastLoginAt());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void loginUser_ConcurrentLoginUpdatedLastLogin_OnlyCountsLogin() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(authentication);
+        when(jwtUtils.generateJwtToken(authentication)).thenReturn("jwt-token");
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.updateLastLoginAtIfUnchanged(eq(user.getId()), isNull(), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
+
+        userService.loginUser(loginRequest);
+
+        verify(statsCounters, never()).userLoggedIn(any(), any());
+        verify(statsCounters).loginCounted(any(LocalDateTime.class));
+        assertNull(user.getLastLoginAt());
     }
 
     @Test
@@ -212,8 +245,8 @@ class UserServiceTest {
             mockedSecurityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
 
             when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
-            when(roleRepository.findRolesByUserId(anyLong())).thenReturn(java.util.Collections.emptyList());
-            when(userMapper.toCurrentUserResponse(any(User.class))).thenReturn(currentUserResponse);
+            when(userRoleCache.getRoles(anyLong())).thenReturn(java.util.Collections.emptyList());
+            when(userMapper.toCurrentUserResponse(any(User.class), anyList())).thenReturn(currentUserResponse);
 
             CurrentUserResponse result = userService.getCurrentUser();
 
@@ -222,7 +255,7 @@ class UserServiceTest {
             assertEquals("harsh@test.com", result.getEmail());
 
             verify(userRepository).findByEmail("harsh@test.com");
-            verify(userMapper).toCurrentUserResponse(user);
+            verify(userMapper).toCurrentUserResponse(user, java.util.Collections.emptyList());
         }
     }
 
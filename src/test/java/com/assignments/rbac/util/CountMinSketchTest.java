@@ -0,0 +1,47 @@
+package com.assignments.rbac.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void estimate_NeverUndercountsAndStaysWithinErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        long total = 0;
+        for (long key = 1; key <= 10_000; key++) {
+            int occurrences = key <= 10 ? 1_000 : 1;
+            for (int i = 0; i < occurrences; i++) {
+                sketch.add(HyperLogLog.mix64(key));
+            }
+            total += occurrences;
+        }
+
+        long bound = (long) Math.ceil(Math.E / 1024 * total);
+        for (long key = 1; key <= 10; key++) {
+            long estimate = sketch.estimate(HyperLogLog.mix64(key));
+            assertTrue(estimate >= 1_000 && estimate <= 1_000 + bound, "estimate " + estimate);
+        }
+        assertTrue(sketch.estimate(HyperLogLog.mix64(20_000)) <= bound);
+    }
+
+    @Test
+    void halve_HalvesEstimates() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        long hash = HyperLogLog.mix64(42);
+        for (int i = 0; i < 100; i++) {
+            sketch.add(hash);
+        }
+
+        sketch.halve();
+
+        assertEquals(50, sketch.estimate(hash));
+        assertEquals(51, sketch.add(hash));
+    }
+
+    @Test
+    void constructor_RejectsWidthThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 1000));
+    }
+}
@@ -0,0 +1,61 @@
+package com.assignments.rbac.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void top_ReturnsMostFrequentKeysFirst() {
+        HeavyHitters hitters = new HeavyHitters(3, 4, 1024);
+        for (int round = 0; round < 100; round++) {
+            hitters.add("10.0.0.1");
+            if (round % 2 == 0) {
+                hitters.add("10.0.0.2");
+            }
+            if (round % 4 == 0) {
+                hitters.add("10.0.0.3");
+            }
+            // Long tail of keys seen once each.
+            hitters.add("192.168.0." + round);
+        }
+
+        List<HeavyHitters.Entry> top = hitters.top();
+
+        assertEquals(List.of("10.0.0.1", "10.0.0.2", "10.0.0.3"), top.stream().map(HeavyHitters.Entry::key).toList());
+        assertEquals(100, top.get(0).count());
+        assertEquals(275, hitters.total());
+    }
+
+    @Test
+    void top_KeyThatTurnsHot_ReplacesColdestKey() {
+        HeavyHitters hitters = new HeavyHitters(2, 4, 1024);
+        addTimes(hitters, "alice", 10);
+        addTimes(hitters, "bob", 5);
+
+        addTimes(hitters, "carol", 20);
+
+        assertEquals(List.of(new HeavyHitters.Entry("carol", 20), new HeavyHitters.Entry("alice", 10)), hitters.top());
+    }
+
+    @Test
+    void decay_HalvesCountsAndDropsKeysThatWentQuiet() {
+        HeavyHitters hitters = new HeavyHitters(2, 4, 1024);
+        addTimes(hitters, "alice", 8);
+        hitters.add("bob");
+
+        hitters.decay();
+
+        assertEquals(List.of(new HeavyHitters.Entry("alice", 4)), hitters.top());
+        assertEquals(5, hitters.total());
+    }
+
+    private static void addTimes(HeavyHitters hitters, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            hitters.add(key);
+        }
+    }
+}
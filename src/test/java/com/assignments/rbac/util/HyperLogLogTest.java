@@ -0,0 +1,102 @@
+package com.assignments.rbac.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void emptySketch_EstimatesZero() {
+        HyperLogLog sketch = new HyperLogLog(11);
+
+        assertTrue(sketch.isEmpty());
+        assertEquals(0, sketch.estimate());
+    }
+
+    @Test
+    void duplicates_AreCountedOnce() {
+        HyperLogLog sketch = new HyperLogLog(11);
+        for (int round = 0; round < 5; round++) {
+            for (long id = 1; id <= 100; id++) {
+                sketch.add(id);
+            }
+        }
+
+        assertEquals(100, sketch.estimate(), 3);
+    }
+
+    @Test
+    void largeCardinality_StaysWithinErrorBound() {
+        HyperLogLog sketch = new HyperLogLog(11);
+        long distinct = 200_000;
+        for (long id = 1; id <= distinct; id++) {
+            sketch.add(id);
+        }
+
+        // Three standard errors at p=11 (~2.3% each).
+        assertEquals(distinct, sketch.estimate(), distinct * 0.07);
+    }
+
+    @Test
+    void merge_EstimatesUnion() {
+        HyperLogLog left = new HyperLogLog(11);
+        HyperLogLog right = new HyperLogLog(11);
+        for (long id = 0; id < 30_000; id++) {
+            left.add(id);
+        }
+        for (long id = 20_000; id < 50_000; id++) {
+            right.add(id);
+        }
+
+        HyperLogLog union = new HyperLogLog(11);
+        union.merge(left);
+        union.merge(right);
+
+        assertEquals(50_000, union.estimate(), 50_000 * 0.07);
+    }
+
+    @Test
+    void merge_RejectsDifferentPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(11).merge(new HyperLogLog(12)));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    }
+
+    @Test
+    void concurrentAdds_MatchSequentialSketch() throws Exception {
+        HyperLogLog concurrent = new HyperLogLog(11);
+        HyperLogLog sequential = new HyperLogLog(11);
+        int threads = 4;
+        int perThread = 25_000;
+        for (long id = 0; id < (long) threads * perThread; id++) {
+            sequential.add(id);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long offset = (long) t * perThread;
+                futures.add(executor.submit(() -> {
+                    for (long id = offset; id < offset + perThread; id++) {
+                        concurrent.add(id);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Registers only grow, so no update may be lost regardless of interleaving.
+        assertEquals(sequential.estimate(), concurrent.estimate());
+    }
+}
@@ -0,0 +1,90 @@
+package com.assignments.rbac.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void nextId_IsStrictlyIncreasing() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 100_000; i++) {
+            long next = generator.nextId();
+            assertTrue(next > previous, "ids must be strictly increasing");
+            previous = next;
+        }
+    }
+
+    @Test
+    void nextId_UniqueAcrossThreads() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void nextId_EncodesNodeAndTimestamp() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42);
+        long before = System.currentTimeMillis();
+
+        long id = generator.nextId();
+
+        assertEquals(42, (id >>> 12) & SnowflakeIdGenerator.MAX_NODE_ID);
+        assertTrue(SnowflakeIdGenerator.timestampOf(id) >= before);
+    }
+
+    @Test
+    void toString_SortsInIdOrder() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        Set<String> seen = new HashSet<>();
+
+        String previous = generator.nextIdString();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextIdString();
+            assertEquals(13, next.length());
+            assertTrue(next.compareTo(previous) > 0);
+            assertTrue(seen.add(next));
+            previous = next;
+        }
+    }
+
+    @Test
+    void constructor_RejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+    }
+}